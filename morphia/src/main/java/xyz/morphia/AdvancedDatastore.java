@@ -9,6 +9,7 @@ import com.mongodb.WriteResult;
 import com.mongodb.client.MongoCollection;
 import xyz.morphia.aggregation.AggregationPipeline;
 import xyz.morphia.query.Query;
+import xyz.morphia.query.QueryResultCache;
 import xyz.morphia.query.UpdateOperations;
 
 /**
@@ -34,6 +35,23 @@ public interface AdvancedDatastore extends Datastore {
      */
     void setDecoderFact(DBDecoderFactory fact);
 
+    /**
+     * @return the cache holding the results of queries run with caching enabled, or null if there is none
+     * @see #setQueryResultCache(QueryResultCache)
+     * @since 1.5
+     */
+    QueryResultCache getQueryResultCache();
+
+    /**
+     * Sets the cache used by queries run with {@link xyz.morphia.query.FindOptions#cacheResults(boolean)} or
+     * {@link xyz.morphia.query.CountOptions#cacheResults(boolean)}.  Writes through this Datastore drop the cached results of the
+     * collection written to.
+     *
+     * @param cache the cache to use, or null to disable caching
+     * @since 1.5
+     */
+    void setQueryResultCache(QueryResultCache cache);
+
     /**
      * Returns an {@link AggregationPipeline} bound to the given collection and class.
      *
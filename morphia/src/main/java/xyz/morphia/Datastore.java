@@ -429,6 +429,19 @@ public interface Datastore {
      */
     <T> List<T> getByKeys(Class<T> clazz, Iterable<Key<T>> keys);
 
+    /**
+     * Find the given entities (by id), in the order of their keys.  The keys of each collection are fetched in chunks, which may be run
+     * concurrently.
+     *
+     * @param clazz   the class to use for mapping when a key does not name its type
+     * @param keys    the keys to search with
+     * @param options the options to apply
+     * @param <T>     the type to fetch
+     * @return the matched entities, in key order
+     * @since 1.5
+     */
+    <T> List<T> getByKeys(Class<T> clazz, Iterable<Key<T>> keys, GetByKeysOptions options);
+
     /**
      * Find the given entities (by id); shorthand for {@code find("_id in", ids)}
      *
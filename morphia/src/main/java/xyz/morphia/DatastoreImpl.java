@@ -2,60 +2,101 @@ package xyz.morphia;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.BasicDBObjectBuilder;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteResult;
 import com.mongodb.CommandResult;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
 import com.mongodb.DBDecoderFactory;
+import com.mongodb.DBEncoder;
 import com.mongodb.DBObject;
 import com.mongodb.DBRef;
 import com.mongodb.DefaultDBDecoder;
+import com.mongodb.DefaultDBEncoder;
+import com.mongodb.DuplicateKeyException;
+import com.mongodb.ErrorCategory;
 import com.mongodb.MapReduceCommand;
 import com.mongodb.MapReduceCommand.OutputType;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
+import com.mongodb.MongoInterruptedException;
+import com.mongodb.MongoWriteConcernException;
+import com.mongodb.MongoWriteException;
 import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
 import com.mongodb.WriteConcern;
+import com.mongodb.WriteConcernException;
 import com.mongodb.WriteResult;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.CreateCollectionOptions;
 import com.mongodb.client.model.DBCollectionUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.InsertOneOptions;
+import com.mongodb.client.model.ReplaceOptions;
 import com.mongodb.client.model.ValidationOptions;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
 import xyz.morphia.aggregation.AggregationPipeline;
 import xyz.morphia.aggregation.AggregationPipelineImpl;
 import xyz.morphia.annotations.CappedAt;
 import xyz.morphia.annotations.Entity;
 import xyz.morphia.annotations.NotSaved;
 import xyz.morphia.annotations.PostPersist;
+import xyz.morphia.annotations.PrePersist;
 import xyz.morphia.annotations.Validation;
 import xyz.morphia.annotations.Version;
 import xyz.morphia.logging.Logger;
 import xyz.morphia.logging.MorphiaLoggerFactory;
+import xyz.morphia.mapping.EntityCodecProvider;
 import xyz.morphia.mapping.MappedClass;
 import xyz.morphia.mapping.MappedField;
 import xyz.morphia.mapping.Mapper;
 import xyz.morphia.mapping.MappingException;
 import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.mapping.cache.EntityCacheFactory;
+import xyz.morphia.mapping.cache.SharedEntityCache;
+import xyz.morphia.mapping.cache.SharedEntityCacheFactory;
 import xyz.morphia.mapping.lazy.proxy.ProxyHelper;
 import xyz.morphia.query.CountOptions;
 import xyz.morphia.query.DefaultQueryFactory;
 import xyz.morphia.query.Query;
 import xyz.morphia.query.QueryException;
 import xyz.morphia.query.QueryFactory;
+import xyz.morphia.query.QueryResultCache;
 import xyz.morphia.query.UpdateException;
 import xyz.morphia.query.UpdateOperations;
 import xyz.morphia.query.UpdateOpsImpl;
 import xyz.morphia.query.UpdateResults;
 import xyz.morphia.utils.Assert;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.mongodb.BasicDBObject.parse;
 import static com.mongodb.BasicDBObjectBuilder.start;
@@ -63,6 +104,8 @@ import static com.mongodb.DBCollection.ID_FIELD_NAME;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 
 /**
  * A generic (type-safe) wrapper around mongodb collections
@@ -84,6 +127,7 @@ public class DatastoreImpl implements AdvancedDatastore {
     private DBDecoderFactory decoderFactory;
 
     private volatile QueryFactory queryFactory = new DefaultQueryFactory();
+    private volatile QueryResultCache queryResultCache;
 
     /**
      * Create a new DatastoreImpl
@@ -173,7 +217,11 @@ public class DatastoreImpl implements AdvancedDatastore {
             throw new QueryException("Delete does not allow sort/offset/limit query options.");
         }
 
-        return dbColl.remove(query.getQueryObject(), enforceWriteConcern(options, query.getEntityClass()).getOptions());
+        try {
+            return dbColl.remove(query.getQueryObject(), enforceWriteConcern(options, query.getEntityClass()).getOptions());
+        } finally {
+            invalidate(dbColl);
+        }
     }
 
     @Override
@@ -350,7 +398,12 @@ public class DatastoreImpl implements AdvancedDatastore {
             .upsert(false)
             .remove(true);
 
-        final DBObject result = dbColl.findAndModify(query.getQueryObject(), copy.getOptions());
+        final DBObject result;
+        try {
+            result = dbColl.findAndModify(query.getQueryObject(), copy.getOptions());
+        } finally {
+            invalidate(dbColl);
+        }
 
         return result == null ? null : mapper.fromDBObject(this, query.getEntityClass(), result, createCache());
     }
@@ -368,11 +421,16 @@ public class DatastoreImpl implements AdvancedDatastore {
         }
 
         updateForVersioning(query, operations);
-        DBObject res = dbColl.findAndModify(query.getQueryObject(), options.copy()
-                                                                           .sort(query.getSortObject())
-                                                                           .projection(query.getFieldsObject())
-                                                                           .update(((UpdateOpsImpl<T>) operations).getOps())
-                                           .getOptions());
+        final DBObject res;
+        try {
+            res = dbColl.findAndModify(query.getQueryObject(), options.copy()
+                                                                  .sort(query.getSortObject())
+                                                                  .projection(query.getFieldsObject())
+                                                                  .update(((UpdateOpsImpl<T>) operations).getOps())
+                                                                  .getOptions());
+        } finally {
+            invalidate(dbColl);
+        }
 
         return res == null ? null : mapper.fromDBObject(this, query.getEntityClass(), res, createCache());
 
@@ -418,7 +476,23 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public <T, V> T get(final Class<T> clazz, final V id) {
-        return find(getCollection(clazz).getName(), clazz, Mapper.ID_KEY, id, 0, 1, true).get();
+        final String collection = getCollection(clazz).getName();
+        final EntityCache cache = createCache();
+        if (!(cache instanceof SharedEntityCache) || id == null) {
+            return find(collection, clazz, Mapper.ID_KEY, id, 0, 1, true).get();
+        }
+
+        final Key<T> key = new Key<T>(clazz, collection, id);
+        T entity = cache.getEntity(key);
+        if (entity == null) {
+            final Query<T> query = find(collection, clazz, Mapper.ID_KEY, id, 0, 1, true);
+            final DBObject document = getCollection(clazz).findOne(query.getQueryObject());
+            if (document != null) {
+                entity = mapper.fromDBObject(this, clazz, document, cache);
+                ((SharedEntityCache) cache).publish(key, entity, document);
+            }
+        }
+        return entity;
     }
 
     @Override
@@ -484,6 +558,95 @@ public class DatastoreImpl implements AdvancedDatastore {
         return entities;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getByKeys(final Class<T> clazz, final Iterable<Key<T>> keys, final GetByKeysOptions options) {
+        final List<Key<T>> keyList = new ArrayList<Key<T>>();
+        final List<Object> idList = new ArrayList<Object>();
+        final Map<String, Map<Object, Key<T>>> kindMap = new LinkedHashMap<String, Map<Object, Key<T>>>();
+        for (final Key<T> key : keys) {
+            mapper.updateCollection(key);
+            keyList.add(key);
+
+            Map<Object, Key<T>> kindKeys = kindMap.get(key.getCollection());
+            if (kindKeys == null) {
+                kindKeys = new LinkedHashMap<Object, Key<T>>();
+                kindMap.put(key.getCollection(), kindKeys);
+            }
+            final Object id = toIdKey(key.getId());
+            idList.add(id);
+            if (!kindKeys.containsKey(id)) {
+                kindKeys.put(id, key);
+            }
+        }
+
+        final List<FutureTask<Map<Object, T>>> tasks = new ArrayList<FutureTask<Map<Object, T>>>();
+        final List<String> taskKinds = new ArrayList<String>();
+        for (final Entry<String, Map<Object, Key<T>>> entry : kindMap.entrySet()) {
+            final String kind = entry.getKey();
+            final List<Object> ids = new ArrayList<Object>(entry.getValue().keySet());
+            final Key<T> first = entry.getValue().values().iterator().next();
+            final Class<T> type = first.getType() != null ? (Class<T>) first.getType() : clazz;
+            for (int start = 0; start < ids.size(); start += options.getChunkSize()) {
+                final List<Object> chunk = ids.subList(start, Math.min(ids.size(), start + options.getChunkSize()));
+                taskKinds.add(kind);
+                tasks.add(new FutureTask<Map<Object, T>>(new Callable<Map<Object, T>>() {
+                    @Override
+                    public Map<Object, T> call() {
+                        return fetchByIds(kind, type, chunk);
+                    }
+                }));
+            }
+        }
+
+        final Map<String, Map<Object, T>> found = new HashMap<String, Map<Object, T>>();
+        for (final FutureTask<Map<Object, T>> task : tasks) {
+            if (options.getExecutor() == null) {
+                task.run();
+            } else {
+                try {
+                    options.getExecutor().execute(task);
+                } catch (RejectedExecutionException e) {
+                    cancel(tasks);
+                    throw e;
+                }
+            }
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                final Map<Object, T> kindFound = found.get(taskKinds.get(i));
+                if (kindFound == null) {
+                    found.put(taskKinds.get(i), tasks.get(i).get());
+                } else {
+                    kindFound.putAll(tasks.get(i).get());
+                }
+            } catch (InterruptedException e) {
+                cancel(tasks);
+                Thread.currentThread().interrupt();
+                throw new MongoInterruptedException("Interrupted while fetching entities by key", e);
+            } catch (ExecutionException e) {
+                cancel(tasks);
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new MappingException("Could not fetch entities by key", e.getCause());
+            }
+        }
+
+        final List<T> entities = new ArrayList<T>(keyList.size());
+        for (int i = 0; i < keyList.size(); i++) {
+            final Map<Object, T> kindFound = found.get(keyList.get(i).getCollection());
+            final T entity = kindFound != null ? kindFound.get(idList.get(i)) : null;
+            if (entity != null || options.isIncludeMissing()) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
     @Override
     public <T> List<T> getByKeys(final Iterable<Key<T>> keys) {
         return getByKeys(null, keys);
@@ -516,6 +679,42 @@ public class DatastoreImpl implements AdvancedDatastore {
         return database.getCollection(name, clazz);
     }
 
+    /**
+     * Gets a collection whose documents are decoded directly in to entities of the given type, without building a DBObject for each one.
+     *
+     * @param name  the collection name
+     * @param clazz the entity type
+     * @param cache the EntityCache to use while decoding
+     * @param <T>   the entity type
+     * @return the collection
+     * @see EntityCodecProvider
+     * @since 1.5
+     */
+    public <T> MongoCollection<T> getEntityCollection(final String name, final Class<T> clazz, final EntityCache cache) {
+        return getEntityCollection(name, clazz, new EntityCodecProvider(this, mapper, clazz, cache));
+    }
+
+    /**
+     * Gets a collection which decodes its documents in to the given type, visiting only the fields the projection returns.
+     *
+     * @param name       the collection name
+     * @param clazz      the type to decode documents in to
+     * @param cache      the EntityCache to use
+     * @param projection the projection the documents will be read with, which may be null
+     * @param <T>        the type
+     * @return the collection
+     * @since 1.5
+     */
+    public <T> MongoCollection<T> getEntityCollection(final String name, final Class<T> clazz, final EntityCache cache,
+                                                      final DBObject projection) {
+        return getEntityCollection(name, clazz, new EntityCodecProvider(this, mapper, clazz, cache, projection));
+    }
+
+    private <T> MongoCollection<T> getEntityCollection(final String name, final Class<T> clazz, final EntityCodecProvider provider) {
+        return getMongoCollection(name, clazz)
+            .withCodecRegistry(fromRegistries(fromProviders(provider), database.getCodecRegistry()));
+    }
+
     @Override
     public <T> long getCount(final T entity) {
         return getCollection(ProxyHelper.unwrap(entity)).count();
@@ -740,6 +939,9 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public <T> Iterable<Key<T>> save(final Iterable<T> entities, final InsertOptions options) {
+        if (morphia != null && morphia.isUseBulkWriteOperations()) {
+            return saveInBulk(entities, options);
+        }
         final List<Key<T>> savedKeys = new ArrayList<Key<T>>();
         for (final T ent : entities) {
             savedKeys.add(save(ent, options));
@@ -1048,6 +1250,16 @@ public class DatastoreImpl implements AdvancedDatastore {
         decoderFactory = fact;
     }
 
+    @Override
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    @Override
+    public void setQueryResultCache(final QueryResultCache cache) {
+        queryResultCache = cache;
+    }
+
     @Override
     public <T> Key<T> insert(final String collection, final T entity) {
         final T unwrapped = ProxyHelper.unwrap(entity);
@@ -1232,10 +1444,28 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     protected <T> Key<T> insert(final DBCollection dbColl, final T entity, final InsertOptions options) {
         final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
-        dbColl.insert(singletonList(entityToDBObj(entity, involvedObjects)), enforceWriteConcern(options, entity.getClass())
-            .getOptions());
+        final Set<Object> assignedIds = newIdentitySet();
+        final InsertOptions enforced = enforceWriteConcern(options, entity.getClass());
+        try {
+            if (isDirectlyEncodable(dbColl, enforced, entity)) {
+                prePersist(entity);
+                try {
+                    getWriteCollection(dbColl, entity, enforced, involvedObjects)
+                        .insertOne(entity, new InsertOneOptions().bypassDocumentValidation(enforced.getBypassDocumentValidation()));
+                } catch (MongoException e) {
+                    throw toLegacyException(e);
+                }
+            } else {
+                if (assignId(entity)) {
+                    assignedIds.add(entity);
+                }
+                dbColl.insert(singletonList(entityToDBObj(entity, involvedObjects)), enforced.getOptions());
+            }
+        } finally {
+            invalidate(dbColl);
+        }
 
-        return postSaveOperations(singletonList(entity), involvedObjects, dbColl).get(0);
+        return postSaveOperations(singletonList(entity), involvedObjects, dbColl, true, assignedIds).get(0);
     }
 
     <T> FindAndModifyOptions enforceWriteConcern(final FindAndModifyOptions options, final Class<T> klass) {
@@ -1287,6 +1517,10 @@ public class DatastoreImpl implements AdvancedDatastore {
 
         // involvedObjects is used not only as a cache but also as a list of what needs to be called for life-cycle methods at the end.
         final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
+        if (isDirectlyEncodable(dbColl, options, entity)) {
+            saveDirectly(dbColl, entity, options, involvedObjects);
+            return postSaveOperations(singletonList(entity), involvedObjects, dbColl).get(0);
+        }
         final DBObject document = entityToDBObj(entity, involvedObjects);
 
         // try to do an update if there is a @Version field
@@ -1300,15 +1534,169 @@ public class DatastoreImpl implements AdvancedDatastore {
         return postSaveOperations(singletonList(entity), involvedObjects, dbColl).get(0);
     }
 
-    private WriteResult saveDocument(final DBCollection dbColl, final DBObject document, final InsertOptions options) {
-        if (document.get(ID_FIELD_NAME) == null) {
-            return dbColl.insert(singletonList(document), options.getOptions());
+    /*
+     * Writes the entity straight to BSON rather than building a DBObject for it, as saveDocument would: a replace by _id, or an insert if
+     * there is no id yet.  The PrePersist methods run first, as an id they assign decides between the two.
+     */
+    private <T> void saveDirectly(final DBCollection dbColl, final T entity, final InsertOptions options,
+                                  final Map<Object, DBObject> involvedObjects) {
+        prePersist(entity);
+        final MongoCollection<T> collection = getWriteCollection(dbColl, entity, options, involvedObjects);
+        final CollectibleCodec<T> codec = (CollectibleCodec<T>) collection.getCodecRegistry().get(collection.getDocumentClass());
+        try {
+            if (codec.documentHasId(entity)) {
+                collection.replaceOne(new BsonDocument(ID_FIELD_NAME, codec.getDocumentId(entity)), entity,
+                                      new ReplaceOptions()
+                                          .bypassDocumentValidation(options.getBypassDocumentValidation())
+                                          .upsert(true));
+            } else {
+                collection.insertOne(entity, new InsertOneOptions().bypassDocumentValidation(options.getBypassDocumentValidation()));
+            }
+        } catch (MongoException e) {
+            throw toLegacyException(e);
+        } finally {
+            invalidate(dbColl);
+        }
+    }
+
+    /*
+     * Runs the PrePersist methods of an entity about to be written straight to BSON, so that the write can depend on what they do.  The
+     * collection from getWriteCollection does not run them again.
+     */
+    private void prePersist(final Object entity) {
+        mapper.getMappedClass(entity).callLifecycleMethods(PrePersist.class, entity, new BasicDBObject(), mapper);
+    }
+
+    private boolean isDirectlyEncodable(final DBCollection dbColl, final InsertOptions options, final Object entity) {
+        return dbColl.getDBEncoderFactory() == null && options.getOptions().getDbEncoder() == null && mapper.isDirectlyEncodable(entity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> MongoCollection<T> getWriteCollection(final DBCollection dbColl, final T entity, final InsertOptions options,
+                                                      final Map<Object, DBObject> involvedObjects) {
+        final Class<T> clazz = (Class<T>) entity.getClass();
+        final EntityCodecProvider provider = new EntityCodecProvider(this, mapper, clazz, createCache(), involvedObjects, false);
+        return getEntityCollection(dbColl.getName(), clazz, provider)
+            .withWriteConcern(options.getWriteConcern() != null ? options.getWriteConcern() : dbColl.getWriteConcern());
+    }
+
+    /*
+     * Raises write errors from the MongoCollection API, and from bulk writes, as the DBCollection API would have for a single write, so
+     * callers see the same exceptions either way.
+     */
+    private static MongoException toLegacyException(final MongoException e) {
+        final int code;
+        final String message;
+        final ServerAddress address;
+        if (e instanceof MongoWriteException) {
+            code = ((MongoWriteException) e).getError().getCode();
+            message = ((MongoWriteException) e).getError().getMessage();
+            address = ((MongoWriteException) e).getServerAddress();
+        } else if (e instanceof MongoWriteConcernException) {
+            code = ((MongoWriteConcernException) e).getWriteConcernError().getCode();
+            message = ((MongoWriteConcernException) e).getWriteConcernError().getMessage();
+            address = ((MongoWriteConcernException) e).getServerAddress();
+        } else if (e instanceof BulkWriteException) {
+            final BulkWriteException bulk = (BulkWriteException) e;
+            if (!bulk.getWriteErrors().isEmpty()) {
+                final com.mongodb.BulkWriteError last = bulk.getWriteErrors().get(bulk.getWriteErrors().size() - 1);
+                code = last.getCode();
+                message = last.getMessage();
+            } else if (bulk.getWriteConcernError() != null) {
+                code = bulk.getWriteConcernError().getCode();
+                message = bulk.getWriteConcernError().getMessage();
+            } else {
+                return e;
+            }
+            address = bulk.getServerAddress();
+        } else if (e instanceof MongoBulkWriteException) {
+            final MongoBulkWriteException bulk = (MongoBulkWriteException) e;
+            if (!bulk.getWriteErrors().isEmpty()) {
+                final BulkWriteError last = bulk.getWriteErrors().get(bulk.getWriteErrors().size() - 1);
+                code = last.getCode();
+                message = last.getMessage();
+            } else if (bulk.getWriteConcernError() != null) {
+                code = bulk.getWriteConcernError().getCode();
+                message = bulk.getWriteConcernError().getMessage();
+            } else {
+                return e;
+            }
+            address = bulk.getServerAddress();
         } else {
+            return e;
+        }
+
+        final BsonDocument response = new BsonDocument("ok", new BsonInt32(1))
+                                          .append("err", new BsonString(message))
+                                          .append("code", new BsonInt32(code));
+        // the MongoCollection API reports no counts for a failed write, so there is no WriteConcernResult to pass on
+        final WriteConcernException legacy = ErrorCategory.fromErrorCode(code) == ErrorCategory.DUPLICATE_KEY
+                                             ? new DuplicateKeyException(response, address, null)
+                                             : new WriteConcernException(response, address, null);
+        legacy.initCause(e);
+        return legacy;
+    }
+
+    /*
+     * Saves the entities of each collection with one bulk write.  Conflicting versions are reported once every collection is written.
+     */
+    private <T> List<Key<T>> saveInBulk(final Iterable<T> entities, final InsertOptions options) {
+        final Map<String, BulkSave<T>> saves = new LinkedHashMap<String, BulkSave<T>>();
+        final List<T> unwrappedEntities = new ArrayList<T>();
+        for (final T entity : entities) {
+            if (entity == null) {
+                throw new UpdateException("Can not persist a null entity");
+            }
+            final T unwrapped = ProxyHelper.unwrap(entity);
+            final MappedClass mc = mapper.getMappedClass(unwrapped);
+            if (mc.getAnnotation(NotSaved.class) != null) {
+                throw new MappingException(format("Entity type: %s is marked as NotSaved which means you should not try to save it!",
+                                                  mc.getClazz().getName()));
+            }
+
+            final DBCollection dbColl = getCollection(unwrapped);
+            BulkSave<T> save = saves.get(dbColl.getName());
+            if (save == null) {
+                save = new BulkSave<T>(dbColl, enforceWriteConcern(options, unwrapped.getClass()));
+                saves.put(dbColl.getName(), save);
+            }
+            save.add(unwrapped, mc);
+            unwrappedEntities.add(unwrapped);
+        }
+
+        final Map<Object, Key<T>> keys = new IdentityHashMap<Object, Key<T>>();
+        final List<String> conflicts = new ArrayList<String>();
+        for (final BulkSave<T> save : saves.values()) {
+            save.execute(keys, conflicts);
+        }
+        if (!conflicts.isEmpty()) {
+            final StringBuilder message = new StringBuilder(format("%d of %d entities were concurrently updated:", conflicts.size(),
+                                                                   unwrappedEntities.size()));
+            for (final String conflict : conflicts) {
+                message.append("\n").append(conflict);
+            }
+            throw new ConcurrentModificationException(message.toString());
+        }
+
+        final List<Key<T>> savedKeys = new ArrayList<Key<T>>(unwrappedEntities.size());
+        for (final T entity : unwrappedEntities) {
+            savedKeys.add(keys.get(entity));
+        }
+        return savedKeys;
+    }
+
+    private WriteResult saveDocument(final DBCollection dbColl, final DBObject document, final InsertOptions options) {
+        try {
+            if (document.get(ID_FIELD_NAME) == null) {
+                return dbColl.insert(singletonList(document), options.getOptions());
+            }
             return dbColl.update(new BasicDBObject(ID_FIELD_NAME, document.get(ID_FIELD_NAME)), document,
-                          new DBCollectionUpdateOptions()
-                              .bypassDocumentValidation(options.getBypassDocumentValidation())
-                              .writeConcern(options.getWriteConcern())
-                              .upsert(true));
+                                 new DBCollectionUpdateOptions()
+                                     .bypassDocumentValidation(options.getBypassDocumentValidation())
+                                     .writeConcern(options.getWriteConcern())
+                                     .upsert(true));
+        } finally {
+            invalidate(dbColl);
         }
     }
 
@@ -1370,23 +1758,197 @@ public class DatastoreImpl implements AdvancedDatastore {
         return mapper.toDBObject(ProxyHelper.unwrap(entity), involvedObjects);
     }
 
+    /*
+     * Drops the entities shared between queries, and the cached query results, for a collection once it has been written to.
+     */
+    private void invalidate(final DBCollection dbColl) {
+        final EntityCacheFactory cacheFactory = mapper.getOptions().getCacheFactory();
+        if (cacheFactory instanceof SharedEntityCacheFactory) {
+            ((SharedEntityCacheFactory) cacheFactory).invalidate(dbColl.getName());
+        }
+        final QueryResultCache resultCache = queryResultCache;
+        if (resultCache != null) {
+            resultCache.invalidate(dbColl.getName());
+        }
+    }
+
+    /*
+     * Gives a new entity its ObjectId before it is encoded, if the mapper is set to, so the id need not be read back after the insert.
+     * Returns true if it did.
+     */
+    private boolean assignId(final Object entity) {
+        if (!mapper.getOptions().isAssignObjectIds()) {
+            return false;
+        }
+        final Object unwrapped = ProxyHelper.unwrap(entity);
+        final MappedField idField = mapper.getMappedClass(unwrapped).getMappedIdField();
+        if (idField != null && idField.getFieldValue(unwrapped) == null && idField.getType().isAssignableFrom(ObjectId.class)) {
+            idField.setFieldValue(unwrapped, new ObjectId());
+            return true;
+        }
+        return false;
+    }
+
+    private static Set<Object> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    }
+
+    private static void cancel(final List<? extends FutureTask<?>> tasks) {
+        for (final FutureTask<?> task : tasks) {
+            task.cancel(false);
+        }
+    }
+
+    /*
+     * Fetches one chunk of a collection's entities, by the stored form of their ids.
+     */
+    private <T> Map<Object, T> fetchByIds(final String kind, final Class<T> type, final List<Object> ids) {
+        final Map<Object, T> found = new HashMap<Object, T>();
+        final MongoCursor<T> cursor = find(kind, type).disableValidation().filter("_id in", ids).find();
+        try {
+            while (cursor.hasNext()) {
+                final T entity = cursor.next();
+                found.put(toIdKey(mapper.getId(entity)), entity);
+            }
+        } finally {
+            cursor.close();
+        }
+        return found;
+    }
+
     private <T> Iterable<Key<T>> insert(final DBCollection dbColl, final Iterable<T> entities, final InsertOptions options) {
         if (!entities.iterator().hasNext()) {
             return Collections.emptyList();
         }
 
-        final Map<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
-        final List<DBObject> list = new ArrayList<DBObject>();
-        com.mongodb.InsertOptions insertOptions = options.getOptions();
+        try {
+            if (options.isStreaming()) {
+                return insertInChunks(dbColl, entities, options);
+            }
+
+            final Map<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
+            if (insertDirectly(dbColl, entities, options, involvedObjects)) {
+                return postSaveOperations(entities, involvedObjects, dbColl);
+            }
+
+            final List<DBObject> list = new ArrayList<DBObject>();
+            final Set<Object> assignedIds = newIdentitySet();
+            com.mongodb.InsertOptions insertOptions = options.getOptions();
+            for (final T entity : entities) {
+                if (options.getWriteConcern() == null) {
+                    insertOptions = enforceWriteConcern(options, entity.getClass()).getOptions();
+                }
+                list.add(toDbObject(entity, involvedObjects, assignedIds));
+            }
+            dbColl.insert(list, insertOptions);
+
+            return postSaveOperations(entities, involvedObjects, dbColl, true, assignedIds);
+        } finally {
+            invalidate(dbColl);
+        }
+    }
+
+    /*
+     * Converts and sends the entities a chunk at a time, so that only the chunks in flight are held in memory.  The post save operations of
+     * each chunk run on the calling thread once it is written, in the order of the chunks.
+     */
+    private <T> List<Key<T>> insertInChunks(final DBCollection dbColl, final Iterable<T> entities, final InsertOptions options) {
+        final List<Key<T>> keys = new ArrayList<Key<T>>();
+        final Deque<InsertChunk<T>> inFlight = new ArrayDeque<InsertChunk<T>>();
+        final DBEncoder encoder = options.getMaxChunkBytes() > 0 ? DefaultDBEncoder.FACTORY.create() : null;
+        final BasicOutputBuffer buffer = encoder != null ? new BasicOutputBuffer() : null;
+        // shared by the chunks, each of which takes its entities back out once they are written
+        final Set<Object> assignedIds = newIdentitySet();
+        try {
+            InsertChunk<T> chunk = new InsertChunk<T>(dbColl, assignedIds);
+            for (final T entity : entities) {
+                final InsertOptions enforced = options.getWriteConcern() == null
+                                               ? enforceWriteConcern(options, entity.getClass())
+                                               : options;
+                final Map<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
+                final DBObject dbObj = toDbObject(entity, involvedObjects, assignedIds);
+                int size = 0;
+                if (encoder != null) {
+                    buffer.truncateToPosition(0);
+                    size = encoder.writeObject(buffer, dbObj);
+                    if (!chunk.entities.isEmpty() && chunk.bytes + size > options.getMaxChunkBytes()) {
+                        send(chunk, inFlight, keys, options);
+                        chunk = new InsertChunk<T>(dbColl, assignedIds);
+                    }
+                }
+                chunk.add(entity, dbObj, involvedObjects, size, enforced.getOptions());
+                if (options.getChunkSize() > 0 && chunk.entities.size() >= options.getChunkSize()
+                    || options.getMaxChunkBytes() > 0 && chunk.bytes >= options.getMaxChunkBytes()) {
+                    send(chunk, inFlight, keys, options);
+                    chunk = new InsertChunk<T>(dbColl, assignedIds);
+                }
+            }
+            if (!chunk.entities.isEmpty()) {
+                send(chunk, inFlight, keys, options);
+            }
+            while (!inFlight.isEmpty()) {
+                keys.addAll(inFlight.peek().finish());
+                inFlight.poll();
+            }
+        } catch (RuntimeException e) {
+            for (final InsertChunk<T> chunk : inFlight) {
+                chunk.task.cancel(false);
+            }
+            throw e;
+        }
+        return keys;
+    }
+
+    private <T> void send(final InsertChunk<T> chunk, final Deque<InsertChunk<T>> inFlight, final List<Key<T>> keys,
+                          final InsertOptions options) {
+        while (inFlight.size() >= options.getMaxChunksInFlight()) {
+            keys.addAll(inFlight.peek().finish());
+            inFlight.poll();
+        }
+        inFlight.add(chunk);
+        if (options.getExecutor() == null) {
+            chunk.task.run();
+        } else {
+            options.getExecutor().execute(chunk.task);
+        }
+    }
+
+    /*
+     * Writes the entities straight to BSON if they are all of one type and can all be encoded directly.
+     */
+    private <T> boolean insertDirectly(final DBCollection dbColl, final Iterable<T> entities, final InsertOptions options,
+                                       final Map<Object, DBObject> involvedObjects) {
+        final List<T> list = new ArrayList<T>();
+        InsertOptions enforced = options;
         for (final T entity : entities) {
+            if (!list.isEmpty() && entity.getClass() != list.get(0).getClass()) {
+                return false;
+            }
+            final MappedClass mc = mapper.getMappedClass(entity);
+            if (mc.getAnnotation(NotSaved.class) != null || !isDirectlyEncodable(dbColl, options, entity)) {
+                return false;
+            }
             if (options.getWriteConcern() == null) {
-                insertOptions = enforceWriteConcern(options, entity.getClass()).getOptions();
+                enforced = enforceWriteConcern(options, entity.getClass());
             }
-            list.add(toDbObject(entity, involvedObjects));
+            list.add(entity);
+        }
+        if (list.isEmpty()) {
+            return false;
         }
-        dbColl.insert(list, insertOptions);
 
-        return postSaveOperations(entities, involvedObjects, dbColl);
+        for (final T entity : list) {
+            prePersist(entity);
+        }
+        try {
+            getWriteCollection(dbColl, list.get(0), enforced, involvedObjects)
+                .insertMany(list, new InsertManyOptions()
+                                      .ordered(!enforced.isContinueOnError())
+                                      .bypassDocumentValidation(enforced.getBypassDocumentValidation()));
+        } catch (MongoException e) {
+            throw toLegacyException(e);
+        }
+        return true;
     }
 
     /**
@@ -1419,15 +1981,28 @@ public class DatastoreImpl implements AdvancedDatastore {
     @SuppressWarnings("unchecked")
     private <T> List<Key<T>> postSaveOperations(final Iterable<T> entities, final Map<Object, DBObject> involvedObjects,
                                                 final DBCollection collection, final boolean fetchKeys) {
+        return postSaveOperations(entities, involvedObjects, collection, fetchKeys, Collections.emptySet());
+    }
+
+    /*
+     * The entities in assignedIds were given their ids by assignId during this write, so the id sent is the one they have and is not read
+     * back.  Versions still are.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<Key<T>> postSaveOperations(final Iterable<T> entities, final Map<Object, DBObject> involvedObjects,
+                                                final DBCollection collection, final boolean fetchKeys, final Set<?> assignedIds) {
         List<Key<T>> keys = new ArrayList<Key<T>>();
         for (final T entity : entities) {
             final DBObject dbObj = involvedObjects.remove(entity);
+            final boolean assignedId = assignedIds.remove(entity);
 
             if (fetchKeys) {
                 if (dbObj.get(Mapper.ID_KEY) == null) {
                     throw new MappingException(format("Missing _id after save on %s", entity.getClass().getName()));
                 }
-                mapper.updateKeyAndVersionInfo(this, dbObj, createCache(), entity);
+                if (!assignedId || mapper.getMappedClass(entity).getMappedVersionField() != null) {
+                    mapper.updateKeyAndVersionInfo(this, dbObj, createCache(), entity);
+                }
                 keys.add(new Key<T>((Class<? extends T>) entity.getClass(), collection.getName(), mapper.getId(entity)));
             }
             mapper.getMappedClass(entity).callLifecycleMethods(PostPersist.class, entity, dbObj, mapper);
@@ -1449,12 +2024,15 @@ public class DatastoreImpl implements AdvancedDatastore {
         return newQuery(type, coll, query);
     }
 
-    private <T> DBObject toDbObject(final T ent, final Map<Object, DBObject> involvedObjects) {
+    private <T> DBObject toDbObject(final T ent, final Map<Object, DBObject> involvedObjects, final Set<Object> assignedIds) {
         final MappedClass mc = mapper.getMappedClass(ent);
         if (mc.getAnnotation(NotSaved.class) != null) {
             throw new MappingException(format("Entity type: %s is marked as NotSaved which means you should not try to save it!",
                                               mc.getClazz().getName()));
         }
+        if (assignId(ent)) {
+            assignedIds.add(ent);
+        }
         DBObject dbObject = entityToDBObj(ent, involvedObjects);
         List<MappedField> versionFields = mc.getFieldsAnnotatedWith(Version.class);
         for (MappedField mappedField : versionFields) {
@@ -1493,9 +2071,29 @@ public class DatastoreImpl implements AdvancedDatastore {
                              dbColl.getName(), queryObject, update, options.isMulti(), options.isUpsert()));
         }
 
-        return new UpdateResults(dbColl.update(queryObject, update,
-                                               enforceWriteConcern(options, query.getEntityClass())
-                                                   .getOptions()));
+        try {
+            return new UpdateResults(dbColl.update(queryObject, update,
+                                                   enforceWriteConcern(options, query.getEntityClass())
+                                                       .getOptions()));
+        } finally {
+            invalidate(dbColl);
+        }
+    }
+
+    /*
+     * The stored form of an id, without the class name, so ids read back from entities match those given in keys.
+     */
+    private Object toIdKey(final Object id) {
+        DBObject dbObject;
+        if (id instanceof DBObject) {
+            dbObject = new BasicDBObject(((DBObject) id).toMap());
+        } else if (id != null && mapper.isMapped(id.getClass())) {
+            dbObject = mapper.toDBObject(id);
+        } else {
+            return id;
+        }
+        dbObject.removeField(Mapper.CLASS_NAME_FIELDNAME);
+        return dbObject;
     }
 
     @SuppressWarnings("unchecked")
@@ -1546,9 +2144,13 @@ public class DatastoreImpl implements AdvancedDatastore {
                              dbColl.getName(), queryObject, update, options.isMulti(), options.isUpsert()));
         }
 
-        return new UpdateResults(dbColl.update(queryObject, update,
-                                               enforceWriteConcern(options, query.getEntityClass())
-                                                   .getOptions()));
+        try {
+            return new UpdateResults(dbColl.update(queryObject, update,
+                                                   enforceWriteConcern(options, query.getEntityClass())
+                                                       .getOptions()));
+        } finally {
+            invalidate(dbColl);
+        }
     }
 
     /**
@@ -1567,4 +2169,234 @@ public class DatastoreImpl implements AdvancedDatastore {
 
         return wc;
     }
+
+    /*
+     * The entities of one collection being saved in bulk: inserts for entities without an id, upserts by id for the others, and replaces
+     * guarded by the old version for versioned entities which have been saved before.
+     */
+    private final class BulkSave<T> {
+        private final DBCollection dbColl;
+        private final InsertOptions options;
+        private final BulkWriteOperation bulk;
+        // each entity has its own involved objects, as entities which are equal but distinct would collide in a shared map
+        private final Map<T, Map<Object, DBObject>> involvedObjects = new IdentityHashMap<T, Map<Object, DBObject>>();
+        private final List<T> entities = new ArrayList<T>();
+        private final List<VersionedReplace> versionedReplaces = new ArrayList<VersionedReplace>();
+        private final Set<Object> assignedIds = newIdentitySet();
+        private int replaces;
+
+        private BulkSave(final DBCollection dbColl, final InsertOptions options) {
+            this.dbColl = dbColl;
+            this.options = options;
+            bulk = options.isContinueOnError() ? dbColl.initializeUnorderedBulkOperation() : dbColl.initializeOrderedBulkOperation();
+            bulk.setBypassDocumentValidation(options.getBypassDocumentValidation());
+        }
+
+        private void add(final T entity, final MappedClass mc) {
+            if (involvedObjects.containsKey(entity)) {
+                // an entity given more than once is written once, and its key is returned for each time it was given
+                return;
+            }
+            final Map<Object, DBObject> involved = new LinkedHashMap<Object, DBObject>();
+            involvedObjects.put(entity, involved);
+            if (assignId(entity)) {
+                assignedIds.add(entity);
+            }
+            final DBObject document = entityToDBObj(entity, involved);
+            final Object id = document.get(Mapper.ID_KEY);
+            entities.add(entity);
+
+            if (!mc.getFieldsAnnotatedWith(Version.class).isEmpty()) {
+                final String versionKey = mc.getMappedVersionField().getNameToStore();
+                final Long oldVersion = (Long) mc.getMappedVersionField().getFieldValue(entity);
+                final long newVersion = nextValue(oldVersion);
+                document.put(versionKey, newVersion);
+                if (id != null && newVersion != 1) {
+                    bulk.find(new BasicDBObject(Mapper.ID_KEY, id).append(versionKey, oldVersion)).replaceOne(document);
+                    versionedReplaces.add(new VersionedReplace(entity, id, versionKey, newVersion));
+                    replaces++;
+                    return;
+                }
+            }
+
+            if (id == null) {
+                // assignId left this entity without an id, so it gets the one the driver would have made and reads it back afterwards
+                document.put(Mapper.ID_KEY, new ObjectId());
+                bulk.insert(document);
+            } else {
+                bulk.find(new BasicDBObject(Mapper.ID_KEY, id)).upsert().replaceOne(document);
+                replaces++;
+            }
+        }
+
+        /*
+         * Runs the bulk write and the post save operations of the entities it wrote.  If it fails part way, the entities written before
+         * the failure still have their ids and versions read back before the failure is raised as a single write would raise it.
+         */
+        private void execute(final Map<Object, Key<T>> keys, final List<String> conflicts) {
+            BulkWriteResult result;
+            List<T> saved;
+            BulkWriteException failure = null;
+            try {
+                result = bulk.execute(options.getWriteConcern());
+                saved = new ArrayList<T>(entities);
+            } catch (BulkWriteException e) {
+                failure = e;
+                result = e.getWriteResult();
+                saved = getWritten(e);
+            } finally {
+                invalidate(dbColl);
+            }
+
+            // a replace matches nothing if the version has moved on, which the counts alone only hint at
+            if (result.isAcknowledged() && result.getMatchedCount() + result.getUpserts().size() < replaces) {
+                final Map<Object, Boolean> conflicting = new IdentityHashMap<Object, Boolean>();
+                for (final VersionedReplace replace : findConflicts(saved)) {
+                    conflicting.put(replace.entity, true);
+                    conflicts.add(format("Entity of class %s (id='%s',version='%d') was concurrently updated.",
+                                         replace.entity.getClass().getName(), replace.id, replace.newVersion - 1));
+                }
+                for (final Iterator<T> iterator = saved.iterator(); iterator.hasNext();) {
+                    if (conflicting.containsKey(iterator.next())) {
+                        iterator.remove();
+                    }
+                }
+            }
+
+            for (final T entity : saved) {
+                keys.put(entity, postSaveOperations(singletonList(entity), involvedObjects.get(entity), dbColl, true, assignedIds).get(0));
+            }
+            if (failure != null) {
+                throw toLegacyException(failure);
+            }
+        }
+
+        /*
+         * The entities whose writes succeeded: those before the first error of an ordered write, or all but those in error otherwise.
+         * Each entity added one write, so an error's index is that of its entity.
+         */
+        private List<T> getWritten(final BulkWriteException e) {
+            final Set<Integer> failed = new HashSet<Integer>();
+            int end = entities.size();
+            for (final com.mongodb.BulkWriteError error : e.getWriteErrors()) {
+                failed.add(error.getIndex());
+                if (!options.isContinueOnError()) {
+                    end = Math.min(end, error.getIndex());
+                }
+            }
+            final List<T> written = new ArrayList<T>();
+            for (int i = 0; i < end; i++) {
+                if (!failed.contains(i)) {
+                    written.add(entities.get(i));
+                }
+            }
+            return written;
+        }
+
+        private List<VersionedReplace> findConflicts(final List<T> written) {
+            final Map<Object, Boolean> writtenEntities = new IdentityHashMap<Object, Boolean>();
+            for (final T entity : written) {
+                writtenEntities.put(entity, true);
+            }
+            final List<VersionedReplace> checked = new ArrayList<VersionedReplace>();
+            final List<Object> ids = new ArrayList<Object>();
+            final BasicDBObject projection = new BasicDBObject();
+            for (final VersionedReplace replace : versionedReplaces) {
+                if (writtenEntities.containsKey(replace.entity)) {
+                    checked.add(replace);
+                    ids.add(replace.id);
+                    projection.put(replace.versionKey, 1);
+                }
+            }
+
+            final Map<Object, DBObject> stored = new HashMap<Object, DBObject>();
+            final DBCursor cursor = dbColl.find(new BasicDBObject(Mapper.ID_KEY, new BasicDBObject("$in", ids)), projection);
+            try {
+                while (cursor.hasNext()) {
+                    final DBObject document = cursor.next();
+                    stored.put(document.get(Mapper.ID_KEY), document);
+                }
+            } finally {
+                cursor.close();
+            }
+
+            final List<VersionedReplace> conflicting = new ArrayList<VersionedReplace>();
+            for (final VersionedReplace replace : checked) {
+                final DBObject document = stored.get(replace.id);
+                final Object version = document == null ? null : document.get(replace.versionKey);
+                if (!(version instanceof Number) || ((Number) version).longValue() != replace.newVersion) {
+                    conflicting.add(replace);
+                }
+            }
+            return conflicting;
+        }
+
+        private final class VersionedReplace {
+            private final T entity;
+            private final Object id;
+            private final String versionKey;
+            private final long newVersion;
+
+            private VersionedReplace(final T entity, final Object id, final String versionKey, final long newVersion) {
+                this.entity = entity;
+                this.id = id;
+                this.versionKey = versionKey;
+                this.newVersion = newVersion;
+            }
+        }
+    }
+
+    /*
+     * The converted documents of one chunk of a streamed insert, and the write which sends them.
+     */
+    private final class InsertChunk<T> {
+        private final DBCollection dbColl;
+        private final List<T> entities = new ArrayList<T>();
+        private final List<DBObject> documents = new ArrayList<DBObject>();
+        private final Map<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
+        private final Set<Object> assignedIds;
+        private final FutureTask<WriteResult> task;
+        private com.mongodb.InsertOptions insertOptions;
+        private long bytes;
+
+        private InsertChunk(final DBCollection dbColl, final Set<Object> assignedIds) {
+            this.dbColl = dbColl;
+            this.assignedIds = assignedIds;
+            task = new FutureTask<WriteResult>(new Callable<WriteResult>() {
+                @Override
+                public WriteResult call() {
+                    final WriteResult result = InsertChunk.this.dbColl.insert(documents, insertOptions);
+                    documents.clear();
+                    return result;
+                }
+            });
+        }
+
+        private void add(final T entity, final DBObject dbObj, final Map<Object, DBObject> involved, final int size,
+                         final com.mongodb.InsertOptions options) {
+            entities.add(entity);
+            documents.add(dbObj);
+            involvedObjects.putAll(involved);
+            bytes += size;
+            insertOptions = options;
+        }
+
+        private List<Key<T>> finish() {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MongoInterruptedException("Interrupted while inserting entities", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new MappingException("Could not insert entities", e.getCause());
+            }
+            return postSaveOperations(entities, involvedObjects, dbColl, true, assignedIds);
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package xyz.morphia;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Options for fetching entities by their keys.  The entities are always returned in the order of their keys.  The setter methods return
+ * {@code this} so that a chaining style can be used.
+ *
+ * @see Datastore#getByKeys(Class, Iterable, GetByKeysOptions)
+ * @since 1.5
+ */
+public final class GetByKeysOptions {
+    private int chunkSize = 1000;
+    private boolean includeMissing;
+    private Executor executor;
+
+    /**
+     * Copies this instance to a new one.
+     *
+     * @return the new instance
+     */
+    public GetByKeysOptions copy() {
+        return new GetByKeysOptions()
+            .chunkSize(chunkSize)
+            .includeMissing(includeMissing)
+            .executor(executor);
+    }
+
+    /**
+     * @return the largest number of ids in one query
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the largest number of ids in one query.  Keys of each collection are split in to chunks of this size.  The default is 1000.
+     *
+     * @param chunkSize the chunk size
+     * @return this
+     */
+    public GetByKeysOptions chunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @return true if a null is returned in place of each missing entity
+     */
+    public boolean isIncludeMissing() {
+        return includeMissing;
+    }
+
+    /**
+     * Returns a null in place of each entity which could not be found, so that the results line up with the keys.  By default missing
+     * entities are left out.
+     *
+     * @param includeMissing true to include nulls for missing entities
+     * @return this
+     */
+    public GetByKeysOptions includeMissing(final boolean includeMissing) {
+        this.includeMissing = includeMissing;
+        return this;
+    }
+
+    /**
+     * @return the executor the queries are run on, or null if they are run in turn on the calling thread
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Runs the query for each chunk on the given executor, and waits for them all.  By default the queries are run in turn on the calling
+     * thread.
+     *
+     * @param executor the executor to use, or null to run on the calling thread
+     * @return this
+     */
+    public GetByKeysOptions executor(final Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+}
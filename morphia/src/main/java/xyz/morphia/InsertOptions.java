@@ -18,6 +18,8 @@ package xyz.morphia;
 
 import com.mongodb.WriteConcern;
 
+import java.util.concurrent.Executor;
+
 /**
  * Options related to insertion of documents into MongoDB.  The setter methods return {@code this} so that a chaining style can be used.
  *
@@ -25,6 +27,10 @@ import com.mongodb.WriteConcern;
  */
 public class InsertOptions {
     private com.mongodb.InsertOptions options = new com.mongodb.InsertOptions();
+    private int chunkSize;
+    private long maxChunkBytes;
+    private int maxChunksInFlight = 1;
+    private Executor executor;
 
     /**
      * Create a copy of the options instance.
@@ -35,7 +41,10 @@ public class InsertOptions {
         return new InsertOptions()
             .bypassDocumentValidation(getBypassDocumentValidation())
             .continueOnError(isContinueOnError())
-            .writeConcern(getWriteConcern());
+            .writeConcern(getWriteConcern())
+            .chunkSize(getChunkSize())
+            .maxChunkBytes(getMaxChunkBytes())
+            .maxChunksInFlight(getMaxChunksInFlight(), getExecutor());
     }
 
     com.mongodb.InsertOptions getOptions() {
@@ -104,4 +113,98 @@ public class InsertOptions {
         options.bypassDocumentValidation(bypassDocumentValidation);
         return this;
     }
+
+    /**
+     * @return the largest number of documents sent in one chunk when streaming an insert, or 0 if there is no limit
+     * @see #chunkSize(int)
+     * @since 1.5
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Streams inserts of several entities: each chunk of this many entities is converted and sent before the next is read from the
+     * Iterable, and only the keys of the saved entities are kept.  By default every entity is converted before any is sent.
+     *
+     * @param chunkSize the largest number of documents in a chunk, or 0 for no limit
+     * @return this
+     * @see #maxChunkBytes(long)
+     * @since 1.5
+     */
+    public InsertOptions chunkSize(final int chunkSize) {
+        if (chunkSize < 0) {
+            throw new IllegalArgumentException("The chunk size can not be negative");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @return the largest encoded size of a chunk when streaming an insert, or 0 if there is no limit
+     * @see #maxChunkBytes(long)
+     * @since 1.5
+     */
+    public long getMaxChunkBytes() {
+        return maxChunkBytes;
+    }
+
+    /**
+     * Streams inserts of several entities, ending each chunk once its documents reach this encoded size.  Measuring a document encodes it
+     * an extra time.  A single document larger than the limit is sent in a chunk of its own.
+     *
+     * @param maxChunkBytes the largest size of a chunk in bytes, or 0 for no limit
+     * @return this
+     * @see #chunkSize(int)
+     * @since 1.5
+     */
+    public InsertOptions maxChunkBytes(final long maxChunkBytes) {
+        if (maxChunkBytes < 0) {
+            throw new IllegalArgumentException("The chunk size can not be negative");
+        }
+        this.maxChunkBytes = maxChunkBytes;
+        return this;
+    }
+
+    /**
+     * @return the largest number of chunks being sent at once when streaming an insert
+     * @see #maxChunksInFlight(int, Executor)
+     * @since 1.5
+     */
+    public int getMaxChunksInFlight() {
+        return maxChunksInFlight;
+    }
+
+    /**
+     * @return the executor chunks are sent on when streaming an insert, or null if they are sent from the calling thread
+     * @see #maxChunksInFlight(int, Executor)
+     * @since 1.5
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sends the chunks of a streamed insert on the given executor, so that the next chunk is converted while earlier ones are being sent.
+     * Once this many chunks are being sent, the next waits for the oldest to finish.  If a chunk fails, later chunks already sent are
+     * still written.
+     *
+     * @param maxChunksInFlight the largest number of chunks being sent at once
+     * @param executor          the executor to send chunks on, or null to send them from the calling thread
+     * @return this
+     * @see #chunkSize(int)
+     * @since 1.5
+     */
+    public InsertOptions maxChunksInFlight(final int maxChunksInFlight, final Executor executor) {
+        if (maxChunksInFlight < 1) {
+            throw new IllegalArgumentException("At least one chunk must be allowed in flight");
+        }
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.executor = executor;
+        return this;
+    }
+
+    boolean isStreaming() {
+        return chunkSize > 0 || maxChunkBytes > 0;
+    }
 }
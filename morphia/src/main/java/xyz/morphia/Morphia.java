@@ -39,6 +39,7 @@ import java.util.Set;
 public class Morphia {
     private static final Logger LOG = MorphiaLoggerFactory.get(Morphia.class);
     private final Mapper mapper;
+    private volatile boolean useBulkWriteOperations;
 
     /**
      * Creates a Morphia instance with a default Mapper and an empty class set.
@@ -147,13 +148,12 @@ public class Morphia {
     }
 
     /**
-     * @return false.  Setting this value has no value functionally or performance-wise.
-     * @deprecated
-     * @see <a href="https://github.com/MorphiaOrg/morphia/issues/1052">Issue #1052</a>
+     * @return true if saving several entities at once uses bulk writes
+     * @deprecated use {@link #isUseBulkWriteOperations()}
      */
     @Deprecated
     public boolean getUseBulkWriteOperations() {
-        return false;
+        return useBulkWriteOperations;
     }
 
     /**
@@ -167,24 +167,23 @@ public class Morphia {
     }
 
     /**
-     * @return false.  Setting this value has no value functionally or performance-wise.
-     * @deprecated
-     * @see <a href="https://github.com/MorphiaOrg/morphia/issues/1052">Issue #1052</a>
+     * @return true if saving several entities at once uses bulk writes
+     * @see #setUseBulkWriteOperations(boolean)
      */
-    @Deprecated
     public boolean isUseBulkWriteOperations() {
-        return false;
+        return useBulkWriteOperations;
     }
 
     /**
-     * Configures Morphia to use bulk writes.  Only useful with MongoDB 2.6+.
+     * Configures Morphia to use bulk writes when saving several entities at once.  The entities of each collection are then sent together
+     * in as few round trips as the server allows, rather than one at a time.  The writes are unordered if
+     * {@link InsertOptions#continueOnError(boolean)} is set.
      *
      * @param useBulkWriteOperations true if Morphia should use bulk writes
-     * @see <a href="https://github.com/MorphiaOrg/morphia/issues/1052">Issue #1052</a>
-     * @deprecated Setting this value has no value functionally or performance-wise.
+     * @see Datastore#save(Iterable, InsertOptions)
      */
-    @Deprecated
     public void setUseBulkWriteOperations(final boolean useBulkWriteOperations) {
+        this.useBulkWriteOperations = useBulkWriteOperations;
     }
 
     /**
@@ -6,7 +6,9 @@ import com.mongodb.BasicDBObject;
 import com.mongodb.Cursor;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
 import com.mongodb.ReadPreference;
+import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.model.UnwindOptions;
 import xyz.morphia.geo.GeometryShapeConverter;
 import xyz.morphia.logging.Logger;
@@ -20,6 +22,7 @@ import xyz.morphia.query.internal.MorphiaCursor;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of an AggregationPipeline.
@@ -79,8 +82,38 @@ public class AggregationPipelineImpl implements AggregationPipeline {
                                      final ReadPreference readPreference) {
         LOG.debug("stages = " + stages);
 
-        Cursor cursor = collection.aggregate(stages, options, readPreference);
-        return new MorphiaCursor<U>(datastore, cursor, mapper, target, mapper.createEntityCache());
+        if (!isDirectlyDecodable(options)) {
+            final Cursor cursor = collection.aggregate(stages, options, readPreference);
+            return new MorphiaCursor<U>(datastore, cursor, mapper, target, mapper.createEntityCache());
+        }
+
+        final List<BasicDBObject> pipeline = new ArrayList<BasicDBObject>(stages.size());
+        for (final DBObject stage : stages) {
+            pipeline.add(stage instanceof BasicDBObject ? (BasicDBObject) stage : new BasicDBObject(stage.toMap()));
+        }
+        final AggregateIterable<U> results = datastore.getEntityCollection(collection.getName(), target, mapper.createEntityCache())
+                                                      .withReadPreference(readPreference != null
+                                                                           ? readPreference
+                                                                           : collection.getReadPreference())
+                                                      .aggregate(pipeline)
+                                                      .allowDiskUse(options.getAllowDiskUse())
+                                                      .bypassDocumentValidation(options.getBypassDocumentValidation())
+                                                      .collation(options.getCollation())
+                                                      .maxTime(options.getMaxTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        if (options.getBatchSize() != null) {
+            results.batchSize(options.getBatchSize());
+        }
+        return results.iterator();
+    }
+
+    /*
+     * Results are decoded straight from BSON unless a custom decoder has been set, or the options ask for an inline result, which only the
+     * DBCollection API can request.
+     */
+    @SuppressWarnings("deprecation")
+    private boolean isDirectlyDecodable(final AggregationOptions options) {
+        return datastore.getDecoderFact() == DefaultDBDecoder.FACTORY && collection.getDBDecoderFactory() == null
+               && options.getOutputMode() != AggregationOptions.OutputMode.INLINE;
     }
 
     @Override
@@ -8,29 +8,29 @@ import xyz.morphia.mapping.Mapper;
 import xyz.morphia.mapping.MapperOptions;
 import xyz.morphia.mapping.MappingException;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static java.lang.String.format;
 
 /**
- * Defines a bundle of converters
+ * Defines a bundle of converters.  The converter chosen for a type or a field is resolved once and cached in lock free tables which are
+ * replaced whenever a converter is added or removed, so lookups are safe to make from any thread.
  */
 public abstract class Converters {
     private static final Logger LOG = MorphiaLoggerFactory.get(Converters.class);
 
     private final Mapper mapper;
-    private final List<TypeConverter> untypedTypeEncoders = new LinkedList<TypeConverter>();
+    private final List<TypeConverter> untypedTypeEncoders = new CopyOnWriteArrayList<TypeConverter>();
     private final Map<Class, List<TypeConverter>> tcMap = new ConcurrentHashMap<Class, List<TypeConverter>>();
-    private final List<Class<? extends TypeConverter>> registeredConverterClasses = new ArrayList<Class<? extends TypeConverter>>();
+    private final List<Class<? extends TypeConverter>> registeredConverterClasses =
+        new CopyOnWriteArrayList<Class<? extends TypeConverter>>();
 
-    private final Map<Class, TypeConverter> classConverterCache = new HashMap<Class, TypeConverter>();
-    private final Map<MappedField, TypeConverter> mfConverterCache = new HashMap<MappedField, TypeConverter>();
+    private volatile ConverterCache cache = new ConverterCache(0);
 
     private static final TypeConverter CONVERTER_CACHE_NULL_PLACEHOLDER = new TypeConverter() {
         @Override
@@ -64,7 +64,7 @@ public abstract class Converters {
      * @param tc the converter to add
      * @return the TypeConverter passed in
      */
-    public TypeConverter addConverter(final TypeConverter tc) {
+    public synchronized TypeConverter addConverter(final TypeConverter tc) {
         if (tc.getSupportedTypes() != null) {
             for (final Class c : tc.getSupportedTypes()) {
                 addTypedConverter(c, tc);
@@ -75,6 +75,7 @@ public abstract class Converters {
 
         registeredConverterClasses.add(tc.getClass());
         tc.setMapper(mapper);
+        invalidate();
 
         return tc;
     }
@@ -142,6 +143,29 @@ public abstract class Converters {
         }
     }
 
+    /**
+     * Finds the converter used to encode a field's value.
+     *
+     * @param value the value to encode, which may be null
+     * @param mf    the field holding the value
+     * @return the converter or null if none applies
+     * @since 1.5
+     */
+    public TypeConverter getConverter(final Object value, final MappedField mf) {
+        return getCachedEncoder(value, mf);
+    }
+
+    /**
+     * Tells whether the converters have changed since an earlier call.  Anything resolved from these converters and kept elsewhere should
+     * be resolved again when this number changes.
+     *
+     * @return a number which changes each time a converter is added or removed
+     * @since 1.5
+     */
+    public int getGeneration() {
+        return cache.generation;
+    }
+
     /**
      * @param field the field to check with
      * @return true if there is a converter for the type of the field
@@ -209,7 +233,7 @@ public abstract class Converters {
      *
      * @param tc the converter to remove
      */
-    public void removeConverter(final TypeConverter tc) {
+    public synchronized void removeConverter(final TypeConverter tc) {
         if (tc.getSupportedTypes() == null) {
             untypedTypeEncoders.remove(tc);
             registeredConverterClasses.remove(tc.getClass());
@@ -225,7 +249,7 @@ public abstract class Converters {
             }
             registeredConverterClasses.remove(tc.getClass());
         }
-
+        invalidate();
     }
 
     /**
@@ -238,7 +262,7 @@ public abstract class Converters {
      */
     public void toDBObject(final Object containingObject, final MappedField mf, final DBObject dbObj, final MapperOptions opts) {
         final Object fieldValue = mf.getFieldValue(containingObject);
-        final TypeConverter enc = getEncoder(fieldValue, mf);
+        final TypeConverter enc = getCachedEncoder(fieldValue, mf);
 
         final Object encoded = enc.encode(fieldValue, mf);
         if (encoded != null || opts.isStoreNulls()) {
@@ -247,11 +271,12 @@ public abstract class Converters {
     }
 
     protected TypeConverter getEncoder(final Class c) {
-        TypeConverter cached = classConverterCache.get(c);
+        final ConcurrentMap<Class, TypeConverter> byClass = cache.byClass;
+        TypeConverter cached = byClass.get(c);
         if (cached == null) {
             TypeConverter encoder = getInternalEnc(c);
             cached = encoder == null ? CONVERTER_CACHE_NULL_PLACEHOLDER : encoder;
-            classConverterCache.put(c, cached);
+            byClass.putIfAbsent(c, cached);
         }
 
         return cached == CONVERTER_CACHE_NULL_PLACEHOLDER ? null : cached;
@@ -308,19 +333,70 @@ public abstract class Converters {
             tcMap.get(type).add(0, tc);
             LOG.warning("Added duplicate converter for " + type + " ; " + tcMap.get(type));
         } else {
-            final List<TypeConverter> values = new ArrayList<TypeConverter>();
+            final List<TypeConverter> values = new CopyOnWriteArrayList<TypeConverter>();
             values.add(tc);
             tcMap.put(type, values);
         }
     }
 
     private TypeConverter getEncoder(final MappedField mf) {
-        TypeConverter cached = mfConverterCache.get(mf);
+        return getFieldConverters(mf).declared;
+    }
+
+    /*
+     * The converter for a field only depends on the runtime type of its value, so the choice is made once per field and value type.  Values
+     * of the field's declared type, the common case, use the converter resolved for the field itself.
+     */
+    private TypeConverter getCachedEncoder(final Object val, final MappedField mf) {
+        final FieldConverters converters = getFieldConverters(mf);
+        if (val == null || val.getClass() == mf.getType()) {
+            return converters.declared;
+        }
+        TypeConverter cached = converters.byValueType.get(val.getClass());
         if (cached == null) {
-            TypeConverter enc = getEncoder(null, mf);
+            final TypeConverter enc = getEncoder(val, mf);
             cached = enc == null ? CONVERTER_CACHE_NULL_PLACEHOLDER : enc;
-            mfConverterCache.put(mf, cached);
+            converters.byValueType.putIfAbsent(val.getClass(), cached);
         }
         return cached == CONVERTER_CACHE_NULL_PLACEHOLDER ? null : cached;
     }
+
+    private FieldConverters getFieldConverters(final MappedField mf) {
+        final ConcurrentMap<MappedField, FieldConverters> byField = cache.byField;
+        FieldConverters converters = byField.get(mf);
+        if (converters == null) {
+            converters = new FieldConverters(getEncoder(null, mf));
+            final FieldConverters existing = byField.putIfAbsent(mf, converters);
+            if (existing != null) {
+                converters = existing;
+            }
+        }
+        return converters;
+    }
+
+    /*
+     * Callers hold the lock on this instance.  Lookups which raced with the change finish against the tables they started with.
+     */
+    private void invalidate() {
+        cache = new ConverterCache(cache.generation + 1);
+    }
+
+    private static final class ConverterCache {
+        private final int generation;
+        private final ConcurrentMap<Class, TypeConverter> byClass = new ConcurrentHashMap<Class, TypeConverter>();
+        private final ConcurrentMap<MappedField, FieldConverters> byField = new ConcurrentHashMap<MappedField, FieldConverters>();
+
+        private ConverterCache(final int generation) {
+            this.generation = generation;
+        }
+    }
+
+    private static final class FieldConverters {
+        private final TypeConverter declared;
+        private final ConcurrentMap<Class, TypeConverter> byValueType = new ConcurrentHashMap<Class, TypeConverter>();
+
+        private FieldConverters(final TypeConverter declared) {
+            this.declared = declared;
+        }
+    }
 }
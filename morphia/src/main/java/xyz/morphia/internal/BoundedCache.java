@@ -0,0 +1,178 @@
+package xyz.morphia.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is an internal class and is subject to change or removal.
+ * <p>
+ * A concurrent cache holding values up to a total weight, dropping the oldest first.  Each value belongs to a group, and is dropped once
+ * the {@link WriteClock} shows its group was written to after the value was read, or once it expires.
+ * <p>
+ * Every put queues its entry for eviction.  An entry which is replaced or dropped stays queued until it reaches the head of the queue, so
+ * the queue is trimmed whenever it holds more than twice as many entries as the cache, and only ever evicts the entry it queued.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @since 1.5
+ */
+public class BoundedCache<K, V> {
+    private static final int QUEUE_SLACK = 16;
+
+    private final long maxWeight;
+    private final long timeToLive;
+    private final WriteClock writes;
+    private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<K, Entry<K, V>>();
+    private final Queue<Entry<K, V>> order = new ConcurrentLinkedQueue<Entry<K, V>>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong weight = new AtomicLong();
+
+    /**
+     * Creates a cache
+     *
+     * @param maxWeight  the largest total weight of the values held
+     * @param timeToLive how long a value is held for, or 0 to hold it until it is stale or evicted
+     * @param unit       the unit of timeToLive
+     * @param writes     the clock the values are stamped by
+     */
+    public BoundedCache(final long maxWeight, final long timeToLive, final TimeUnit unit, final WriteClock writes) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one value");
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("The time to live can not be negative");
+        }
+        this.maxWeight = maxWeight;
+        this.timeToLive = unit.toNanos(timeToLive);
+        this.writes = writes;
+    }
+
+    /**
+     * Finds a value which is neither stale nor expired
+     *
+     * @param key the key
+     * @return the value, or null if none is held
+     */
+    public V get(final K key) {
+        final Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!isLive(entry)) {
+            remove(entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * @param key the key
+     * @return true if a value which is neither stale nor expired is held for the key
+     */
+    public boolean contains(final K key) {
+        final Entry<K, V> entry = entries.get(key);
+        return entry != null && isLive(entry);
+    }
+
+    /**
+     * Holds a value read under the given stamp, unless its group has been written to since.  A value read before a write could otherwise
+     * be held after it.  A value heavier than the whole cache is not held.
+     *
+     * @param key    the key
+     * @param group  the group the value belongs to
+     * @param value  the value
+     * @param weight the weight of the value
+     * @param stamp  the {@link WriteClock#stamp() stamp} taken before the value was read
+     */
+    public void put(final K key, final Object group, final V value, final long weight, final long stamp) {
+        if (weight > maxWeight || writes.isStale(group, stamp)) {
+            return;
+        }
+        final Entry<K, V> entry = new Entry<K, V>(key, group, value, weight, stamp, timeToLive > 0 ? System.nanoTime() + timeToLive : 0);
+        this.weight.addAndGet(weight);
+        final Entry<K, V> previous = entries.put(key, entry);
+        if (previous != null) {
+            this.weight.addAndGet(-previous.weight);
+        }
+        order.add(entry);
+        queued.incrementAndGet();
+        // checked again as a write may have come in while the value was being put
+        if (writes.isStale(group, stamp)) {
+            remove(entry);
+        }
+        evict();
+    }
+
+    /**
+     * Drops every value
+     */
+    public void clear() {
+        Entry<K, V> entry;
+        while ((entry = order.poll()) != null) {
+            queued.decrementAndGet();
+            remove(entry);
+        }
+    }
+
+    /**
+     * @return the number of values held, some of which may be stale or expired
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total weight of the values held
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    private void evict() {
+        while (weight.get() > maxWeight || queued.get() > 2 * entries.size() + QUEUE_SLACK) {
+            final Entry<K, V> oldest = order.poll();
+            if (oldest == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            remove(oldest);
+        }
+    }
+
+    private boolean isLive(final Entry<K, V> entry) {
+        return !writes.isStale(entry.group, entry.stamp) && (timeToLive == 0 || System.nanoTime() - entry.expiresAt < 0);
+    }
+
+    private void remove(final Entry<K, V> entry) {
+        if (entries.remove(entry.key, entry)) {
+            weight.addAndGet(-entry.weight);
+        }
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final Object group;
+        private final V value;
+        private final long weight;
+        private final long stamp;
+        private final long expiresAt;
+
+        private Entry(final K key, final Object group, final V value, final long weight, final long stamp, final long expiresAt) {
+            this.key = key;
+            this.group = group;
+            this.value = value;
+            this.weight = weight;
+            this.stamp = stamp;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package xyz.morphia.internal;
+
+import xyz.morphia.mapping.MappedClass;
+import xyz.morphia.mapping.MappedField;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is an internal class and is subject to change or removal.
+ * <p>
+ * Keeps the results of resolving field paths against mapped classes, so that building a query or update with a path seen before costs a
+ * lookup rather than splitting, matching and searching the path again.  Each result is keyed by whoever resolved it, as the query
+ * validator and {@link PathTarget} resolve paths differently, and by the root type, path and whether names are validated.  The mapper
+ * clears the cache whenever a class is mapped, as that can change how a path resolves.
+ *
+ * @since 1.5
+ */
+public class PathCache {
+    /**
+     * The default number of paths kept
+     */
+    public static final int DEFAULT_SIZE = 10000;
+
+    private final WriteClock clears = new WriteClock();
+    private final BoundedCache<CacheKey, ResolvedPath> paths;
+
+    /**
+     * Creates a cache keeping the default number of paths
+     */
+    public PathCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a cache keeping up to the given number of paths.  The oldest are dropped first.
+     *
+     * @param maxSize the number of paths to keep
+     */
+    public PathCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one path");
+        }
+        paths = new BoundedCache<CacheKey, ResolvedPath>(maxSize, 0, TimeUnit.SECONDS, clears);
+    }
+
+    /**
+     * Finds a path resolved before
+     *
+     * @param resolver      the type which resolved the path
+     * @param root          the type the path starts from
+     * @param path          the path as given
+     * @param validateNames whether the names in the path were validated
+     * @return the resolved path, or null if it has not been seen
+     */
+    public ResolvedPath get(final Class<?> resolver, final Class<?> root, final String path, final boolean validateNames) {
+        return paths.get(new CacheKey(resolver, root, path, validateNames));
+    }
+
+    /**
+     * Keeps a resolved path, unless the cache has been cleared since the generation given, as it may then be out of date.
+     *
+     * @param resolver      the type which resolved the path
+     * @param root          the type the path starts from
+     * @param path          the path as given
+     * @param validateNames whether the names in the path were validated
+     * @param resolved      the resolved path
+     * @param generation    the {@link #getGeneration() generation} read before resolving the path
+     */
+    public void put(final Class<?> resolver, final Class<?> root, final String path, final boolean validateNames,
+                    final ResolvedPath resolved, final long generation) {
+        paths.put(new CacheKey(resolver, root, path, validateNames), null, resolved, 1, generation);
+    }
+
+    /**
+     * @return a stamp which changes each time the cache is cleared, read before resolving a path to be put
+     */
+    public long getGeneration() {
+        return clears.stamp();
+    }
+
+    /**
+     * Drops every path
+     */
+    public void clear() {
+        clears.invalidateAll();
+        paths.clear();
+    }
+
+    /**
+     * @return the number of paths kept
+     */
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * A path resolved against a mapped class
+     */
+    public static final class ResolvedPath {
+        private final String translatedPath;
+        private final MappedField target;
+        private final MappedClass context;
+
+        /**
+         * Creates a resolved path
+         *
+         * @param translatedPath the path with the Java field names replaced by the stored names
+         * @param target         the field at the end of the path, or null if it could not be found
+         * @param context        the class holding the last field resolved
+         */
+        public ResolvedPath(final String translatedPath, final MappedField target, final MappedClass context) {
+            this.translatedPath = translatedPath;
+            this.target = target;
+            this.context = context;
+        }
+
+        /**
+         * @return the path with the Java field names replaced by the stored names
+         */
+        public String getTranslatedPath() {
+            return translatedPath;
+        }
+
+        /**
+         * @return the field at the end of the path, or null if it could not be found
+         */
+        public MappedField getTarget() {
+            return target;
+        }
+
+        /**
+         * @return the class holding the last field resolved
+         */
+        public MappedClass getContext() {
+            return context;
+        }
+    }
+
+    private static final class CacheKey {
+        private final Class<?> resolver;
+        private final Class<?> root;
+        private final String path;
+        private final boolean validateNames;
+
+        private CacheKey(final Class<?> resolver, final Class<?> root, final String path, final boolean validateNames) {
+            this.resolver = resolver;
+            this.root = root;
+            this.path = path;
+            this.validateNames = validateNames;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey that = (CacheKey) o;
+            return validateNames == that.validateNames && resolver == that.resolver && root == that.root && path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = resolver.hashCode();
+            result = 31 * result + root.hashCode();
+            result = 31 * result + path.hashCode();
+            result = 31 * result + (validateNames ? 1 : 0);
+            return result;
+        }
+    }
+}
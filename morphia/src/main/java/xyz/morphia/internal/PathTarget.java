@@ -42,6 +42,7 @@ public class PathTarget {
     private MappedClass context;
     private MappedClass root;
     private MappedField target;
+    private String translatedPath;
     private boolean resolved = false;
 
     /**
@@ -79,7 +80,7 @@ public class PathTarget {
         if (!resolved) {
             resolve();
         }
-        return join(segments, '.');
+        return translatedPath;
     }
 
     /**
@@ -99,6 +100,17 @@ public class PathTarget {
     }
 
     private void resolve() {
+        final PathCache cache = mapper.getPathCache();
+        final PathCache.ResolvedPath cached = cache.get(PathTarget.class, root.getClazz(), path, validateNames);
+        if (cached != null) {
+            translatedPath = cached.getTranslatedPath();
+            target = cached.getTarget();
+            context = cached.getContext();
+            resolved = true;
+            return;
+        }
+
+        final long generation = cache.getGeneration();
         context = this.root;
         position = 0;
         MappedField field = null;
@@ -126,7 +138,10 @@ public class PathTarget {
             }
         }
         target = field;
+        translatedPath = join(segments, '.');
         resolved = true;
+        cache.put(PathTarget.class, root.getClazz(), path, validateNames, new PathCache.ResolvedPath(translatedPath, target, context),
+                  generation);
     }
 
     private void translate(final String nameToStore) {
@@ -0,0 +1,73 @@
+package xyz.morphia.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is an internal class and is subject to change or removal.
+ * <p>
+ * Orders reads against writes, so that a cache can tell whether a value was read before the last write to the group it belongs to, such
+ * as a collection.  A reader takes a {@link #stamp() stamp} before reading, and a value read under a stamp is stale once its group, or
+ * every group, has been invalidated since.
+ *
+ * @since 1.5
+ */
+public class WriteClock {
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong lastInvalidateAll = new AtomicLong();
+    private final ConcurrentMap<Object, AtomicLong> lastWrites = new ConcurrentHashMap<Object, AtomicLong>();
+
+    /**
+     * @return the stamp to read a value under
+     */
+    public long stamp() {
+        return clock.get();
+    }
+
+    /**
+     * Makes every value of a group read before now stale
+     *
+     * @param group the group written to
+     */
+    public void invalidate(final Object group) {
+        AtomicLong lastWrite = lastWrites.get(group);
+        if (lastWrite == null) {
+            final AtomicLong created = new AtomicLong();
+            lastWrite = lastWrites.putIfAbsent(group, created);
+            if (lastWrite == null) {
+                lastWrite = created;
+            }
+        }
+        advance(lastWrite, clock.incrementAndGet());
+    }
+
+    /**
+     * Makes every value read before now stale, whatever its group
+     */
+    public void invalidateAll() {
+        advance(lastInvalidateAll, clock.incrementAndGet());
+    }
+
+    /**
+     * Checks if a value read under the given stamp has been invalidated since
+     *
+     * @param group the group of the value, or null if it only goes stale when everything does
+     * @param stamp the stamp the value was read under
+     * @return true if the value is stale
+     */
+    public boolean isStale(final Object group, final long stamp) {
+        if (lastInvalidateAll.get() > stamp) {
+            return true;
+        }
+        final AtomicLong lastWrite = group == null ? null : lastWrites.get(group);
+        return lastWrite != null && lastWrite.get() > stamp;
+    }
+
+    private static void advance(final AtomicLong lastWrite, final long now) {
+        long last = lastWrite.get();
+        while (last < now && !lastWrite.compareAndSet(last, now)) {
+            last = lastWrite.get();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package xyz.morphia.mapping;
+
+import com.mongodb.DBRef;
+import org.bson.BSONObject;
+import org.bson.BsonBinary;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.CodeWScope;
+import org.bson.types.Symbol;
+
+import java.lang.reflect.Array;
+import java.util.Map;
+
+/**
+ * Writes the values found in a mapped DBObject to a {@link BsonWriter}, the same way the driver writes a DBObject.
+ */
+final class BsonValueWriter {
+    private final CodecRegistry registry;
+    private final EncoderContext encoderContext;
+
+    BsonValueWriter(final CodecRegistry registry, final EncoderContext encoderContext) {
+        this.registry = registry;
+        this.encoderContext = encoderContext;
+    }
+
+    @SuppressWarnings("unchecked")
+    void write(final BsonWriter writer, final Object value) {
+        if (value == null) {
+            writer.writeNull();
+        } else if (value instanceof DBRef) {
+            writeDBRef(writer, (DBRef) value);
+        } else if (value instanceof Map) {
+            writer.writeStartDocument();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.writeName(entry.getKey().toString());
+                write(writer, entry.getValue());
+            }
+            writer.writeEndDocument();
+        } else if (value instanceof Iterable) {
+            writer.writeStartArray();
+            for (final Object element : (Iterable<?>) value) {
+                write(writer, element);
+            }
+            writer.writeEndArray();
+        } else if (value instanceof BSONObject) {
+            final BSONObject document = (BSONObject) value;
+            writer.writeStartDocument();
+            for (final String key : document.keySet()) {
+                writer.writeName(key);
+                write(writer, document.get(key));
+            }
+            writer.writeEndDocument();
+        } else if (value instanceof CodeWScope) {
+            writer.writeJavaScriptWithScope(((CodeWScope) value).getCode());
+            write(writer, ((CodeWScope) value).getScope());
+        } else if (value instanceof byte[]) {
+            writer.writeBinaryData(new BsonBinary((byte[]) value));
+        } else if (value.getClass().isArray()) {
+            writer.writeStartArray();
+            final int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                write(writer, Array.get(value, i));
+            }
+            writer.writeEndArray();
+        } else if (value instanceof Symbol) {
+            writer.writeSymbol(((Symbol) value).getSymbol());
+        } else {
+            ((Codec<Object>) registry.get(value.getClass())).encode(writer, value, encoderContext);
+        }
+    }
+
+    private void writeDBRef(final BsonWriter writer, final DBRef ref) {
+        writer.writeStartDocument();
+        writer.writeString("$ref", ref.getCollectionName());
+        writer.writeName("$id");
+        write(writer, ref.getId());
+        if (ref.getDatabaseName() != null) {
+            writer.writeString("$db", ref.getDatabaseName());
+        }
+        writer.writeEndDocument();
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package xyz.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import xyz.morphia.Datastore;
+import xyz.morphia.mapping.cache.EntityCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The precomputed steps for reading a {@link MappedClass} from a DBObject.  Every stored name and {@link xyz.morphia.annotations.AlsoLoad}
+ * alias is mapped to the field it populates and the {@link CustomMapper} already selected for that field, so decoding is a single pass
+ * over the keys actually present in the document.
+ * <p>
+ * Fields whose mapper has to run even when the document has no value for them (reference collections and maps, which are always
+ * initialized, and any user supplied mapper) are kept aside and run for every document.
+ * <p>
+ * A plan can be narrowed to the fields a query projects, in which case fields the server will not return are not visited at all.
+ */
+final class DecodePlan {
+    private final Mapper mapper;
+    private final int generation;
+    private final List<MappedField> fields;
+    private final Map<String, FieldDecoder> byName;
+    private final List<FieldDecoder> alwaysRead;
+    private final Set<String> deferred;
+
+    DecodePlan(final MappedClass mc, final Mapper mapper) {
+        this(mapper, mc.getPersistenceFields());
+    }
+
+    private DecodePlan(final Mapper mapper, final List<MappedField> fields) {
+        this.mapper = mapper;
+        this.fields = fields;
+        generation = mapper.getConverters().getGeneration();
+        final Map<String, FieldDecoder> names = new HashMap<String, FieldDecoder>();
+        final List<FieldDecoder> always = new ArrayList<FieldDecoder>();
+        final Set<String> whole = new HashSet<String>();
+        for (final MappedField mf : fields) {
+            final FieldDecoder decoder = new FieldDecoder(mf, mf.getCustomMapper(mapper));
+            if (decoder.isSkippedWhenAbsent()) {
+                for (final String name : mf.getLoadNames()) {
+                    names.put(name, decoder);
+                }
+            } else {
+                always.add(decoder);
+            }
+            if (decoder.aliased || !decoder.isSkippedWhenAbsent()) {
+                whole.addAll(mf.getLoadNames());
+            }
+        }
+        byName = Collections.unmodifiableMap(names);
+        alwaysRead = Collections.unmodifiableList(always);
+        deferred = Collections.unmodifiableSet(whole);
+    }
+
+    /**
+     * @param candidate the Mapper to check
+     * @return true if this plan was built with the given Mapper and its current converters
+     */
+    boolean isFor(final Mapper candidate) {
+        return mapper == candidate && generation == candidate.getConverters().getGeneration();
+    }
+
+    /**
+     * Narrows this plan to the fields a projection returns.  A projection which includes fields keeps only those fields, and the id; one
+     * which only excludes fields keeps every other field.  Operators such as {@code $slice} and {@code $elemMatch} count as including
+     * their field only alongside other included fields, since on their own the server returns the whole document.
+     *
+     * @param projection the projection used by the query, which may be null
+     * @return the narrowed plan, or this plan if the projection returns every field
+     */
+    DecodePlan project(final DBObject projection) {
+        if (projection == null || projection.keySet().isEmpty()) {
+            return this;
+        }
+        final Map<String, Boolean> included = new HashMap<String, Boolean>();
+        boolean inclusive = false;
+        for (final String key : projection.keySet()) {
+            final Object value = projection.get(key);
+            final boolean include = !(value instanceof Number && ((Number) value).intValue() == 0) && !Boolean.FALSE.equals(value);
+            final String name = key.contains(".") ? key.substring(0, key.indexOf('.')) : key;
+            if (include || !included.containsKey(name)) {
+                included.put(name, include);
+            }
+            if (include && !Mapper.ID_KEY.equals(name) && (value instanceof Number || value instanceof Boolean)) {
+                inclusive = true;
+            }
+        }
+
+        final List<MappedField> projected = new ArrayList<MappedField>();
+        for (final MappedField mf : fields) {
+            final Boolean include = included.get(mf.getNameToStore());
+            if (inclusive ? Boolean.TRUE.equals(include) || include == null && Mapper.ID_KEY.equals(mf.getNameToStore())
+                          : !Boolean.FALSE.equals(include)) {
+                projected.add(mf);
+            }
+        }
+        return projected.size() == fields.size() ? this : new DecodePlan(mapper, projected);
+    }
+
+    /**
+     * Populates the entity from the given document.
+     *
+     * @param datastore the Datastore to use
+     * @param dbObject  the document to read
+     * @param entity    the entity to populate
+     * @param cache     the EntityCache to use
+     */
+    void decode(final Datastore datastore, final DBObject dbObject, final Object entity, final EntityCache cache) {
+        for (final String key : dbObject.keySet()) {
+            final FieldDecoder decoder = byName.get(key);
+            if (decoder != null && decoder.owns(key, dbObject)) {
+                decoder.decode(datastore, dbObject, entity, cache, mapper);
+            }
+        }
+        for (final FieldDecoder decoder : alwaysRead) {
+            decoder.decode(datastore, dbObject, entity, cache, mapper);
+        }
+    }
+
+    /**
+     * @param key a key read from a document
+     * @return true if the value for this key can be decoded on its own, as soon as it is read
+     */
+    boolean isStreamed(final String key) {
+        return byName.containsKey(key) && !deferred.contains(key);
+    }
+
+    /**
+     * @param key a key read from a document
+     * @return true if the value for this key has to be decoded together with the rest of the document, by
+     * {@link #decode(Datastore, DBObject, Object, EntityCache)}
+     */
+    boolean isDeferred(final String key) {
+        return deferred.contains(key);
+    }
+
+    /**
+     * Populates a single field from a value read for one of its streamed keys.
+     *
+     * @param datastore the Datastore to use
+     * @param key       the key the value was read from
+     * @param value     the value, as it would appear in a DBObject
+     * @param entity    the entity to populate
+     * @param cache     the EntityCache to use
+     * @see #isStreamed(String)
+     */
+    void decode(final Datastore datastore, final String key, final Object value, final Object entity, final EntityCache cache) {
+        byName.get(key).decode(datastore, new BasicDBObject(key, value), entity, cache, mapper);
+    }
+
+    private static final class FieldDecoder {
+        private final MappedField mf;
+        private final CustomMapper customMapper;
+        private final boolean aliased;
+
+        private FieldDecoder(final MappedField mf, final CustomMapper customMapper) {
+            this.mf = mf;
+            this.customMapper = customMapper;
+            aliased = mf.getLoadNames().size() > 1;
+        }
+
+        private boolean isSkippedWhenAbsent() {
+            if (customMapper instanceof ReferenceMapper) {
+                return mf.isSingleValue();
+            }
+            return customMapper instanceof ValueMapper || customMapper instanceof EmbeddedMapper;
+        }
+
+        /**
+         * Only one of a field's names may be present.  For aliased fields, the name lookup also reports a document holding several of
+         * them.
+         */
+        private boolean owns(final String key, final DBObject dbObject) {
+            return !aliased || key.equals(mf.getFirstFieldName(dbObject));
+        }
+
+        private void decode(final Datastore datastore, final DBObject dbObject, final Object entity, final EntityCache cache,
+                            final Mapper mapper) {
+            customMapper.fromDBObject(datastore, dbObject, mf, entity, cache, mapper);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import xyz.morphia.logging.MorphiaLoggerFactory;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -16,9 +17,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
+ * The default ObjectFactory.  Constructors are looked up and made accessible once per type and kept for later instantiations, and class
+ * names read from documents are resolved through a bounded cache.
+ *
  * @author ScottHernandez
  */
 public class DefaultCreator implements ObjectFactory {
@@ -26,6 +31,8 @@ public class DefaultCreator implements ObjectFactory {
     private static final Logger LOG = MorphiaLoggerFactory.get(DefaultCreator.class);
 
     private Map<String, Class> classNameCache = new ConcurrentHashMap<String, Class>();
+    private final ConcurrentMap<Class, Instantiator> instantiators = new ConcurrentHashMap<Class, Instantiator>();
+    private final ConcurrentMap<ArgsKey, Constructor> argsConstructors = new ConcurrentHashMap<ArgsKey, Constructor>();
 
     private MapperOptions options = null;
 
@@ -44,14 +51,17 @@ public class DefaultCreator implements ObjectFactory {
         this.options = options;
     }
 
-    private static <T> Constructor<T> getNoArgsConstructor(final Class<T> type) {
-        try {
-            final Constructor<T> constructor = type.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            return constructor;
-        } catch (NoSuchMethodException e) {
-            throw new MappingException("No usable constructor for " + type.getName(), e);
+    @SuppressWarnings("unchecked")
+    private <T> Instantiator<T> getInstantiator(final Class<T> type) {
+        Instantiator<T> instantiator = instantiators.get(type);
+        if (instantiator == null) {
+            instantiator = new Instantiator<T>(type);
+            final Instantiator<T> existing = instantiators.putIfAbsent(type, instantiator);
+            if (existing != null) {
+                instantiator = existing;
+            }
         }
+        return instantiator;
     }
 
     /**
@@ -69,7 +79,7 @@ public class DefaultCreator implements ObjectFactory {
     @SuppressWarnings("unchecked")
     public <T> T createInstance(final Class<T> clazz) {
         try {
-            return getNoArgsConstructor(clazz).newInstance();
+            return getInstantiator(clazz).newInstance();
         } catch (Exception e) {
             if (Collection.class.isAssignableFrom(clazz)) {
                 return (T) createList(null);
@@ -101,33 +111,50 @@ public class DefaultCreator implements ObjectFactory {
                 c = mf.getConcreteType();
             }
         }
+        final ConstructorArgs argAnn = mf.getAnnotation(ConstructorArgs.class);
+        if (argAnn != null && !getInstantiator(c).hasConstructor()) {
+            // there is no no-args constructor to try so go straight to the one named by the annotation
+            return createInstance(c, argAnn, dbObj);
+        }
         try {
             return createInstance(c, dbObj);
         } catch (RuntimeException e) {
-            final ConstructorArgs argAnn = mf.getAnnotation(ConstructorArgs.class);
             if (argAnn == null) {
                 throw e;
             }
-            //TODO: now that we have a mapper, get the arg types that way by getting the fields by name. + Validate names
-            final Object[] args = new Object[argAnn.value().length];
-            final Class[] argTypes = new Class[argAnn.value().length];
-            for (int i = 0; i < argAnn.value().length; i++) {
-                // TODO: run converters and stuff against these. Kinda like the List of List stuff,
-                // using a fake MappedField to hold the value
-                final Object val = dbObj.get(argAnn.value()[i]);
-                args[i] = val;
-                argTypes[i] = val.getClass();
-            }
-            try {
-                final Constructor constructor = c.getDeclaredConstructor(argTypes);
-                constructor.setAccessible(true);
-                return constructor.newInstance(args);
-            } catch (Exception ex) {
-                throw new RuntimeException(ex);
-            }
+            return createInstance(c, argAnn, dbObj);
         }
     }
 
+    private Object createInstance(final Class c, final ConstructorArgs argAnn, final DBObject dbObj) {
+        //TODO: now that we have a mapper, get the arg types that way by getting the fields by name. + Validate names
+        final Object[] args = new Object[argAnn.value().length];
+        final Class[] argTypes = new Class[argAnn.value().length];
+        for (int i = 0; i < argAnn.value().length; i++) {
+            // TODO: run converters and stuff against these. Kinda like the List of List stuff,
+            // using a fake MappedField to hold the value
+            final Object val = dbObj.get(argAnn.value()[i]);
+            args[i] = val;
+            argTypes[i] = val.getClass();
+        }
+        try {
+            return getArgsConstructor(c, argTypes).newInstance(args);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private Constructor getArgsConstructor(final Class c, final Class[] argTypes) throws NoSuchMethodException {
+        final ArgsKey key = new ArgsKey(c, argTypes);
+        Constructor constructor = argsConstructors.get(key);
+        if (constructor == null) {
+            constructor = c.getDeclaredConstructor(argTypes);
+            constructor.setAccessible(true);
+            argsConstructors.putIfAbsent(key, constructor);
+        }
+        return constructor;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List createList(final MappedField mf) {
@@ -191,7 +218,7 @@ public class DefaultCreator implements ObjectFactory {
      */
     private <T> T newInstance(final Constructor<T> tryMe, final Class<T> fallbackType) {
         if (tryMe != null) {
-            tryMe.setAccessible(true);
+            // MappedField has already made its constructor accessible
             try {
                 return tryMe.newInstance();
             } catch (Exception e) {
@@ -201,4 +228,64 @@ public class DefaultCreator implements ObjectFactory {
         return createInstance(fallbackType);
     }
 
+    /*
+     * The no-args constructor of a type, already made accessible, or the reason the type does not have one.
+     */
+    private static final class Instantiator<T> {
+        private final Class<T> type;
+        private final Constructor<T> constructor;
+        private final NoSuchMethodException missing;
+
+        private Instantiator(final Class<T> type) {
+            this.type = type;
+            Constructor<T> found = null;
+            NoSuchMethodException failure = null;
+            try {
+                found = type.getDeclaredConstructor();
+                found.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                failure = e;
+            }
+            constructor = found;
+            missing = failure;
+        }
+
+        private boolean hasConstructor() {
+            return constructor != null;
+        }
+
+        private T newInstance() throws Exception {
+            if (constructor == null) {
+                throw new MappingException("No usable constructor for " + type.getName(), missing);
+            }
+            return constructor.newInstance();
+        }
+    }
+
+    private static final class ArgsKey {
+        private final Class type;
+        private final Class[] argTypes;
+
+        private ArgsKey(final Class type, final Class[] argTypes) {
+            this.type = type;
+            this.argTypes = argTypes;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ArgsKey)) {
+                return false;
+            }
+            final ArgsKey that = (ArgsKey) o;
+            return type.equals(that.type) && Arrays.equals(argTypes, that.argTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + Arrays.hashCode(argTypes);
+        }
+    }
 }
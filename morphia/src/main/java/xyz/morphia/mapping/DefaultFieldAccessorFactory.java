@@ -0,0 +1,32 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package xyz.morphia.mapping;
+
+import java.lang.reflect.Field;
+
+/**
+ * The default {@link FieldAccessorFactory}.  Fields are accessed directly by offset where the JVM allows it and reflectively otherwise.
+ *
+ * @since 1.5
+ */
+public class DefaultFieldAccessorFactory implements FieldAccessorFactory {
+    @Override
+    public FieldAccessor createAccessor(final Field field) {
+        final FieldAccessor accessor = UnsafeFieldAccessor.create(field);
+        return accessor != null ? accessor : new ReflectiveFieldAccessor(field);
+    }
+}
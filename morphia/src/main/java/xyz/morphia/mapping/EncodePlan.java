@@ -0,0 +1,251 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package xyz.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.BsonWriter;
+import xyz.morphia.annotations.NotSaved;
+import xyz.morphia.annotations.PostPersist;
+import xyz.morphia.annotations.PrePersist;
+import xyz.morphia.annotations.PreSave;
+import xyz.morphia.annotations.Version;
+import xyz.morphia.converters.IterableConverter;
+import xyz.morphia.converters.MapOfValuesConverter;
+import xyz.morphia.converters.TypeConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The precomputed steps for writing a {@link MappedClass} to a DBObject: one writer per saved field, in declaration order, with the
+ * {@link CustomMapper} for the field already selected.  Only fields whose mapper depends on the runtime type of their value look at
+ * the value before delegating.
+ * <p>
+ * The same steps can write the entity straight to a {@link BsonWriter}.  Fields handled by the {@link ValueMapper} are converted and
+ * written directly, including collections and maps of simple values; any other field is mapped in to a scratch DBObject which is
+ * written out and discarded.
+ */
+final class EncodePlan {
+    private final Mapper mapper;
+    private final int generation;
+    private final FieldEncoder[] encoders;
+    private final FieldEncoder idEncoder;
+    private final boolean storeClassName;
+    private final boolean streamable;
+
+    EncodePlan(final MappedClass mc, final Mapper mapper) {
+        this.mapper = mapper;
+        generation = mapper.getConverters().getGeneration();
+        final List<FieldEncoder> list = new ArrayList<FieldEncoder>();
+        FieldEncoder id = null;
+        for (final MappedField mf : mc.getPersistenceFields()) {
+            if (!mf.hasAnnotation(NotSaved.class)) {
+                final FieldEncoder encoder = createEncoder(mf, mapper);
+                list.add(encoder);
+                if (mf == mc.getMappedIdField()) {
+                    id = encoder;
+                }
+            }
+        }
+        encoders = list.toArray(new FieldEncoder[list.size()]);
+        idEncoder = id;
+        storeClassName = mc.getEntityAnnotation() == null || !mc.getEntityAnnotation().noClassnameStored();
+        streamable = mc.getFieldsAnnotatedWith(Version.class).isEmpty() && !mc.isDocumentUsedBy(PrePersist.class)
+                     && !mc.isDocumentUsedBy(PreSave.class) && !mc.isDocumentUsedBy(PostPersist.class);
+    }
+
+    private static FieldEncoder createEncoder(final MappedField mf, final Mapper mapper) {
+        final CustomMapper customMapper = mf.getCustomMapper(mapper);
+        return new FieldEncoder(mf, customMapper, customMapper != mapper.getOptions().getValueMapper());
+    }
+
+    /**
+     * @param candidate the Mapper to check
+     * @return true if this plan was built with the given Mapper and its current converters
+     */
+    boolean isFor(final Mapper candidate) {
+        return mapper == candidate && generation == candidate.getConverters().getGeneration();
+    }
+
+    /**
+     * Writes the saved fields of the entity to the given DBObject
+     *
+     * @param entity          the entity to write
+     * @param dbObject        the DBObject to populate
+     * @param involvedObjects a Map of (already converted) POJOs
+     */
+    void encode(final Object entity, final DBObject dbObject, final Map<Object, DBObject> involvedObjects) {
+        for (final FieldEncoder encoder : encoders) {
+            encode(encoder, entity, dbObject, involvedObjects);
+        }
+    }
+
+    /**
+     * @return true if instances can be written with {@link #encode(Object, BsonWriter, BsonValueWriter, Map)}: the class has no
+     * {@link Version} field, which is set on the document during a save, and none of its persist lifecycle methods use the document
+     */
+    boolean isStreamable() {
+        return streamable;
+    }
+
+    /**
+     * Writes the entity as a document to the given writer: the _id first, then the class name and the other saved fields, matching what
+     * the driver would write for the DBObject built by {@link #encode(Object, DBObject, Map)}.
+     *
+     * @param entity          the entity to write
+     * @param writer          the writer to use
+     * @param values          writes the values of mapped fields
+     * @param involvedObjects a Map of (already converted) POJOs
+     * @return the value written for the _id, or null if there is none
+     */
+    Object encode(final Object entity, final BsonWriter writer, final BsonValueWriter values, final Map<Object, DBObject> involvedObjects) {
+        final BasicDBObject scratch = new BasicDBObject();
+        Object id = null;
+
+        writer.writeStartDocument();
+        if (idEncoder != null) {
+            encode(idEncoder, entity, scratch, involvedObjects);
+            id = scratch.get(Mapper.ID_KEY);
+            flush(scratch, writer, values);
+        }
+        if (storeClassName) {
+            writer.writeString(Mapper.CLASS_NAME_FIELDNAME, entity.getClass().getName());
+        }
+        for (final FieldEncoder encoder : encoders) {
+            if (encoder != idEncoder) {
+                write(encoder, entity, writer, values, scratch, involvedObjects);
+                flush(scratch, writer, values);
+            }
+        }
+        writer.writeEndDocument();
+
+        return id;
+    }
+
+    /**
+     * Finds the value stored for the entity's _id.
+     *
+     * @param entity the entity
+     * @return the value, or null if the entity has none
+     */
+    Object encodeId(final Object entity) {
+        if (idEncoder == null) {
+            return null;
+        }
+        final DBObject scratch = new BasicDBObject();
+        encode(idEncoder, entity, scratch, null);
+        return scratch.get(Mapper.ID_KEY);
+    }
+
+    private void encode(final FieldEncoder encoder, final Object entity, final DBObject dbObject,
+                        final Map<Object, DBObject> involvedObjects) {
+        try {
+            encoder.encode(entity, dbObject, involvedObjects, mapper);
+        } catch (Exception e) {
+            throw new MappingException("Error mapping field:" + encoder.mf.getFullName(), e);
+        }
+    }
+
+    private void write(final FieldEncoder encoder, final Object entity, final BsonWriter writer, final BsonValueWriter values,
+                       final DBObject scratch, final Map<Object, DBObject> involvedObjects) {
+        try {
+            final CustomMapper selected = encoder.select(entity, mapper);
+            if (selected.getClass() == ValueMapper.class) {
+                encoder.writeValue(entity, writer, values, mapper);
+            } else {
+                selected.toDBObject(entity, encoder.mf, scratch, involvedObjects, mapper);
+            }
+        } catch (Exception e) {
+            throw new MappingException("Error mapping field:" + encoder.mf.getFullName(), e);
+        }
+    }
+
+    private static void flush(final BasicDBObject scratch, final BsonWriter writer, final BsonValueWriter values) {
+        for (final Map.Entry<String, Object> entry : scratch.entrySet()) {
+            writer.writeName(entry.getKey());
+            values.write(writer, entry.getValue());
+        }
+        scratch.clear();
+    }
+
+    private static final class FieldEncoder {
+        private final MappedField mf;
+        private final CustomMapper customMapper;
+        private final boolean checkValueType;
+
+        private FieldEncoder(final MappedField mf, final CustomMapper customMapper, final boolean checkValueType) {
+            this.mf = mf;
+            this.customMapper = customMapper;
+            this.checkValueType = checkValueType;
+        }
+
+        private void encode(final Object entity, final DBObject dbObject, final Map<Object, DBObject> involvedObjects,
+                            final Mapper mapper) {
+            select(entity, mapper).toDBObject(entity, mf, dbObject, involvedObjects, mapper);
+        }
+
+        private CustomMapper select(final Object entity, final Mapper mapper) {
+            if (checkValueType && mapper.getConverters().hasSimpleValueConverter(mf.getFieldValue(entity))) {
+                return mapper.getOptions().getValueMapper();
+            }
+            return customMapper;
+        }
+
+        /*
+         * Does what the ValueMapper does, without the intermediate copies the collection and map converters make.
+         */
+        private void writeValue(final Object entity, final BsonWriter writer, final BsonValueWriter values, final Mapper mapper) {
+            final Object fieldValue = mf.getFieldValue(entity);
+            final TypeConverter converter = mapper.getConverters().getConverter(fieldValue, mf);
+            final MapperOptions opts = mapper.getOptions();
+
+            if (converter != null && converter.getClass() == IterableConverter.class && fieldValue instanceof Iterable) {
+                final Iterable<?> iterable = (Iterable<?>) fieldValue;
+                if (iterable.iterator().hasNext() || opts.isStoreEmpties()) {
+                    writer.writeStartArray(mf.getNameToStore());
+                    for (final Object o : iterable) {
+                        values.write(writer, mf.getSubClass() != null ? mapper.getConverters().encode(mf.getSubClass(), o)
+                                                                       : mapper.getConverters().encode(o));
+                    }
+                    writer.writeEndArray();
+                } else if (opts.isStoreNulls()) {
+                    writer.writeNull(mf.getNameToStore());
+                }
+            } else if (converter != null && converter.getClass() == MapOfValuesConverter.class && fieldValue instanceof Map) {
+                final Map<?, ?> map = (Map<?, ?>) fieldValue;
+                if (!map.isEmpty() || opts.isStoreEmpties()) {
+                    writer.writeStartDocument(mf.getNameToStore());
+                    for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                        writer.writeName(mapper.getConverters().encode(entry.getKey()).toString());
+                        values.write(writer, mapper.getConverters().encode(entry.getValue()));
+                    }
+                    writer.writeEndDocument();
+                } else if (opts.isStoreNulls()) {
+                    writer.writeNull(mf.getNameToStore());
+                }
+            } else {
+                final Object encoded = converter.encode(fieldValue, mf);
+                if (encoded != null || opts.isStoreNulls()) {
+                    writer.writeName(mf.getNameToStore());
+                    values.write(writer, encoded);
+                }
+            }
+        }
+    }
+}
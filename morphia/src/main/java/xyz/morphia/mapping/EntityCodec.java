@@ -0,0 +1,387 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package xyz.morphia.mapping;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDbPointer;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonReader;
+import org.bson.BsonReaderMark;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.codecs.BsonTypeClassMap;
+import org.bson.codecs.BsonTypeCodecMap;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.BSONTimestamp;
+import org.bson.types.Binary;
+import org.bson.types.CodeWScope;
+import org.bson.types.ObjectId;
+import xyz.morphia.Datastore;
+import xyz.morphia.Key;
+import xyz.morphia.annotations.PostLoad;
+import xyz.morphia.annotations.PostPersist;
+import xyz.morphia.annotations.PreLoad;
+import xyz.morphia.annotations.PrePersist;
+import xyz.morphia.annotations.PreSave;
+import xyz.morphia.mapping.cache.EntityCache;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * A Codec for mapped entities which populates the entity directly from a {@link BsonReader}.  Values are read one key at a time and
+ * handed to the field's {@link CustomMapper} as soon as they are read, so no DBObject for the whole document is ever built and keys the
+ * entity does not map are skipped without being decoded.
+ * <p>
+ * Entities that need the full document, because they have {@link PreLoad} or {@link PostLoad} methods, global
+ * {@link xyz.morphia.EntityInterceptor}s are registered for those events, or a custom {@link xyz.morphia.ObjectFactory} is in use,
+ * are read in to a DBObject and mapped the usual way.
+ * <p>
+ * Encoding likewise writes the entity's fields straight to the {@link BsonWriter}, calling the {@link PrePersist} and {@link PreSave}
+ * methods around it, unless a lifecycle method or interceptor needs the document.  The entity is then converted to a DBObject first.  In
+ * both cases the written entities are recorded in the involved objects, if given, for the {@link PostPersist}
+ * calls made after the save.  A caller which has to see the id the {@link PrePersist} methods leave before it writes the entity calls
+ * them itself, and creates the codec so that it does not call them again.  A new entity is given its ObjectId only once the
+ * {@link PrePersist} methods have run, as the DBObject path does, so a method assigning an id of its own is not overridden.
+ *
+ * @param <T> the entity type
+ */
+class EntityCodec<T> implements CollectibleCodec<T> {
+    private static final BsonTypeClassMap LEGACY_TYPES;
+
+    static {
+        final Map<BsonType, Class<?>> replacements = new HashMap<BsonType, Class<?>>();
+        replacements.put(BsonType.REGULAR_EXPRESSION, Pattern.class);
+        replacements.put(BsonType.SYMBOL, String.class);
+        replacements.put(BsonType.TIMESTAMP, BSONTimestamp.class);
+        replacements.put(BsonType.JAVASCRIPT_WITH_SCOPE, null);
+        replacements.put(BsonType.DOCUMENT, null);
+        LEGACY_TYPES = new BsonTypeClassMap(replacements);
+    }
+
+    private final Datastore datastore;
+    private final Mapper mapper;
+    private final Class<T> type;
+    private final EntityCache cache;
+    private final CodecRegistry registry;
+    private final BsonTypeCodecMap valueCodecs;
+    private final Map<Object, DBObject> involvedObjects;
+    private final boolean callPrePersist;
+    private final DBObject projection;
+    private volatile ProjectedPlan projected;
+
+    EntityCodec(final Datastore datastore, final Mapper mapper, final Class<T> type, final EntityCache cache,
+                final CodecRegistry registry) {
+        this(datastore, mapper, type, cache, registry, null, true, null);
+    }
+
+    EntityCodec(final Datastore datastore, final Mapper mapper, final Class<T> type, final EntityCache cache,
+                final CodecRegistry registry, final Map<Object, DBObject> involvedObjects, final boolean callPrePersist,
+                final DBObject projection) {
+        this.datastore = datastore;
+        this.mapper = mapper;
+        this.type = type;
+        this.cache = cache;
+        this.registry = registry;
+        this.involvedObjects = involvedObjects;
+        this.callPrePersist = callPrePersist;
+        this.projection = projection;
+        valueCodecs = new BsonTypeCodecMap(LEGACY_TYPES, registry);
+    }
+
+    @Override
+    public T decode(final BsonReader reader, final DecoderContext decoderContext) {
+        if (mapper.getOptions().getObjectFactory().getClass() != DefaultCreator.class) {
+            return mapper.fromDBObject(datastore, type, readDocument(reader, decoderContext), cache);
+        }
+
+        final BsonReaderMark mark = reader.getMark();
+        final String className = findClassName(reader);
+        mark.reset();
+
+        final DBObject header = className == null ? new BasicDBObject() : new BasicDBObject(Mapper.CLASS_NAME_FIELDNAME, className);
+        T entity = mapper.getOptions().getObjectFactory().createInstance(type, header);
+        if (!type.isInstance(entity)) {
+            // the stored class name is that of the entity when reading in to some other type
+            entity = mapper.getOptions().getObjectFactory().createInstance(type);
+        }
+        final MappedClass mc = mapper.getMappedClass(entity);
+        if (!isStreamable(mc, entity)) {
+            return mapper.fromDb(datastore, readDocument(reader, decoderContext), entity, cache, getPlan(mc));
+        }
+        return stream(reader, decoderContext, mc, entity);
+    }
+
+    /*
+     * The plan for the class, narrowed to the projection if there is one.  Results are almost always of a single class so the narrowed
+     * plan for the last class seen is kept.
+     */
+    private DecodePlan getPlan(final MappedClass mc) {
+        final DecodePlan plan = mc.getDecodePlan(mapper);
+        if (projection == null) {
+            return plan;
+        }
+        ProjectedPlan last = projected;
+        if (last == null || last.source != plan) {
+            last = new ProjectedPlan(plan, plan.project(projection));
+            projected = last;
+        }
+        return last.plan;
+    }
+
+    @Override
+    public void encode(final BsonWriter writer, final T value, final EncoderContext encoderContext) {
+        final MappedClass mc = mapper.getMappedClass(value);
+        final EncodePlan plan = mc.getEncodePlan(mapper);
+        if (!plan.isStreamable() || mapper.hasInterceptors(PrePersist.class) || mapper.hasInterceptors(PreSave.class)
+            || mapper.hasInterceptors(PostPersist.class)) {
+            final DBObject document = mapper.toDBObject(value, involvedObjects, callPrePersist);
+            if (!callPrePersist) {
+                mc.callLifecycleMethods(PreSave.class, value, document, mapper);
+            }
+            if (document.get(Mapper.ID_KEY) == null && assignId(mc, value)) {
+                document.put(Mapper.ID_KEY, mc.getMappedIdField().getFieldValue(value));
+            }
+            registry.get(DBObject.class).encode(writer, document, encoderContext);
+            return;
+        }
+
+        if (callPrePersist) {
+            mc.callLifecycleMethods(PrePersist.class, value, new BasicDBObject(), mapper);
+        }
+        assignId(mc, value);
+        final Object id = plan.encode(value, writer, new BsonValueWriter(registry, EncoderContext.builder().build()), involvedObjects);
+
+        final DBObject written = id == null ? new BasicDBObject() : new BasicDBObject(Mapper.ID_KEY, id);
+        if (involvedObjects != null) {
+            involvedObjects.put(value, written);
+        }
+        mc.callLifecycleMethods(PreSave.class, value, written, mapper);
+    }
+
+    @Override
+    public boolean documentHasId(final T document) {
+        return mapper.getMappedClass(document).getEncodePlan(mapper).encodeId(document) != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(final T document) {
+        final Object id = mapper.getMappedClass(document).getEncodePlan(mapper).encodeId(document);
+        if (id == null) {
+            throw new IllegalStateException("The entity does not have an id");
+        }
+        final BsonDocument holder = new BsonDocument();
+        final BsonDocumentWriter writer = new BsonDocumentWriter(holder);
+        writer.writeStartDocument();
+        writer.writeName(Mapper.ID_KEY);
+        new BsonValueWriter(registry, EncoderContext.builder().build()).write(writer, id);
+        writer.writeEndDocument();
+        return holder.get(Mapper.ID_KEY);
+    }
+
+    /**
+     * Leaves the entity as it is.  Its ObjectId, if it needs one, is assigned when it is encoded, after its {@link PrePersist} methods have
+     * had the chance to set an id.
+     */
+    @Override
+    public T generateIdIfAbsentFromDocument(final T document) {
+        return document;
+    }
+
+    @Override
+    public Class<T> getEncoderClass() {
+        return type;
+    }
+
+    private static boolean assignId(final MappedClass mc, final Object entity) {
+        final MappedField idField = mc.getMappedIdField();
+        if (idField != null && idField.getFieldValue(entity) == null && idField.getType().isAssignableFrom(ObjectId.class)) {
+            idField.setFieldValue(entity, new ObjectId());
+            return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T stream(final BsonReader reader, final DecoderContext decoderContext, final MappedClass mc, final T entity) {
+        final DecodePlan plan = getPlan(mc);
+        final boolean cached = mc.getIdField() != null && mc.getEntityAnnotation() != null;
+        final DBObject deferred = new BasicDBObject();
+        Object id = null;
+
+        reader.readStartDocument();
+        try {
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                final String name = reader.readName();
+                if (plan.isStreamed(name) || plan.isDeferred(name) || Mapper.ID_KEY.equals(name)) {
+                    final Object value = readValue(reader, decoderContext);
+                    if (Mapper.ID_KEY.equals(name)) {
+                        id = value;
+                        if (cached) {
+                            final T cachedInstance = cache.getEntity(new Key<T>((Class<T>) entity.getClass(),
+                                                                                  mapper.getCollectionName(entity.getClass()), id));
+                            if (cachedInstance != null) {
+                                skipRemaining(reader);
+                                return cachedInstance;
+                            }
+                            cache.putEntity(new Key<T>((Class<T>) entity.getClass(), mapper.getCollectionName(entity.getClass()), id),
+                                            entity);
+                        }
+                    }
+                    if (plan.isDeferred(name)) {
+                        deferred.put(name, value);
+                    } else if (plan.isStreamed(name)) {
+                        plan.decode(datastore, name, value, entity, cache);
+                    }
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.readEndDocument();
+            plan.decode(datastore, deferred, entity, cache);
+        } catch (final MappingException e) {
+            throw new MappingException(format("Could not map %s with ID: %s in database '%s'", entity.getClass().getName(), id,
+                                              datastore.getDB().getName()), e);
+        }
+
+        if (id != null && mc.getIdField() != null) {
+            cache.putEntity(new Key<T>((Class<T>) entity.getClass(), mapper.getCollectionName(entity.getClass()), id), entity);
+        }
+        return entity;
+    }
+
+    private boolean isStreamable(final MappedClass mc, final Object entity) {
+        return !(entity instanceof Map) && !(entity instanceof Collection)
+               && !mapper.hasInterceptors(PreLoad.class) && !mapper.hasInterceptors(PostLoad.class)
+               && !hasLifecycleMethods(mc, PreLoad.class) && !hasLifecycleMethods(mc, PostLoad.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean hasLifecycleMethods(final MappedClass mc, final Class<? extends Annotation> event) {
+        final List<?> methods = mc.getLifecycleMethods((Class<Annotation>) event);
+        return methods != null && !methods.isEmpty();
+    }
+
+    private String findClassName(final BsonReader reader) {
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (Mapper.CLASS_NAME_FIELDNAME.equals(reader.readName()) && reader.getCurrentBsonType() == BsonType.STRING) {
+                return reader.readString();
+            }
+            reader.skipValue();
+        }
+        return null;
+    }
+
+    private void skipRemaining(final BsonReader reader) {
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            reader.skipName();
+            reader.skipValue();
+        }
+        reader.readEndDocument();
+    }
+
+    /*
+     * Values are read in to the same types the legacy DBObject decoding produces so the converters and mappers see no difference.
+     */
+    private Object readValue(final BsonReader reader, final DecoderContext decoderContext) {
+        switch (reader.getCurrentBsonType()) {
+            case DOCUMENT:
+                final DBObject document = readDocument(reader, decoderContext);
+                if (document.containsField("$ref") && document.containsField("$id")) {
+                    return new DBRef((String) document.get("$db"), (String) document.get("$ref"), document.get("$id"));
+                }
+                return document;
+            case ARRAY:
+                return readArray(reader, decoderContext);
+            case JAVASCRIPT_WITH_SCOPE:
+                final String code = reader.readJavaScriptWithScope();
+                return new CodeWScope(code, readDocument(reader, decoderContext));
+            case DB_POINTER:
+                final BsonDbPointer pointer = reader.readDBPointer();
+                return new DBRef(pointer.getNamespace(), pointer.getId());
+            case BINARY:
+                return readBinary(reader, decoderContext);
+            case NULL:
+                reader.readNull();
+                return null;
+            case UNDEFINED:
+                reader.readUndefined();
+                return null;
+            default:
+                return valueCodecs.get(reader.getCurrentBsonType()).decode(reader, decoderContext);
+        }
+    }
+
+    private DBObject readDocument(final BsonReader reader, final DecoderContext decoderContext) {
+        final BasicDBObject document = new BasicDBObject();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            document.put(name, readValue(reader, decoderContext));
+        }
+        reader.readEndDocument();
+        return document;
+    }
+
+    private BasicDBList readArray(final BsonReader reader, final DecoderContext decoderContext) {
+        final BasicDBList list = new BasicDBList();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            list.add(readValue(reader, decoderContext));
+        }
+        reader.readEndArray();
+        return list;
+    }
+
+    private Object readBinary(final BsonReader reader, final DecoderContext decoderContext) {
+        final byte subType = reader.peekBinarySubType();
+        if (BsonBinarySubType.isUuid(subType) && reader.peekBinarySize() == 16) {
+            return registry.get(UUID.class).decode(reader, decoderContext);
+        } else if (subType == BsonBinarySubType.BINARY.getValue() || subType == BsonBinarySubType.OLD_BINARY.getValue()) {
+            return registry.get(byte[].class).decode(reader, decoderContext);
+        }
+        return registry.get(Binary.class).decode(reader, decoderContext);
+    }
+
+    private static final class ProjectedPlan {
+        private final DecodePlan source;
+        private final DecodePlan plan;
+
+        private ProjectedPlan(final DecodePlan source, final DecodePlan plan) {
+            this.source = source;
+            this.plan = plan;
+        }
+    }
+}
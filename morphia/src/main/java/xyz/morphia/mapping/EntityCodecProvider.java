@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package xyz.morphia.mapping;
+
+import com.mongodb.DBObject;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+import xyz.morphia.Datastore;
+import xyz.morphia.mapping.cache.EntityCache;
+
+import java.util.Map;
+
+/**
+ * Provides the Codec for a mapped entity type.  The codec decodes documents straight from the BSON returned by the server in to entities
+ * without first building a DBObject for each document, and writes entities straight to BSON when they are saved where their lifecycle
+ * methods allow it.  Entities loaded through one provider share its {@link EntityCache} so a provider should be created for each query
+ * or write.
+ *
+ * @since 1.5
+ */
+public class EntityCodecProvider implements CodecProvider {
+    private final Datastore datastore;
+    private final Mapper mapper;
+    private final Class<?> type;
+    private final EntityCache cache;
+    private final Map<Object, DBObject> involvedObjects;
+    private final boolean callPrePersist;
+    private final DBObject projection;
+
+    /**
+     * Creates a provider for an entity type.
+     *
+     * @param datastore the Datastore to use when loading references
+     * @param mapper    the Mapper to use
+     * @param type      the entity type to decode
+     * @param cache     the EntityCache to use
+     */
+    public EntityCodecProvider(final Datastore datastore, final Mapper mapper, final Class<?> type, final EntityCache cache) {
+        this(datastore, mapper, type, cache, null, true, null);
+    }
+
+    /**
+     * Creates a provider for an entity type which records the entities it encodes, along with the document or the stored id of each.
+     *
+     * @param datastore       the Datastore to use when loading references
+     * @param mapper          the Mapper to use
+     * @param type            the entity type to decode
+     * @param cache           the EntityCache to use
+     * @param involvedObjects the Map to record encoded entities in, for their {@link xyz.morphia.annotations.PostPersist} methods
+     * @param callPrePersist  whether encoding an entity calls its {@link xyz.morphia.annotations.PrePersist} methods.  False when the
+     *                        caller calls them before the write, so that it can look at the id they leave.
+     */
+    public EntityCodecProvider(final Datastore datastore, final Mapper mapper, final Class<?> type, final EntityCache cache,
+                               final Map<Object, DBObject> involvedObjects, final boolean callPrePersist) {
+        this(datastore, mapper, type, cache, involvedObjects, callPrePersist, null);
+    }
+
+    /**
+     * Creates a provider for an entity type which decodes only the fields a projection returns.
+     *
+     * @param datastore  the Datastore to use when loading references
+     * @param mapper     the Mapper to use
+     * @param type       the entity type to decode
+     * @param cache      the EntityCache to use
+     * @param projection the projection documents were read with, which may be null
+     */
+    public EntityCodecProvider(final Datastore datastore, final Mapper mapper, final Class<?> type, final EntityCache cache,
+                               final DBObject projection) {
+        this(datastore, mapper, type, cache, null, true, projection);
+    }
+
+    private EntityCodecProvider(final Datastore datastore, final Mapper mapper, final Class<?> type, final EntityCache cache,
+                                final Map<Object, DBObject> involvedObjects, final boolean callPrePersist, final DBObject projection) {
+        this.datastore = datastore;
+        this.mapper = mapper;
+        this.type = type;
+        this.cache = cache;
+        this.involvedObjects = involvedObjects;
+        this.callPrePersist = callPrePersist;
+        this.projection = projection;
+    }
+
+    @Override
+    public <T> Codec<T> get(final Class<T> clazz, final CodecRegistry registry) {
+        return clazz.equals(type)
+               ? new EntityCodec<T>(datastore, mapper, clazz, cache, registry, involvedObjects, callPrePersist, projection)
+               : null;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package xyz.morphia.mapping;
+
+/**
+ * Reads and writes the value of a single mapped java field.  An accessor is created once per field, when its class is mapped, and is
+ * shared by every thread using the {@link Mapper}.
+ *
+ * @see FieldAccessorFactory
+ * @since 1.5
+ */
+public interface FieldAccessor {
+    /**
+     * Gets the value of the field on the given instance
+     *
+     * @param instance the instance to read from
+     * @return the value of the field
+     */
+    Object get(Object instance);
+
+    /**
+     * Sets the value of the field on the given instance
+     *
+     * @param instance the instance to update
+     * @param value    the new value
+     */
+    void set(Object instance, Object value);
+}
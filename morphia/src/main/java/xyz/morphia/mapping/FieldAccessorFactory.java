@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package xyz.morphia.mapping;
+
+import java.lang.reflect.Field;
+
+/**
+ * Creates the {@link FieldAccessor}s used by {@link MappedField} to read and write entity state.  The factory is consulted once for each
+ * persistent field when a class is added to the {@link Mapper}.
+ *
+ * @see MapperOptions#setFieldAccessorFactory(FieldAccessorFactory)
+ * @since 1.5
+ */
+public interface FieldAccessorFactory {
+    /**
+     * Creates an accessor for the given field
+     *
+     * @param field the java field to access
+     * @return the accessor to use
+     */
+    FieldAccessor createAccessor(Field field);
+}
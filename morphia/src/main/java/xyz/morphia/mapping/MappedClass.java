@@ -48,11 +48,13 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
@@ -109,6 +111,7 @@ public class MappedClass {
      * a list of the fields to map
      */
     private final List<MappedField> persistenceFields = new ArrayList<MappedField>();
+    private final List<MappedField> persistenceFieldsView = new FieldList();
     /**
      * the type we are mapping to/from
      */
@@ -117,6 +120,7 @@ public class MappedClass {
      * special fields representing the Key of the object
      */
     private java.lang.reflect.Field idField;
+    private MappedField mappedIdField;
     /**
      * special annotations representing the type the object
      */
@@ -125,6 +129,9 @@ public class MappedClass {
     private MapperOptions mapperOptions;
     private MappedClass superClass;
     private List<MappedClass> interfaces = new ArrayList<MappedClass>();
+    private volatile DecodePlan decodePlan;
+    private volatile EncodePlan encodePlan;
+    private volatile FieldIndex fieldIndex;
 
     /**
      * Creates a MappedClass instance
@@ -245,57 +252,31 @@ public class MappedClass {
     @SuppressWarnings({"WMI", "unchecked"})
     public DBObject callLifecycleMethods(final Class<? extends Annotation> event, final Object entity, final DBObject dbObj,
                                          final Mapper mapper) {
-        final List<ClassMethodPair> methodPairs = getLifecycleMethods((Class<Annotation>) event);
+        final List<ClassMethodPair> methodPairs = lifecycleMethods.get(event);
         DBObject retDbObj = dbObj;
-        try {
-            Object tempObj;
-            if (methodPairs != null) {
-                final HashMap<Class<?>, Object> toCall = new HashMap<Class<?>, Object>((int) (methodPairs.size() * 1.3));
+        if (methodPairs != null) {
+            try {
                 for (final ClassMethodPair cm : methodPairs) {
-                    toCall.put(cm.clazz, null);
-                }
-                for (final Class<?> c : toCall.keySet()) {
-                    if (c != null) {
-                        toCall.put(c, getOrCreateInstance(c, mapper));
-                    }
-                }
-
-                for (final ClassMethodPair cm : methodPairs) {
-                    final Method method = cm.method;
-                    final Object inst = toCall.get(cm.clazz);
-                    method.setAccessible(true);
+                    final Object inst = cm.clazz == null ? null : getOrCreateInstance(cm.clazz, mapper);
 
                     if (LOG.isDebugEnabled()) {
-                        LOG.debug(format("Calling lifecycle method(@%s %s) on %s", event.getSimpleName(), method, inst));
-                    }
-
-                    if (inst == null) {
-                        if (method.getParameterTypes().length == 0) {
-                            tempObj = method.invoke(entity);
-                        } else {
-                            tempObj = method.invoke(entity, retDbObj);
-                        }
-                    } else if (method.getParameterTypes().length == 0) {
-                        tempObj = method.invoke(inst);
-                    } else if (method.getParameterTypes().length == 1) {
-                        tempObj = method.invoke(inst, entity);
-                    } else {
-                        tempObj = method.invoke(inst, entity, retDbObj);
+                        LOG.debug(format("Calling lifecycle method(@%s %s) on %s", event.getSimpleName(), cm.method, inst));
                     }
 
+                    final Object tempObj = cm.invoke(inst, entity, retDbObj);
                     if (tempObj != null) {
                         retDbObj = (DBObject) tempObj;
                     }
                 }
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e);
             }
-
-            callGlobalInterceptors(event, entity, dbObj, mapper);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
         }
 
+        callGlobalInterceptors(event, entity, dbObj, mapper);
+
         return retDbObj;
     }
 
@@ -414,15 +395,7 @@ public class MappedClass {
      * @return true if that mapped field name is found
      */
     public MappedField getMappedField(final String storedName) {
-        for (final MappedField mf : persistenceFields) {
-            for (final String n : mf.getLoadNames()) {
-                if (storedName.equals(n)) {
-                    return mf;
-                }
-            }
-        }
-
-        return null;
+        return getFieldIndex().byStoredName.get(storedName);
     }
 
     /**
@@ -432,21 +405,24 @@ public class MappedClass {
      * @return the MappedField for the named Java field
      */
     public MappedField getMappedFieldByJavaField(final String name) {
-        for (final MappedField mf : persistenceFields) {
-            if (name.equals(mf.getJavaFieldName())) {
-                return mf;
-            }
-        }
+        return getFieldIndex().byJavaName.get(name);
+    }
+
+    private FieldIndex getFieldIndex() {
+        final FieldIndex index = fieldIndex;
+        // looked up before discover() has finished
+        return index != null ? index : new FieldIndex(persistenceFields);
+    }
 
-        return null;
+    private void indexFields() {
+        fieldIndex = new FieldIndex(persistenceFields);
     }
 
     /**
      * @return the ID field for the class
      */
     public MappedField getMappedIdField() {
-        List<MappedField> fields = getFieldsAnnotatedWith(Id.class);
-        return fields.isEmpty() ? null : fields.get(0);
+        return mappedIdField;
     }
 
     /**
@@ -458,10 +434,12 @@ public class MappedClass {
     }
 
     /**
+     * Returns the fields to map.  The lookups by name are rebuilt whenever the list returned is changed.
+     *
      * @return the persistenceFields
      */
     public List<MappedField> getPersistenceFields() {
-        return persistenceFields;
+        return persistenceFieldsView;
     }
 
     /**
@@ -491,8 +469,57 @@ public class MappedClass {
 
     }
 
-    boolean isSubType(final MappedClass mc) {
-        return mc.equals(superClass) || interfaces.contains(mc);
+    /**
+     * Gets the plan used to decode documents in to instances of this class, building it on first use.
+     *
+     * @param mapper the Mapper doing the decoding
+     * @return the plan
+     */
+    DecodePlan getDecodePlan(final Mapper mapper) {
+        DecodePlan plan = decodePlan;
+        if (plan == null || !plan.isFor(mapper)) {
+            plan = new DecodePlan(this, mapper);
+            decodePlan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * Gets the plan used to encode instances of this class in to documents, building it on first use and again whenever the converters
+     * change.
+     *
+     * @param mapper the Mapper doing the encoding
+     * @return the plan
+     */
+    EncodePlan getEncodePlan(final Mapper mapper) {
+        EncodePlan plan = encodePlan;
+        if (plan == null || !plan.isFor(mapper)) {
+            plan = new EncodePlan(this, mapper);
+            encodePlan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * @param event the lifecycle annotation
+     * @return true if any of the methods for the event takes the document as a parameter or may return a replacement for it
+     */
+    boolean isDocumentUsedBy(final Class<? extends Annotation> event) {
+        final List<ClassMethodPair> methodPairs = lifecycleMethods.get(event);
+        if (methodPairs != null) {
+            for (final ClassMethodPair cm : methodPairs) {
+                final Class<?> returnType = cm.method.getReturnType();
+                if (returnType.isAssignableFrom(DBObject.class) || DBObject.class.isAssignableFrom(returnType)
+                    || cm.parameterCount > (cm.clazz == null ? 0 : 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    List<MappedClass> getInterfaces() {
+        return interfaces;
     }
 
     @Override
@@ -510,8 +537,10 @@ public class MappedClass {
         // polymorphicAn = (Polymorphic) getAnnotation(Polymorphic.class);
         final List<MappedField> fields = getFieldsAnnotatedWith(Id.class);
         if (fields != null && !fields.isEmpty()) {
-            idField = fields.get(0).getField();
+            mappedIdField = fields.get(0);
+            idField = mappedIdField.getField();
         }
+        indexFields();
     }
 
     /**
@@ -590,6 +619,7 @@ public class MappedClass {
                 }
             }
         }
+        indexFields();
     }
 
     /**
@@ -615,7 +645,7 @@ public class MappedClass {
 
     private void callGlobalInterceptors(final Class<? extends Annotation> event, final Object entity, final DBObject dbObj,
                                         final Mapper mapper) {
-        for (final EntityInterceptor ei : mapper.getInterceptors()) {
+        for (final EntityInterceptor ei : mapper.getInterceptors(event)) {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Calling interceptor method " + event.getSimpleName() + " on " + ei);
             }
@@ -635,8 +665,9 @@ public class MappedClass {
     }
 
     private Object getOrCreateInstance(final Class<?> clazz, final Mapper mapper) {
-        if (mapper.getInstanceCache().containsKey(clazz)) {
-            return mapper.getInstanceCache().get(clazz);
+        final Object cached = mapper.getInstanceCache().get(clazz);
+        if (cached != null) {
+            return cached;
         }
 
         final Object o = mapper.getOptions().getObjectFactory().createInstance(clazz);
@@ -661,11 +692,90 @@ public class MappedClass {
     private static class ClassMethodPair {
         private final Class<?> clazz;
         private final Method method;
+        private final int parameterCount;
 
         ClassMethodPair(final Class<?> c, final Method m) {
             clazz = c;
             method = m;
+            parameterCount = m.getParameterTypes().length;
+            method.setAccessible(true);
+        }
+
+        /*
+         * Calls the method on the entity itself when there is no listener, passing the document if the method takes it, or on the
+         * listener, passing the entity and then the document as far as the method's parameters allow.
+         */
+        Object invoke(final Object listener, final Object entity, final DBObject dbObj)
+            throws IllegalAccessException, InvocationTargetException {
+            if (listener == null) {
+                return parameterCount == 0 ? method.invoke(entity) : method.invoke(entity, dbObj);
+            } else if (parameterCount == 0) {
+                return method.invoke(listener);
+            } else if (parameterCount == 1) {
+                return method.invoke(listener, entity);
+            } else {
+                return method.invoke(listener, entity, dbObj);
+            }
+        }
+    }
+
+
+    /*
+     * The fields as getPersistenceFields() hands them out, so that changing them rebuilds the lookups by name.
+     */
+    private final class FieldList extends AbstractList<MappedField> implements RandomAccess {
+        @Override
+        public MappedField get(final int index) {
+            return persistenceFields.get(index);
+        }
+
+        @Override
+        public int size() {
+            return persistenceFields.size();
+        }
+
+        @Override
+        public MappedField set(final int index, final MappedField field) {
+            final MappedField previous = persistenceFields.set(index, field);
+            indexFields();
+            return previous;
+        }
+
+        @Override
+        public void add(final int index, final MappedField field) {
+            persistenceFields.add(index, field);
+            modCount++;
+            indexFields();
+        }
+
+        @Override
+        public MappedField remove(final int index) {
+            final MappedField removed = persistenceFields.remove(index);
+            modCount++;
+            indexFields();
+            return removed;
         }
     }
 
+    /*
+     * The fields by each of their stored and @AlsoLoad names, and by their Java names.  Where fields share a name, the first declared is
+     * found, as it was by searching the fields in order.
+     */
+    private static final class FieldIndex {
+        private final Map<String, MappedField> byStoredName = new HashMap<String, MappedField>();
+        private final Map<String, MappedField> byJavaName = new HashMap<String, MappedField>();
+
+        private FieldIndex(final List<MappedField> fields) {
+            for (final MappedField mf : fields) {
+                for (final String name : mf.getLoadNames()) {
+                    if (!byStoredName.containsKey(name)) {
+                        byStoredName.put(name, mf);
+                    }
+                }
+                if (!byJavaName.containsKey(mf.getJavaFieldName())) {
+                    byJavaName.put(mf.getJavaFieldName(), mf);
+                }
+            }
+        }
+    }
 }
@@ -89,6 +89,7 @@ public class MappedField {
     private final List<MappedField> typeParameters = new ArrayList<MappedField>();
     private Class persistedClass;
     private Field field; // the field :)
+    private FieldAccessor accessor; // reads and writes the field
     private Class realType; // the real type
     private Constructor constructor; // the constructor for the type
     private Type subType; // the type (T) for the Collection<T>/T[]/Map<?,T>
@@ -105,10 +106,12 @@ public class MappedField {
 
     private String nameToStore; // the field name in the db.
     private List<String> loadNames; // List of stored names in order of trying, contains nameToStore and potential aliases
+    private volatile MapperSelection mapperSelection; // the CustomMapper selected for this field
 
     MappedField(final Field f, final Class<?> clazz, final Mapper mapper) {
         f.setAccessible(true);
         field = f;
+        accessor = new ReflectiveFieldAccessor(f);
         persistedClass = clazz;
         realType = field.getType();
         genericType = field.getGenericType();
@@ -217,6 +220,9 @@ public class MappedField {
      * @return the value from best mapping of this field
      */
     public Object getDbObjectValue(final DBObject dbObj) {
+        if (loadNames.size() == 1) {
+            return dbObj.get(nameToStore);
+        }
         return dbObj.get(getFirstFieldName(dbObj));
     }
 
@@ -241,11 +247,7 @@ public class MappedField {
      * @return the value stored in the java field
      */
     public Object getFieldValue(final Object instance) {
-        try {
-            return field.get(instance);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        return accessor.get(instance);
     }
 
     /**
@@ -345,6 +347,31 @@ public class MappedField {
         return hasAnnotation(Transient.class) || Modifier.isTransient(field.getModifiers());
     }
 
+    /**
+     * @return the accessor used to read and write the java field
+     * @since 1.5
+     */
+    public FieldAccessor getAccessor() {
+        return accessor;
+    }
+
+    void setAccessor(final FieldAccessor accessor) {
+        this.accessor = accessor;
+    }
+
+    /**
+     * Returns the CustomMapper the given Mapper uses for this field.  It is selected once and kept until the Mapper's converters change.
+     */
+    CustomMapper getCustomMapper(final Mapper mapper) {
+        final int generation = mapper.getConverters().getGeneration();
+        MapperSelection selection = mapperSelection;
+        if (selection == null || selection.mapper != mapper || selection.generation != generation) {
+            selection = new MapperSelection(mapper, generation, mapper.selectMapper(this));
+            mapperSelection = selection;
+        }
+        return selection.customMapper;
+    }
+
     void setSubType(final Type subType) {
         this.subType = subType;
     }
@@ -447,11 +474,7 @@ public class MappedField {
      * @param value    the value to set
      */
     public void setFieldValue(final Object instance, final Object value) {
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        accessor.set(instance, value);
     }
 
     @Override
@@ -762,4 +785,16 @@ public class MappedField {
     void setMapKeyType(final Class mapKeyType) {
         this.mapKeyType = mapKeyType;
     }
+
+    private static final class MapperSelection {
+        private final Mapper mapper;
+        private final int generation;
+        private final CustomMapper customMapper;
+
+        private MapperSelection(final Mapper mapper, final int generation, final CustomMapper customMapper) {
+            this.mapper = mapper;
+            this.generation = generation;
+            this.customMapper = customMapper;
+        }
+    }
 }
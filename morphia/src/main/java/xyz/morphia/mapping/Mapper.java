@@ -17,13 +17,15 @@ import com.mongodb.DBObject;
 import com.mongodb.DBRef;
 import org.bson.BSONEncoder;
 import org.bson.BasicBSONEncoder;
+import org.bson.types.ObjectId;
+import xyz.morphia.AbstractEntityInterceptor;
 import xyz.morphia.Datastore;
 import xyz.morphia.EntityInterceptor;
 import xyz.morphia.Key;
 import xyz.morphia.annotations.Converters;
 import xyz.morphia.annotations.Embedded;
-import xyz.morphia.annotations.NotSaved;
 import xyz.morphia.annotations.PostLoad;
+import xyz.morphia.annotations.PostPersist;
 import xyz.morphia.annotations.PreLoad;
 import xyz.morphia.annotations.PrePersist;
 import xyz.morphia.annotations.PreSave;
@@ -32,6 +34,7 @@ import xyz.morphia.annotations.Reference;
 import xyz.morphia.annotations.Serialized;
 import xyz.morphia.converters.CustomConverters;
 import xyz.morphia.converters.TypeConverter;
+import xyz.morphia.internal.PathCache;
 import xyz.morphia.logging.Logger;
 import xyz.morphia.logging.MorphiaLoggerFactory;
 import xyz.morphia.mapping.cache.EntityCache;
@@ -47,16 +50,18 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.IdentityHashMap;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import static java.lang.String.format;
@@ -88,24 +93,39 @@ public class Mapper {
      */
     public static final String CLASS_NAME_FIELDNAME = "className";
     private static final Logger LOG = MorphiaLoggerFactory.get(Mapper.class);
+    private static final Map<Class<? extends Annotation>, String> INTERCEPTOR_METHODS =
+        new LinkedHashMap<Class<? extends Annotation>, String>();
+
+    static {
+        INTERCEPTOR_METHODS.put(PreLoad.class, "preLoad");
+        INTERCEPTOR_METHODS.put(PostLoad.class, "postLoad");
+        INTERCEPTOR_METHODS.put(PrePersist.class, "prePersist");
+        INTERCEPTOR_METHODS.put(PreSave.class, "preSave");
+        INTERCEPTOR_METHODS.put(PostPersist.class, "postPersist");
+    }
+
     /**
      * Set of classes that registered by this mapper
      */
     private final Map<String, MappedClass> mappedClasses = new ConcurrentHashMap<String, MappedClass>();
     private final ConcurrentHashMap<String, Set<MappedClass>> mappedClassesByCollection = new ConcurrentHashMap<String, Set<MappedClass>>();
+    //the names of the mapped classes directly extending or implementing each type, by the name of the type
+    private final ConcurrentHashMap<String, Set<String>> subTypeNames = new ConcurrentHashMap<String, Set<String>>();
 
     //EntityInterceptors; these are called after EntityListeners and lifecycle methods on an Entity, for all Entities
-    private final List<EntityInterceptor> interceptors = new LinkedList<EntityInterceptor>();
+    private final List<EntityInterceptor> interceptors = new CopyOnWriteArrayList<EntityInterceptor>();
+    //the same interceptors indexed by the lifecycle events they implement, rebuilt whenever the interceptors change
+    private volatile Map<Class<? extends Annotation>, List<EntityInterceptor>> interceptorsByEvent =
+        Collections.<Class<? extends Annotation>, List<EntityInterceptor>>emptyMap();
 
     //A general cache of instances of classes; used by MappedClass for EntityListener(s)
     private final Map<Class, Object> instanceCache = new ConcurrentHashMap();
     // TODO: make these configurable
     private final LazyProxyFactory proxyFactory = LazyFeatureDependencies.createDefaultProxyFactory();
     private final xyz.morphia.converters.Converters converters;
+    private final PathCache pathCache = new PathCache();
     private MapperOptions opts = new MapperOptions();
 
-    private final IdentityHashMap<MappedField, CustomMapper> mapperCache = new IdentityHashMap<MappedField, CustomMapper>();
-
     /**
      * Creates a Mapper with the given options.
      *
@@ -144,8 +164,42 @@ public class Mapper {
      *
      * @param ei the interceptor to add
      */
-    public void addInterceptor(final EntityInterceptor ei) {
+    public synchronized void addInterceptor(final EntityInterceptor ei) {
         interceptors.add(ei);
+        indexInterceptors();
+    }
+
+    /*
+     * Callers hold the lock on this instance.  Lookups which raced with the change finish against the index they started with.
+     */
+    private void indexInterceptors() {
+        final Map<Class<? extends Annotation>, List<EntityInterceptor>> index =
+            new HashMap<Class<? extends Annotation>, List<EntityInterceptor>>();
+        for (final EntityInterceptor ei : interceptors) {
+            for (final Entry<Class<? extends Annotation>, String> entry : INTERCEPTOR_METHODS.entrySet()) {
+                if (implementsEvent(ei, entry.getValue())) {
+                    List<EntityInterceptor> list = index.get(entry.getKey());
+                    if (list == null) {
+                        list = new ArrayList<EntityInterceptor>();
+                        index.put(entry.getKey(), list);
+                    }
+                    list.add(ei);
+                }
+            }
+        }
+        interceptorsByEvent = index;
+    }
+
+    /*
+     * Interceptors extending AbstractEntityInterceptor only need to be called for the events whose methods they override.
+     */
+    private static boolean implementsEvent(final EntityInterceptor ei, final String methodName) {
+        try {
+            return ei.getClass().getMethod(methodName, Object.class, DBObject.class, Mapper.class).getDeclaringClass()
+                   != AbstractEntityInterceptor.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
     }
 
     /**
@@ -197,6 +251,41 @@ public class Mapper {
         return entity;
     }
 
+    /**
+     * Loads the eager references held by a batch of documents with one query per referenced collection, and puts the referenced entities
+     * in the cache.  Converting the documents afterwards with the same cache then finds them there instead of loading each one in turn.
+     * References which can not be found are recorded in the cache, and are then treated as missing without another query.
+     *
+     * @param datastore   the Datastore to use when fetching the references
+     * @param entityClass the type of the documents, unless overridden by their {@link #CLASS_NAME_FIELDNAME}
+     * @param dbObjects   the documents
+     * @param cache       the EntityCache to fill
+     * @see xyz.morphia.query.FindOptions#batchReferences(boolean)
+     * @since 1.5
+     */
+    public void prefetchReferences(final Datastore datastore, final Class<?> entityClass, final Iterable<DBObject> dbObjects,
+                                   final EntityCache cache) {
+        new ReferencePrefetcher(datastore, this, cache).prefetch(getMappedClass(entityClass), dbObjects);
+    }
+
+    /**
+     * Checks whether an entity can be saved by writing it straight to BSON, without first converting it to a DBObject.  This is not the
+     * case if global interceptors are registered for the persist events, if the entity has a {@link xyz.morphia.annotations.Version} field,
+     * if any of its persist lifecycle methods use the document, or if it has no id and the id field can not hold a generated ObjectId.
+     *
+     * @param entity the entity to check
+     * @return true if the entity can be written directly
+     * @see EntityCodecProvider
+     * @since 1.5
+     */
+    public boolean isDirectlyEncodable(final Object entity) {
+        final MappedClass mc = getMappedClass(entity);
+        final MappedField idField = mc.getMappedIdField();
+        return !hasInterceptors(PrePersist.class) && !hasInterceptors(PreSave.class) && !hasInterceptors(PostPersist.class)
+               && mc.getEncodePlan(this).isStreamable() && idField != null
+               && (idField.getFieldValue(entity) != null || idField.getType().isAssignableFrom(ObjectId.class));
+    }
+
     /**
      * Finds any subtypes for the given MappedClass.
      *
@@ -207,9 +296,13 @@ public class Mapper {
      */
     public List<MappedClass> getSubTypes(final MappedClass mc) {
         List<MappedClass> subtypes = new ArrayList<MappedClass>();
-        for (MappedClass mappedClass : getMappedClasses()) {
-            if (mappedClass.isSubType(mc)) {
-                subtypes.add(mappedClass);
+        final Set<String> names = subTypeNames.get(mc.getClazz().getName());
+        if (names != null) {
+            for (final String name : names) {
+                final MappedClass mappedClass = mappedClasses.get(name);
+                if (mappedClass != null) {
+                    subtypes.add(mappedClass);
+                }
             }
         }
 
@@ -247,6 +340,15 @@ public class Mapper {
      * @return the entity
      */
     public <T> T fromDb(final Datastore datastore, final DBObject dbObject, final T entity, final EntityCache cache) {
+        return fromDb(datastore, dbObject, entity, cache, null);
+    }
+
+    /**
+     * Converts a DBObject back to an entity using a particular plan for the entity's fields, such as one narrowed to a query's projection.
+     *
+     * @param plan the plan to use, or null for the plan covering every field of the entity
+     */
+    <T> T fromDb(final Datastore datastore, final DBObject dbObject, final T entity, final EntityCache cache, final DecodePlan plan) {
         //hack to bypass things and just read the value.
         if (entity instanceof MappedField) {
             readMappedField(datastore, (MappedField) entity, entity, cache, dbObject);
@@ -281,9 +383,7 @@ public class Mapper {
             final MappedClass mc = getMappedClass(entity);
             final DBObject updated = mc.callLifecycleMethods(PreLoad.class, entity, dbObject, this);
             try {
-                for (final MappedField mf : mc.getPersistenceFields()) {
-                    readMappedField(datastore, mf, entity, cache, updated);
-                }
+                (plan != null ? plan : mc.getDecodePlan(this)).decode(datastore, updated, entity, cache);
             } catch (final MappingException e) {
                 Object id = dbObject.get(ID_KEY);
                 String entityName = entity.getClass().getName();
@@ -354,7 +454,7 @@ public class Mapper {
         }
         unwrapped = ProxyHelper.unwrap(unwrapped);
         try {
-            return getMappedClass(unwrapped.getClass()).getIdField().get(unwrapped);
+            return getMappedClass(unwrapped.getClass()).getMappedIdField().getFieldValue(unwrapped);
         } catch (Exception e) {
             return null;
         }
@@ -368,12 +468,29 @@ public class Mapper {
     }
 
     /**
-     * Gets list of {@link EntityInterceptor}s
+     * Gets list of {@link EntityInterceptor}s.  Interceptors removed from or added to the list take effect straight away.
      *
      * @return the Interceptors
      */
     public Collection<EntityInterceptor> getInterceptors() {
-        return interceptors;
+        return new InterceptorList();
+    }
+
+    /**
+     * @param event the lifecycle annotation
+     * @return the interceptors to call for the event, in the order they were added
+     */
+    List<EntityInterceptor> getInterceptors(final Class<? extends Annotation> event) {
+        final List<EntityInterceptor> list = interceptorsByEvent.get(event);
+        return list != null ? list : Collections.<EntityInterceptor>emptyList();
+    }
+
+    /**
+     * @param event the lifecycle annotation
+     * @return true if any interceptor is called for the event
+     */
+    boolean hasInterceptors(final Class<? extends Annotation> event) {
+        return interceptorsByEvent.containsKey(event);
     }
 
     /**
@@ -498,6 +615,16 @@ public class Mapper {
         return new ArrayList<MappedClass>(mappedClasses.values());
     }
 
+    /**
+     * This is an internal method and is subject to change or removal.
+     *
+     * @return the field paths resolved against the classes mapped by this Mapper
+     * @since 1.5
+     */
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
     /**
      * @return the options used by this Mapper
      */
@@ -726,7 +853,7 @@ public class Mapper {
         if ((mc.getIdField() != null) && (dbObj != null) && (dbObj.get(ID_KEY) != null)) {
             try {
                 final MappedField mf = mc.getMappedIdField();
-                final Object oldIdValue = mc.getIdField().get(entity);
+                final Object oldIdValue = mf.getFieldValue(entity);
                 readMappedField(datastore, mf, entity, cache, dbObj);
                 if (oldIdValue != null) {
                     // The entity already had an id set. Check to make sure it hasn't changed. That would be unexpected, and could
@@ -777,6 +904,8 @@ public class Mapper {
      */
     private MappedClass addMappedClass(final MappedClass mc, final boolean validate) {
         addConverters(mc);
+        createAccessors(mc);
+        selectMappers(mc);
 
         if (validate && !mc.isInterface()) {
             mc.validate(this);
@@ -795,9 +924,47 @@ public class Mapper {
 
         mcs.add(mc);
 
+        if (mc.getSuperClass() != null) {
+            addSubType(mc.getSuperClass(), mc);
+        }
+        for (final MappedClass implemented : mc.getInterfaces()) {
+            addSubType(implemented, mc);
+        }
+        // a new class can change how paths resolve, such as through a new subtype
+        pathCache.clear();
+
         return mc;
     }
 
+    private void addSubType(final MappedClass parent, final MappedClass mc) {
+        Set<String> names = subTypeNames.get(parent.getClazz().getName());
+        if (names == null) {
+            names = new CopyOnWriteArraySet<String>();
+            final Set<String> temp = subTypeNames.putIfAbsent(parent.getClazz().getName(), names);
+            if (temp != null) {
+                names = temp;
+            }
+        }
+        names.add(mc.getClazz().getName());
+    }
+
+    private void createAccessors(final MappedClass mc) {
+        final FieldAccessorFactory factory = opts.getFieldAccessorFactory();
+        for (final MappedField mf : mc.getPersistenceFields()) {
+            mf.setAccessor(factory.createAccessor(mf.getField()));
+        }
+    }
+
+    /*
+     * Resolves the converter and CustomMapper for each field up front so that mapping entities later only reads them.
+     */
+    private void selectMappers(final MappedClass mc) {
+        for (final MappedField mf : mc.getPersistenceFields()) {
+            getConverters().getConverter(null, mf);
+            mf.getCustomMapper(this);
+        }
+    }
+
     private Object extractFirstElement(final Object value) {
         return value.getClass().isArray() ? Array.get(value, 0) : ((Iterable) value).iterator().next();
     }
@@ -813,17 +980,6 @@ public class Mapper {
         return refs;
     }
 
-    private Class<? extends Annotation> getFieldAnnotation(final MappedField mf) {
-        Class<? extends Annotation> annType = null;
-        for (final Class<? extends Annotation> testType : new Class[]{Property.class, Embedded.class, Serialized.class, Reference.class}) {
-            if (mf.hasAnnotation(testType)) {
-                annType = testType;
-                break;
-            }
-        }
-        return annType;
-    }
-
     private boolean isAssignable(final MappedField mf, final Object value) {
         return mf != null
             && (mf.hasAnnotation(Reference.class) || Key.class.isAssignableFrom(mf.getType())
@@ -844,16 +1000,10 @@ public class Mapper {
 
     private void readMappedField(final Datastore datastore, final MappedField mf, final Object entity, final EntityCache cache,
                                  final DBObject dbObject) {
-        CustomMapper selectedMapper = mapperCache.get(mf);
-        if (selectedMapper == null) {
-            selectedMapper = selectMapper(mf);
-            mapperCache.put(mf, selectedMapper);
-        }
-
-        selectedMapper.fromDBObject(datastore, dbObject, mf, entity, cache, this);
+        mf.getCustomMapper(this).fromDBObject(datastore, dbObject, mf, entity, cache, this);
     }
 
-    private CustomMapper selectMapper(final MappedField mf) {
+    CustomMapper selectMapper(final MappedField mf) {
         CustomMapper mapper;
         if (mf.hasAnnotation(Property.class) || mf.hasAnnotation(Serialized.class)
             || mf.isTypeMongoCompatible() || getConverters().hasSimpleValueConverter(mf)) {
@@ -868,33 +1018,6 @@ public class Mapper {
         return mapper;
     }
 
-    private void writeMappedField(final DBObject dbObject, final MappedField mf, final Object entity,
-                                  final Map<Object, DBObject> involvedObjects) {
-
-        //skip not saved fields.
-        if (mf.hasAnnotation(NotSaved.class)) {
-            return;
-        }
-
-        // get the annotation from the field.
-        Class<? extends Annotation> annType = getFieldAnnotation(mf);
-
-        if (Property.class.equals(annType) || Serialized.class.equals(annType) || mf.isTypeMongoCompatible()
-            || (getConverters().hasSimpleValueConverter(mf) || (getConverters().hasSimpleValueConverter(mf.getFieldValue(entity))))) {
-            opts.getValueMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else if (Reference.class.equals(annType)) {
-            opts.getReferenceMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else if (Embedded.class.equals(annType)) {
-            opts.getEmbeddedMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("No annotation was found, using default mapper " + opts.getDefaultMapper() + " for " + mf);
-            }
-            opts.getDefaultMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        }
-
-    }
-
     <T> Key<T> manualRefToKey(final String collection, final Object id) {
         return id == null ? null : new Key<T>((Class<? extends T>) getClassFromCollection(collection), collection, id);
     }
@@ -994,13 +1117,7 @@ public class Mapper {
             dbObject = mc.callLifecycleMethods(PrePersist.class, entity, dbObject, this);
         }
 
-        for (final MappedField mf : mc.getPersistenceFields()) {
-            try {
-                writeMappedField(dbObject, mf, entity, involvedObjects);
-            } catch (Exception e) {
-                throw new MappingException("Error mapping field:" + mf.getFullName(), e);
-            }
-        }
+        mc.getEncodePlan(this).encode(entity, dbObject, involvedObjects);
         if (involvedObjects != null) {
             involvedObjects.put(entity, dbObject);
         }
@@ -1026,4 +1143,45 @@ public class Mapper {
         return new Key<T>(clazz, getCollectionName(clazz), enc.encode(toDBObject(id)));
     }
 
+
+    /*
+     * The registered interceptors, which may be changed in place as before.  Every change rebuilds the index by event.
+     */
+    private final class InterceptorList extends AbstractList<EntityInterceptor> {
+        @Override
+        public EntityInterceptor get(final int index) {
+            return interceptors.get(index);
+        }
+
+        @Override
+        public int size() {
+            return interceptors.size();
+        }
+
+        @Override
+        public void add(final int index, final EntityInterceptor element) {
+            synchronized (Mapper.this) {
+                interceptors.add(index, element);
+                indexInterceptors();
+            }
+        }
+
+        @Override
+        public EntityInterceptor set(final int index, final EntityInterceptor element) {
+            synchronized (Mapper.this) {
+                final EntityInterceptor previous = interceptors.set(index, element);
+                indexInterceptors();
+                return previous;
+            }
+        }
+
+        @Override
+        public EntityInterceptor remove(final int index) {
+            synchronized (Mapper.this) {
+                final EntityInterceptor removed = interceptors.remove(index);
+                indexInterceptors();
+                return removed;
+            }
+        }
+    }
 }
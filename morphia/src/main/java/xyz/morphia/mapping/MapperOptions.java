@@ -27,12 +27,14 @@ public class MapperOptions {
     private boolean useLowerCaseCollectionNames;
     private boolean cacheClassLookups = false;
     private boolean mapSubPackages = false;
+    private boolean assignObjectIds;
     private ObjectFactory objectFactory = new DefaultCreator(this);
     private EntityCacheFactory cacheFactory = new DefaultEntityCacheFactory();
     private CustomMapper embeddedMapper = new EmbeddedMapper();
     private CustomMapper defaultMapper = embeddedMapper;
     private CustomMapper referenceMapper = new ReferenceMapper();
     private CustomMapper valueMapper = new ValueMapper();
+    private FieldAccessorFactory fieldAccessorFactory = new DefaultFieldAccessorFactory();
     private xyz.morphia.mapping.lazy.DatastoreProvider datastoreProvider = null;
 
     /**
@@ -59,6 +61,7 @@ public class MapperOptions {
         setDefaultMapper(options.getDefaultMapper());
         setReferenceMapper(options.getReferenceMapper());
         setValueMapper(options.getValueMapper());
+        setFieldAccessorFactory(options.getFieldAccessorFactory());
     }
 
     /**
@@ -114,6 +117,24 @@ public class MapperOptions {
         defaultMapper = pDefaultMapper;
     }
 
+    /**
+     * @return the factory used to create the accessors for mapped fields
+     * @since 1.5
+     */
+    public FieldAccessorFactory getFieldAccessorFactory() {
+        return fieldAccessorFactory;
+    }
+
+    /**
+     * Sets the factory used to create the accessors for mapped fields.  This only affects classes mapped after the factory is set.
+     *
+     * @param fieldAccessorFactory the factory to use
+     * @since 1.5
+     */
+    public void setFieldAccessorFactory(final FieldAccessorFactory fieldAccessorFactory) {
+        this.fieldAccessorFactory = fieldAccessorFactory;
+    }
+
     /**
      * @return the mapper to use for embedded entities
      */
@@ -295,4 +316,23 @@ public class MapperOptions {
     public void setMapSubPackages(final boolean mapSubPackages) {
         this.mapSubPackages = mapSubPackages;
     }
+
+    /**
+     * @return true if Morphia should give new entities an ObjectId before inserting them
+     * @since 1.5
+     */
+    public boolean isAssignObjectIds() {
+        return assignObjectIds;
+    }
+
+    /**
+     * Controls if Morphia generates the ObjectId of a new entity before inserting it, rather than reading the id the driver assigned back
+     * in to the entity afterwards.  The entity keeps its id even if the insert fails.
+     *
+     * @param assignObjectIds true if Morphia should give new entities an ObjectId before inserting them
+     * @since 1.5
+     */
+    public void setAssignObjectIds(final boolean assignObjectIds) {
+        this.assignObjectIds = assignObjectIds;
+    }
 }
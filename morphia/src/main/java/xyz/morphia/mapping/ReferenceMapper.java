@@ -10,6 +10,7 @@ import xyz.morphia.annotations.Reference;
 import xyz.morphia.logging.Logger;
 import xyz.morphia.logging.MorphiaLoggerFactory;
 import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.mapping.cache.SharedEntityCache;
 import xyz.morphia.mapping.lazy.LazyFeatureDependencies;
 import xyz.morphia.mapping.lazy.proxy.ProxiedEntityReference;
 import xyz.morphia.mapping.lazy.proxy.ProxiedEntityReferenceList;
@@ -95,20 +96,16 @@ class ReferenceMapper implements CustomMapper {
     }
 
     private Key<?> getKey(final Object entity, final Mapper mapper) {
-        try {
-            if (entity instanceof ProxiedEntityReference) {
-                final ProxiedEntityReference proxy = (ProxiedEntityReference) entity;
-                return proxy.__getKey();
-            }
-            final MappedClass mappedClass = mapper.getMappedClass(entity);
-            Object id = mappedClass.getIdField().get(entity);
-            if (id == null) {
-                throw new MappingException("@Id field cannot be null!");
-            }
-            return new Key(mappedClass.getClazz(), mappedClass.getCollectionName(), id);
-        } catch (IllegalAccessException iae) {
-            throw new RuntimeException(iae);
+        if (entity instanceof ProxiedEntityReference) {
+            final ProxiedEntityReference proxy = (ProxiedEntityReference) entity;
+            return proxy.__getKey();
+        }
+        final MappedClass mappedClass = mapper.getMappedClass(entity);
+        Object id = mappedClass.getMappedIdField().getFieldValue(entity);
+        if (id == null) {
+            throw new MappingException("@Id field cannot be null!");
         }
+        return new Key(mappedClass.getClazz(), mappedClass.getCollectionName(), id);
     }
 
     private void readCollection(final Datastore datastore, final Mapper mapper, final DBObject dbObject, final MappedField mf,
@@ -309,26 +306,32 @@ class ReferenceMapper implements CustomMapper {
             return cached;
         }
 
-        final DBObject refDbObject;
-        DBCollection collection;
-        Object id;
+        DBObject refDbObject = null;
+        // a reference already looked for in a batch and not found
+        if (!Boolean.FALSE.equals(cache.exists(key))) {
+            DBCollection collection;
+            Object id;
 
-        if (idOnly) {
-            collection = datastore.getCollection(key.getType());
-            id = ref;
-        } else {
-            collection = datastore.getDB().getCollection(dbRef.getCollectionName());
-            id = dbRef.getId();
-        }
-        if (id instanceof DBObject) {
-            ((DBObject) id).removeField(Mapper.CLASS_NAME_FIELDNAME);
+            if (idOnly) {
+                collection = datastore.getCollection(key.getType());
+                id = ref;
+            } else {
+                collection = datastore.getDB().getCollection(dbRef.getCollectionName());
+                id = dbRef.getId();
+            }
+            if (id instanceof DBObject) {
+                ((DBObject) id).removeField(Mapper.CLASS_NAME_FIELDNAME);
+            }
+            refDbObject = collection.findOne(id);
         }
-        refDbObject = collection.findOne(id);
 
         if (refDbObject != null) {
             Object refObj = mapper.getOptions().getObjectFactory().createInstance(mapper, mf, refDbObject);
             refObj = mapper.fromDb(datastore, refDbObject, refObj, cache);
             cache.putEntity(key, refObj);
+            if (cache instanceof SharedEntityCache) {
+                ((SharedEntityCache) cache).publish(key, refObj, refDbObject);
+            }
             return refObj;
         }
 
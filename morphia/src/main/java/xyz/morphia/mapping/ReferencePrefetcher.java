@@ -0,0 +1,188 @@
+package xyz.morphia.mapping;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+import xyz.morphia.Datastore;
+import xyz.morphia.Key;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.mapping.cache.SharedEntityCache;
+import xyz.morphia.mapping.lazy.LazyFeatureDependencies;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static xyz.morphia.mapping.Mapper.CLASS_NAME_FIELDNAME;
+import static xyz.morphia.mapping.Mapper.ID_KEY;
+
+
+/**
+ * Loads the eager references of a batch of documents with one query per referenced collection, and puts them in the EntityCache where
+ * decoding the documents will find them.  The references of the loaded documents are loaded in turn, a level at a time.  References which
+ * could not be found are recorded in the cache as missing so they are not looked up again.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+final class ReferencePrefetcher {
+    private final Datastore datastore;
+    private final Mapper mapper;
+    private final EntityCache cache;
+    private final Set<Key> seen = new HashSet<Key>();
+    private Map<String, Batch> pending = new LinkedHashMap<String, Batch>();
+
+    ReferencePrefetcher(final Datastore datastore, final Mapper mapper, final EntityCache cache) {
+        this.datastore = datastore;
+        this.mapper = mapper;
+        this.cache = cache;
+    }
+
+    void prefetch(final MappedClass mc, final Iterable<DBObject> dbObjects) {
+        for (final DBObject dbObject : dbObjects) {
+            collect(getMappedClass(dbObject, mc), dbObject);
+        }
+
+        final List<List<Loaded>> levels = new ArrayList<List<Loaded>>();
+        while (!pending.isEmpty()) {
+            final Map<String, Batch> level = pending;
+            pending = new LinkedHashMap<String, Batch>();
+            final List<Loaded> loaded = new ArrayList<Loaded>();
+            for (final Batch batch : level.values()) {
+                batch.load(loaded);
+            }
+            for (final Loaded entry : loaded) {
+                collect(getMappedClass(entry.dbObject, mapper.getMappedClass(entry.ref.type)), entry.dbObject);
+            }
+            levels.add(loaded);
+        }
+
+        // the deepest documents are decoded first, so that each level finds the references it holds in the cache
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            for (final Loaded entry : levels.get(i)) {
+                Object entity = mapper.getOptions().getObjectFactory().createInstance(mapper, entry.ref.mf, entry.dbObject);
+                entity = mapper.fromDb(datastore, entry.dbObject, entity, cache);
+                cache.putEntity(entry.ref.key, entity);
+                if (cache instanceof SharedEntityCache) {
+                    ((SharedEntityCache) cache).publish(entry.ref.key, entity, entry.dbObject);
+                }
+            }
+        }
+    }
+
+    private MappedClass getMappedClass(final DBObject dbObject, final MappedClass defaultClass) {
+        final Object className = dbObject.get(CLASS_NAME_FIELDNAME);
+        final MappedClass mc = className == null ? null : mapper.getMCMap().get(className.toString());
+        return mc != null ? mc : defaultClass;
+    }
+
+    private void collect(final MappedClass mc, final DBObject dbObject) {
+        if (mc == null) {
+            return;
+        }
+        for (final MappedField mf : mc.getPersistenceFields()) {
+            final Reference refAnn = mf.getAnnotation(Reference.class);
+            if (refAnn == null || refAnn.lazy() && LazyFeatureDependencies.testDependencyFullFilled()) {
+                continue;
+            }
+            final Object dbVal = mf.getDbObjectValue(dbObject);
+            if (dbVal == null) {
+                continue;
+            }
+            if (mf.isMap()) {
+                if (dbVal instanceof DBObject) {
+                    for (final String key : ((DBObject) dbVal).keySet()) {
+                        add(mf, refAnn.idOnly(), ((DBObject) dbVal).get(key));
+                    }
+                }
+            } else if (mf.isMultipleValues() && dbVal instanceof Iterable) {
+                for (final Object ref : (Iterable) dbVal) {
+                    add(mf, refAnn.idOnly(), ref);
+                }
+            } else {
+                add(mf, refAnn.idOnly(), dbVal);
+            }
+        }
+    }
+
+    private void add(final MappedField mf, final boolean idOnly, final Object ref) {
+        if (ref == null || !idOnly && !(ref instanceof DBRef)) {
+            return;
+        }
+        final Class type = mf.isSingleValue() ? mf.getType() : mf.getSubClass();
+        Object id = idOnly ? ref : ((DBRef) ref).getId();
+        final Key key = mapper.createKey(type, id);
+        if (!seen.add(key) || cache.getEntity(key) != null) {
+            return;
+        }
+
+        final DBCollection collection = idOnly
+                                        ? datastore.getCollection(type)
+                                        : datastore.getDB().getCollection(((DBRef) ref).getCollectionName());
+        if (id instanceof DBObject) {
+            id = new BasicDBObject(((DBObject) id).toMap());
+            ((DBObject) id).removeField(CLASS_NAME_FIELDNAME);
+        }
+
+        Batch batch = pending.get(collection.getName());
+        if (batch == null) {
+            batch = new Batch(collection);
+            pending.put(collection.getName(), batch);
+        }
+        batch.refs.put(id, new Ref(key, mf, type));
+    }
+
+    private final class Batch {
+        private final DBCollection collection;
+        private final Map<Object, Ref> refs = new LinkedHashMap<Object, Ref>();
+
+        private Batch(final DBCollection collection) {
+            this.collection = collection;
+        }
+
+        private void load(final List<Loaded> loaded) {
+            final DBCursor cursor = collection.find(new BasicDBObject(ID_KEY, new BasicDBObject("$in", new ArrayList(refs.keySet()))));
+            try {
+                while (cursor.hasNext()) {
+                    final DBObject dbObject = cursor.next();
+                    final Ref ref = refs.remove(dbObject.get(ID_KEY));
+                    if (ref != null) {
+                        loaded.add(new Loaded(ref, dbObject));
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+            for (final Ref missing : refs.values()) {
+                cache.notifyExists(missing.key, false);
+            }
+        }
+    }
+
+    private static final class Ref {
+        private final Key key;
+        private final MappedField mf;
+        private final Class type;
+
+        private Ref(final Key key, final MappedField mf, final Class type) {
+            this.key = key;
+            this.mf = mf;
+            this.type = type;
+        }
+    }
+
+    private static final class Loaded {
+        private final Ref ref;
+        private final DBObject dbObject;
+
+        private Loaded(final Ref ref, final DBObject dbObject) {
+            this.ref = ref;
+            this.dbObject = dbObject;
+        }
+    }
+}
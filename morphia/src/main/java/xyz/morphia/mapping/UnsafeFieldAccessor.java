@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package xyz.morphia.mapping;
+
+import sun.misc.Unsafe;
+import xyz.morphia.logging.Logger;
+import xyz.morphia.logging.MorphiaLoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Accesses a field directly through its memory offset, skipping the access and type checks {@link Field} performs on every call.  The
+ * checks that guard the raw access (the receiver type and the value type) are done here instead; anything that does not match exactly,
+ * such as a widening primitive conversion or a bad value, is handed to reflection so callers see the same results and exceptions as
+ * before.
+ */
+final class UnsafeFieldAccessor implements FieldAccessor {
+    private static final Logger LOG = MorphiaLoggerFactory.get(UnsafeFieldAccessor.class);
+    private static final Unsafe UNSAFE = findUnsafe();
+
+    private final Class<?> declaringClass;
+    private final Class<?> type;
+    private final long offset;
+    private final ReflectiveFieldAccessor fallback;
+
+    private UnsafeFieldAccessor(final Field field) {
+        declaringClass = field.getDeclaringClass();
+        type = field.getType();
+        offset = UNSAFE.objectFieldOffset(field);
+        fallback = new ReflectiveFieldAccessor(field);
+    }
+
+    /**
+     * Creates an accessor for the field if direct access is possible for it.
+     *
+     * @param field the field to access
+     * @return the accessor or null if the field can not be accessed directly
+     */
+    static FieldAccessor create(final Field field) {
+        final int modifiers = field.getModifiers();
+        if (UNSAFE == null || Modifier.isStatic(modifiers) || Modifier.isVolatile(modifiers)) {
+            return null;
+        }
+        try {
+            return new UnsafeFieldAccessor(field);
+        } catch (RuntimeException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Falling back to reflection for " + field, e);
+            }
+            return null;
+        }
+    }
+
+    private static Unsafe findUnsafe() {
+        try {
+            final Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return (Unsafe) field.get(null);
+        } catch (Throwable e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("sun.misc.Unsafe is not available.  Fields will be accessed reflectively.", e);
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public Object get(final Object instance) {
+        if (!declaringClass.isInstance(instance)) {
+            return fallback.get(instance);
+        }
+        if (!type.isPrimitive()) {
+            return UNSAFE.getObject(instance, offset);
+        } else if (type == int.class) {
+            return UNSAFE.getInt(instance, offset);
+        } else if (type == long.class) {
+            return UNSAFE.getLong(instance, offset);
+        } else if (type == boolean.class) {
+            return UNSAFE.getBoolean(instance, offset);
+        } else if (type == double.class) {
+            return UNSAFE.getDouble(instance, offset);
+        } else if (type == float.class) {
+            return UNSAFE.getFloat(instance, offset);
+        } else if (type == short.class) {
+            return UNSAFE.getShort(instance, offset);
+        } else if (type == byte.class) {
+            return UNSAFE.getByte(instance, offset);
+        } else {
+            return UNSAFE.getChar(instance, offset);
+        }
+    }
+
+    @Override
+    public void set(final Object instance, final Object value) {
+        if (!declaringClass.isInstance(instance)) {
+            fallback.set(instance, value);
+        } else if (!type.isPrimitive()) {
+            if (value == null || type.isInstance(value)) {
+                UNSAFE.putObject(instance, offset, value);
+            } else {
+                fallback.set(instance, value);
+            }
+        } else if (type == int.class && value instanceof Integer) {
+            UNSAFE.putInt(instance, offset, (Integer) value);
+        } else if (type == long.class && value instanceof Long) {
+            UNSAFE.putLong(instance, offset, (Long) value);
+        } else if (type == boolean.class && value instanceof Boolean) {
+            UNSAFE.putBoolean(instance, offset, (Boolean) value);
+        } else if (type == double.class && value instanceof Double) {
+            UNSAFE.putDouble(instance, offset, (Double) value);
+        } else if (type == float.class && value instanceof Float) {
+            UNSAFE.putFloat(instance, offset, (Float) value);
+        } else if (type == short.class && value instanceof Short) {
+            UNSAFE.putShort(instance, offset, (Short) value);
+        } else if (type == byte.class && value instanceof Byte) {
+            UNSAFE.putByte(instance, offset, (Byte) value);
+        } else if (type == char.class && value instanceof Character) {
+            UNSAFE.putChar(instance, offset, (Character) value);
+        } else {
+            // nulls and widening conversions
+            fallback.set(instance, value);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package xyz.morphia.mapping.cache;
+
+
+import relocated.morphia.org.apache.commons.collections.ReferenceMap;
+import xyz.morphia.Key;
+import xyz.morphia.mapping.lazy.LazyFeatureDependencies;
+import xyz.morphia.mapping.lazy.proxy.ProxyHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * An EntityCache which may be used from several threads at once, such as by lazy proxies resolved on threads other than the one which ran
+ * the query.  Like the {@link DefaultEntityCache} it holds its entities and proxies weakly.  The keys are spread over a number of stripes,
+ * each with its own lock, so that threads working on different keys seldom wait for each other.
+ * <p>
+ * As well as the totals, the statistics are kept for each entity type, and are found with {@link #stats(Class)}.
+ *
+ * @see ConcurrentEntityCacheFactory
+ * @since 1.5
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class ConcurrentEntityCache implements EntityCache {
+    /**
+     * The default number of stripes
+     */
+    public static final int DEFAULT_STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final EntityCacheStatistics stats = new EntityCacheStatistics();
+    private final ConcurrentMap<Class, EntityCacheStatistics> typeStats = new ConcurrentHashMap<Class, EntityCacheStatistics>();
+
+    /**
+     * Creates a cache with the default number of stripes
+     */
+    public ConcurrentEntityCache() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a cache with at least the given number of stripes, rounded up to a power of two
+     *
+     * @param stripes the number of stripes
+     */
+    public ConcurrentEntityCache(final int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("The cache needs at least one stripe");
+        }
+        int count = 1;
+        while (count < stripes) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public Boolean exists(final Key<?> k) {
+        final Stripe stripe = stripeFor(k);
+        final Boolean b;
+        synchronized (stripe) {
+            b = stripe.entityMap.containsKey(k) ? Boolean.TRUE : stripe.existenceMap.get(k);
+        }
+        record(k, b != null);
+        return b;
+    }
+
+    @Override
+    public void flush() {
+        for (final Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.entityMap.clear();
+                stripe.existenceMap.clear();
+                stripe.proxyMap.clear();
+            }
+        }
+        stats.reset();
+        typeStats.clear();
+    }
+
+    @Override
+    public <T> T getEntity(final Key<T> k) {
+        final Stripe stripe = stripeFor(k);
+        Object o;
+        Object proxy = null;
+        synchronized (stripe) {
+            o = stripe.entityMap.get(k);
+            if (o == null && LazyFeatureDependencies.testDependencyFullFilled()) {
+                proxy = stripe.proxyMap.get(k);
+            }
+        }
+        if (proxy != null) {
+            o = ProxyHelper.unwrap(proxy);
+        }
+        record(k, o != null);
+        return (T) o;
+    }
+
+    @Override
+    public <T> T getProxy(final Key<T> k) {
+        final Stripe stripe = stripeFor(k);
+        final Object o;
+        synchronized (stripe) {
+            o = stripe.proxyMap.get(k);
+        }
+        record(k, o != null);
+        return (T) o;
+    }
+
+    @Override
+    public void notifyExists(final Key<?> k, final boolean exists) {
+        final Stripe stripe = stripeFor(k);
+        final Boolean put;
+        synchronized (stripe) {
+            put = stripe.existenceMap.put(k, exists);
+        }
+        if (put == null || !put) {
+            countEntity(k);
+        }
+    }
+
+    @Override
+    public <T> void putEntity(final Key<T> k, final T t) {
+        final Stripe stripe = stripeFor(k);
+        final Boolean put;
+        synchronized (stripe) {
+            put = stripe.existenceMap.put(k, true);
+            stripe.entityMap.put(k, t);
+        }
+        if (put == null || !put) {
+            countEntity(k);
+        }
+    }
+
+    @Override
+    public <T> void putProxy(final Key<T> k, final T t) {
+        final Stripe stripe = stripeFor(k);
+        synchronized (stripe) {
+            stripe.proxyMap.put(k, t);
+        }
+        countEntity(k);
+    }
+
+    @Override
+    public EntityCacheStatistics stats() {
+        return stats.copy();
+    }
+
+    /**
+     * Returns the statistics for the keys of one entity type.  Keys which only name a collection are counted in the totals alone.
+     *
+     * @param type the entity type
+     * @return the stats for the type, which are all 0 if it has not been seen
+     */
+    public EntityCacheStatistics stats(final Class<?> type) {
+        final EntityCacheStatistics found = typeStats.get(type);
+        return found == null ? new EntityCacheStatistics() : found.copy();
+    }
+
+    /**
+     * @return the statistics of every entity type seen
+     */
+    public Map<Class<?>, EntityCacheStatistics> getTypeStats() {
+        final Map<Class<?>, EntityCacheStatistics> copy = new HashMap<Class<?>, EntityCacheStatistics>();
+        for (final Map.Entry<Class, EntityCacheStatistics> entry : typeStats.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copy;
+    }
+
+    private Stripe stripeFor(final Key<?> k) {
+        int h = k.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    private void record(final Key<?> k, final boolean hit) {
+        final EntityCacheStatistics forType = statsFor(k);
+        if (hit) {
+            stats.incHits();
+            if (forType != null) {
+                forType.incHits();
+            }
+        } else {
+            stats.incMisses();
+            if (forType != null) {
+                forType.incMisses();
+            }
+        }
+    }
+
+    private void countEntity(final Key<?> k) {
+        stats.incEntities();
+        final EntityCacheStatistics forType = statsFor(k);
+        if (forType != null) {
+            forType.incEntities();
+        }
+    }
+
+    private EntityCacheStatistics statsFor(final Key<?> k) {
+        final Class<?> type = k.getType();
+        if (type == null) {
+            return null;
+        }
+        EntityCacheStatistics found = typeStats.get(type);
+        if (found == null) {
+            final EntityCacheStatistics created = new EntityCacheStatistics();
+            found = typeStats.putIfAbsent(type, created);
+            if (found == null) {
+                found = created;
+            }
+        }
+        return found;
+    }
+
+    private static final class Stripe {
+        private final Map entityMap = new ReferenceMap(ReferenceMap.HARD, ReferenceMap.WEAK);
+        private final Map proxyMap = new ReferenceMap(ReferenceMap.WEAK, ReferenceMap.WEAK);
+        private final Map<Key, Boolean> existenceMap = new HashMap<Key, Boolean>();
+    }
+}
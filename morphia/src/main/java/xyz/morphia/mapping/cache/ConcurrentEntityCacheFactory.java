@@ -0,0 +1,39 @@
+package xyz.morphia.mapping.cache;
+
+/**
+ * A cache factory returning {@link ConcurrentEntityCache}s, for when the entities loaded by a query may be resolved on other threads.
+ *
+ * @since 1.5
+ */
+public class ConcurrentEntityCacheFactory implements EntityCacheFactory {
+    private final int stripes;
+
+    /**
+     * Creates a factory whose caches have the default number of stripes
+     */
+    public ConcurrentEntityCacheFactory() {
+        this(ConcurrentEntityCache.DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a factory whose caches have the given number of stripes
+     *
+     * @param stripes the number of stripes, rounded up to a power of two
+     */
+    public ConcurrentEntityCacheFactory(final int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("The cache needs at least one stripe");
+        }
+        this.stripes = stripes;
+    }
+
+    /**
+     * Creates a new ConcurrentEntityCache
+     *
+     * @return the cache
+     */
+    @Override
+    public EntityCache createCache() {
+        return new ConcurrentEntityCache(stripes);
+    }
+}
@@ -1,13 +1,16 @@
 package xyz.morphia.mapping.cache;
 
 
+import java.util.concurrent.atomic.AtomicLong;
+
+
 /**
- * This class stores various statistics on an EntityCache
+ * This class stores various statistics on an EntityCache.  The counts may be updated and read from any thread.
  */
 public class EntityCacheStatistics {
-    private int entities;
-    private int hits;
-    private int misses;
+    private final AtomicLong entities = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
 
     /**
      * Copies the statistics
@@ -16,40 +19,64 @@ public class EntityCacheStatistics {
      */
     public EntityCacheStatistics copy() {
         final EntityCacheStatistics copy = new EntityCacheStatistics();
-        copy.entities = entities;
-        copy.hits = hits;
-        copy.misses = misses;
+        copy.entities.set(entities.get());
+        copy.hits.set(hits.get());
+        copy.misses.set(misses.get());
         return copy;
     }
 
+    /**
+     * @return the number of entities added to the cache
+     * @since 1.5
+     */
+    public long getEntities() {
+        return entities.get();
+    }
+
+    /**
+     * @return the number of lookups which found what they were looking for
+     * @since 1.5
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which found nothing
+     * @since 1.5
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
     /**
      * Increments the entity count
      */
     public void incEntities() {
-        entities++;
+        entities.incrementAndGet();
     }
 
     /**
      * Increments the hit count
      */
     public void incHits() {
-        hits++;
+        hits.incrementAndGet();
     }
 
     /**
      * Increments the miss count
      */
     public void incMisses() {
-        misses++;
+        misses.incrementAndGet();
     }
 
     /**
      * Clears the statistics
      */
     public void reset() {
-        entities = 0;
-        hits = 0;
-        misses = 0;
+        entities.set(0);
+        hits.set(0);
+        misses.set(0);
     }
 
     @Override
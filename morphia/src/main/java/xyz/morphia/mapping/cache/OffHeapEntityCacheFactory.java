@@ -0,0 +1,360 @@
+package xyz.morphia.mapping.cache;
+
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBEncoder;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import com.mongodb.DefaultDBEncoder;
+import org.bson.io.BasicOutputBuffer;
+import xyz.morphia.Datastore;
+import xyz.morphia.Key;
+import xyz.morphia.mapping.Mapper;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * A {@link SharedEntityCacheFactory} which keeps the documents of the shared entities as raw BSON outside of the Java heap, rather than
+ * the entities themselves.  An entity found in the cache is mapped afresh from its document, so every query gets its own instance, and a
+ * large cache adds nothing to the work of the garbage collector.
+ * <p>
+ * Documents are kept in direct buffers, which are allocated a page at a time up to the capacity given, and cut up in to chunks of a range
+ * of sizes.  A document is put in the smallest chunk it fits, and documents larger than a page are not kept.  Once every page is in use,
+ * a new document takes the place of one of the same size which has not been read recently.  The capacity counts against the JVM's limit
+ * on direct memory, set with {@code -XX:MaxDirectMemorySize}.
+ *
+ * <pre>
+ * morphia.getMapper().getOptions().setCacheFactory(new OffHeapEntityCacheFactory(datastore, morphia.getMapper(), 256 * 1024 * 1024,
+ *                                                                                5, TimeUnit.MINUTES)
+ *                                                      .cache(Country.class, Currency.class));
+ * </pre>
+ *
+ * @since 1.5
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class OffHeapEntityCacheFactory extends SharedEntityCacheFactory {
+    /**
+     * The default size of the buffers allocated
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+    private static final int SMALLEST_CHUNK = 64;
+    private static final double GROWTH_FACTOR = 1.25;
+
+    private final OffHeapStore store;
+
+    /**
+     * Creates a factory keeping documents in up to the given number of bytes, each for at most the given time.
+     *
+     * @param datastore  the Datastore to load the references of the cached entities with
+     * @param mapper     the Mapper to map the cached documents with
+     * @param capacity   the most memory to allocate for documents
+     * @param timeToLive how long an entity is shared for, or 0 to share it until it is invalidated or dropped
+     * @param unit       the unit of timeToLive
+     */
+    public OffHeapEntityCacheFactory(final Datastore datastore, final Mapper mapper, final long capacity, final long timeToLive,
+                                     final TimeUnit unit) {
+        this(datastore, mapper, capacity, DEFAULT_PAGE_SIZE, timeToLive, unit);
+    }
+
+    /**
+     * Creates a factory keeping documents in up to the given number of bytes, each for at most the given time.
+     *
+     * @param datastore  the Datastore to load the references of the cached entities with
+     * @param mapper     the Mapper to map the cached documents with
+     * @param capacity   the most memory to allocate for documents
+     * @param pageSize   the size of each buffer allocated, which is also the size of the largest document kept
+     * @param timeToLive how long an entity is shared for, or 0 to share it until it is invalidated or dropped
+     * @param unit       the unit of timeToLive
+     */
+    public OffHeapEntityCacheFactory(final Datastore datastore, final Mapper mapper, final long capacity, final int pageSize,
+                                     final long timeToLive, final TimeUnit unit) {
+        this(new OffHeapStore(datastore, mapper, capacity, pageSize, timeToLive, unit));
+    }
+
+    private OffHeapEntityCacheFactory(final OffHeapStore store) {
+        super(store);
+        this.store = store;
+    }
+
+    /**
+     * @return the memory allocated for documents so far, in bytes
+     */
+    public long getAllocated() {
+        return store.getAllocated();
+    }
+
+    /*
+     * Keeps the documents in pages of direct memory, cut up in to size classes.
+     */
+    private static final class OffHeapStore extends Store {
+        private final Datastore datastore;
+        private final Mapper mapper;
+        private final int pageSize;
+        private final int maxPages;
+        private final long timeToLive;
+        private final AtomicInteger pages = new AtomicInteger();
+        private final SizeClass[] sizeClasses;
+        private final ConcurrentMap<Key, Slot> index = new ConcurrentHashMap<Key, Slot>();
+
+        private OffHeapStore(final Datastore datastore, final Mapper mapper, final long capacity, final int pageSize,
+                             final long timeToLive, final TimeUnit unit) {
+            if (timeToLive < 0) {
+                throw new IllegalArgumentException("The time to live can not be negative");
+            }
+            if (pageSize < SMALLEST_CHUNK) {
+                throw new IllegalArgumentException("The page size must be at least " + SMALLEST_CHUNK + " bytes");
+            }
+            if (capacity < pageSize) {
+                throw new IllegalArgumentException("The capacity must be at least one page");
+            }
+            this.datastore = datastore;
+            this.mapper = mapper;
+            this.pageSize = pageSize;
+            this.timeToLive = unit.toNanos(timeToLive);
+            maxPages = (int) Math.min(Integer.MAX_VALUE, capacity / pageSize);
+
+            final List<SizeClass> classes = new ArrayList<SizeClass>();
+            int chunkSize = SMALLEST_CHUNK;
+            while (chunkSize < pageSize / 2) {
+                classes.add(new SizeClass(chunkSize));
+                chunkSize = Math.max(chunkSize + 8, (int) (chunkSize * GROWTH_FACTOR + 7) & ~7);
+            }
+            classes.add(new SizeClass(pageSize));
+            sizeClasses = classes.toArray(new SizeClass[classes.size()]);
+        }
+
+        @Override
+        void clear() {
+            for (final Key key : index.keySet()) {
+                final Slot slot = index.remove(key);
+                if (slot != null) {
+                    slot.owner.release(slot);
+                }
+            }
+        }
+
+        @Override
+        int size() {
+            return index.size();
+        }
+
+        private long getAllocated() {
+            return (long) pages.get() * pageSize;
+        }
+
+        @Override
+        <T> T get(final Key<T> key, final SharedEntityCache cache) {
+            final Slot slot = index.get(key);
+            if (slot == null) {
+                return null;
+            }
+            if (isStale(key, slot.stamp) || isExpired(slot.expiresAt)) {
+                remove(key, slot);
+                return null;
+            }
+            final byte[] bytes = slot.owner.read(slot);
+            if (bytes == null) {
+                // its chunk was taken before it was indexed
+                index.remove(key, slot);
+                return null;
+            }
+            final DBObject document = DefaultDBDecoder.FACTORY.create().decode(bytes, (DBCollection) null);
+            return mapper.fromDBObject(datastore, (Class<T>) key.getType(), document, cache);
+        }
+
+        @Override
+        boolean contains(final Key<?> key) {
+            final Slot slot = index.get(key);
+            return slot != null && !isStale(key, slot.stamp) && !isExpired(slot.expiresAt);
+        }
+
+        @Override
+        <T> void put(final Key<T> key, final T entity, final DBObject document, final long stamp) {
+            if (document == null || isStale(key, stamp)) {
+                return;
+            }
+            final DBEncoder encoder = DefaultDBEncoder.FACTORY.create();
+            final BasicOutputBuffer buffer = new BasicOutputBuffer();
+            encoder.writeObject(buffer, document);
+            if (buffer.getSize() > pageSize) {
+                return;
+            }
+            final byte[] bytes = buffer.toByteArray();
+
+            final Slot slot = sizeClassFor(bytes.length).store(key, bytes, stamp, expiry());
+            if (slot == null) {
+                return;
+            }
+            final Slot previous = index.put(key, slot);
+            if (previous != null) {
+                previous.owner.release(previous);
+            }
+            // checked again as a write may have come in while the document was being put
+            if (isStale(key, stamp)) {
+                remove(key, slot);
+            }
+        }
+
+        private void remove(final Key key, final Slot slot) {
+            if (index.remove(key, slot)) {
+                slot.owner.release(slot);
+            }
+        }
+
+        private boolean isStale(final Key<?> key, final long stamp) {
+            return writes.isStale(key.getCollection(), stamp);
+        }
+
+        private boolean isExpired(final long expiresAt) {
+            return timeToLive > 0 && System.nanoTime() - expiresAt > 0;
+        }
+
+        private long expiry() {
+            return timeToLive > 0 ? System.nanoTime() + timeToLive : 0;
+        }
+
+        private SizeClass sizeClassFor(final int length) {
+            int low = 0;
+            int high = sizeClasses.length - 1;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (sizeClasses[mid].chunkSize < length) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return sizeClasses[low];
+        }
+
+        /*
+         * The chunks of one size, in the pages given to this size.  A chunk is taken from those released, then from those never used,
+         * then from a new page while there are pages left, and then from the first document passed over by the clock hand which has not
+         * been read since the hand last passed it.
+         */
+        private final class SizeClass {
+            private final int chunkSize;
+            private final int chunksPerPage;
+            private final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+            private Slot[] slots = new Slot[0];
+            private int[] free = new int[0];
+            private int freeCount;
+            private int next;
+            private int hand;
+
+            private SizeClass(final int chunkSize) {
+                this.chunkSize = chunkSize;
+                chunksPerPage = pageSize / chunkSize;
+            }
+
+            private synchronized Slot store(final Key key, final byte[] bytes, final long stamp, final long expiresAt) {
+                final int chunk = allocate();
+                if (chunk < 0) {
+                    return null;
+                }
+                final ByteBuffer buffer = buffers.get(chunk / chunksPerPage).duplicate();
+                buffer.position(chunk % chunksPerPage * chunkSize);
+                buffer.put(bytes);
+
+                final Slot slot = new Slot(this, chunk, key, bytes.length, stamp, expiresAt);
+                slots[chunk] = slot;
+                return slot;
+            }
+
+            private synchronized byte[] read(final Slot slot) {
+                if (slots[slot.chunk] != slot) {
+                    return null;
+                }
+                slot.referenced = true;
+                final ByteBuffer buffer = buffers.get(slot.chunk / chunksPerPage).duplicate();
+                buffer.position(slot.chunk % chunksPerPage * chunkSize);
+                final byte[] bytes = new byte[slot.length];
+                buffer.get(bytes);
+                return bytes;
+            }
+
+            private synchronized void release(final Slot slot) {
+                if (slots[slot.chunk] == slot) {
+                    slots[slot.chunk] = null;
+                    free[freeCount++] = slot.chunk;
+                }
+            }
+
+            private int allocate() {
+                if (freeCount > 0) {
+                    return free[--freeCount];
+                }
+                if (next == slots.length && !addPage()) {
+                    return evict();
+                }
+                return next++;
+            }
+
+            private boolean addPage() {
+                int allocated = pages.get();
+                do {
+                    if (allocated >= maxPages) {
+                        return false;
+                    }
+                } while (!pages.compareAndSet(allocated, allocated + 1));
+
+                buffers.add(ByteBuffer.allocateDirect(pageSize));
+                final int chunks = buffers.size() * chunksPerPage;
+                final Slot[] grownSlots = new Slot[chunks];
+                System.arraycopy(slots, 0, grownSlots, 0, slots.length);
+                slots = grownSlots;
+                free = new int[chunks];
+                return true;
+            }
+
+            private int evict() {
+                if (next == 0) {
+                    return -1;
+                }
+                // every document is passed over at most twice: once to clear its reference and once to evict it
+                for (int i = 0; i <= 2 * next; i++) {
+                    final int chunk = hand;
+                    hand = (hand + 1) % next;
+                    final Slot slot = slots[chunk];
+                    if (slot == null) {
+                        return chunk;
+                    }
+                    if (slot.referenced) {
+                        slot.referenced = false;
+                    } else {
+                        slots[chunk] = null;
+                        index.remove(slot.key, slot);
+                        return chunk;
+                    }
+                }
+                return -1;
+            }
+        }
+
+        private static final class Slot {
+            private final SizeClass owner;
+            private final int chunk;
+            private final Key key;
+            private final int length;
+            private final long stamp;
+            private final long expiresAt;
+            private volatile boolean referenced;
+
+            private Slot(final SizeClass owner, final int chunk, final Key key, final int length, final long stamp, final long expiresAt) {
+                this.owner = owner;
+                this.chunk = chunk;
+                this.key = key;
+                this.length = length;
+                this.stamp = stamp;
+                this.expiresAt = expiresAt;
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package xyz.morphia.mapping.cache;
+
+
+import com.mongodb.DBObject;
+import xyz.morphia.Key;
+
+import java.util.HashSet;
+import java.util.Set;
+
+
+/**
+ * The cache of one query when using a {@link SharedEntityCacheFactory}.  Entities are looked for among those loaded by the query, then
+ * among the shared ones.  An entity is only shared once it is published, as the entities put in a cache may be partly loaded or loaded
+ * through a projection.
+ *
+ * @since 1.5
+ */
+public class SharedEntityCache implements EntityCache {
+    private final SharedEntityCacheFactory factory;
+    private final long stamp;
+    private final EntityCache local = new DefaultEntityCache();
+    private final Set<Key<?>> loading = new HashSet<Key<?>>();
+
+    SharedEntityCache(final SharedEntityCacheFactory factory, final long stamp) {
+        this.factory = factory;
+        this.stamp = stamp;
+    }
+
+    /**
+     * Shares an entity loaded in full by this cache's query, if its type is one the factory shares.  Nothing is shared if the entity's
+     * collection has been written to since this cache was created.
+     *
+     * @param k   the Key of the entity
+     * @param t   the entity
+     * @param <T> the type of the entity
+     */
+    public <T> void publish(final Key<T> k, final T t) {
+        publish(k, t, null);
+    }
+
+    /**
+     * Shares an entity loaded in full by this cache's query, if its type is one the factory shares.  Nothing is shared if the entity's
+     * collection has been written to since this cache was created.
+     *
+     * @param k        the Key of the entity
+     * @param t        the entity
+     * @param document the document the entity was loaded from, which factories keeping documents rather than entities need
+     * @param <T>      the type of the entity
+     * @see OffHeapEntityCacheFactory
+     */
+    public <T> void publish(final Key<T> k, final T t, final DBObject document) {
+        if (t != null && factory.isCached(k)) {
+            factory.put(k, t, document, stamp);
+        }
+    }
+
+    @Override
+    public Boolean exists(final Key<?> k) {
+        final Boolean exists = local.exists(k);
+        if (exists == null && factory.isCached(k) && factory.contains(k)) {
+            return true;
+        }
+        return exists;
+    }
+
+    @Override
+    public void flush() {
+        local.flush();
+    }
+
+    @Override
+    public <T> T getEntity(final Key<T> k) {
+        T entity = local.getEntity(k);
+        // a shared entity being loaded from a document looks itself up as it is decoded
+        if (entity == null && factory.isCached(k) && loading.add(k)) {
+            try {
+                entity = factory.get(k, this);
+            } finally {
+                loading.remove(k);
+            }
+            if (entity != null) {
+                local.putEntity(k, entity);
+            }
+        }
+        return entity;
+    }
+
+    @Override
+    public <T> T getProxy(final Key<T> k) {
+        return local.getProxy(k);
+    }
+
+    @Override
+    public void notifyExists(final Key<?> k, final boolean exists) {
+        local.notifyExists(k, exists);
+    }
+
+    @Override
+    public <T> void putEntity(final Key<T> k, final T t) {
+        local.putEntity(k, t);
+    }
+
+    @Override
+    public <T> void putProxy(final Key<T> k, final T t) {
+        local.putProxy(k, t);
+    }
+
+    @Override
+    public EntityCacheStatistics stats() {
+        return local.stats();
+    }
+}
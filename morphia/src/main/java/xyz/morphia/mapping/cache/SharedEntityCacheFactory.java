@@ -0,0 +1,192 @@
+package xyz.morphia.mapping.cache;
+
+
+import com.mongodb.DBObject;
+import xyz.morphia.Key;
+import xyz.morphia.internal.BoundedCache;
+import xyz.morphia.internal.WriteClock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A cache factory whose caches share the entities of chosen types between queries, so that loading one of them again by its key, as a
+ * reference or through {@code Datastore.get}, need not go to the server.  Writes through a Datastore using this factory invalidate every
+ * shared entity of the collection written to.  Writes made any other way are only seen once an entity expires.
+ * <p>
+ * Shared entities are handed to every query which loads them, so they should be treated as read only.  Keys do not include the database,
+ * so a factory should only serve one database.
+ *
+ * <pre>
+ * morphia.getMapper().getOptions().setCacheFactory(new SharedEntityCacheFactory(10000, 5, TimeUnit.MINUTES)
+ *                                                      .cache(Country.class, Currency.class));
+ * </pre>
+ *
+ * @since 1.5
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SharedEntityCacheFactory implements EntityCacheFactory {
+    private final Store store;
+    private final CopyOnWriteArraySet<Class> types = new CopyOnWriteArraySet<Class>();
+    private final ConcurrentMap<String, Boolean> cachedTypes = new ConcurrentHashMap<String, Boolean>();
+
+    /**
+     * Creates a factory sharing at most the given number of entities, each for at most the given time.
+     *
+     * @param maxSize    the largest number of entities to share.  The oldest are dropped first.
+     * @param timeToLive how long an entity is shared for, or 0 to share it until it is invalidated or dropped
+     * @param unit       the unit of timeToLive
+     */
+    public SharedEntityCacheFactory(final int maxSize, final long timeToLive, final TimeUnit unit) {
+        this(new HeapStore(maxSize, timeToLive, unit));
+    }
+
+    /*
+     * For factories which keep the shared entities some other way.
+     */
+    SharedEntityCacheFactory(final Store store) {
+        this.store = store;
+    }
+
+    /**
+     * Shares the entities of the given types, and their subtypes.  No types are shared until they are named here.
+     *
+     * @param entityTypes the types to share
+     * @return this
+     */
+    public SharedEntityCacheFactory cache(final Class<?>... entityTypes) {
+        for (final Class<?> type : entityTypes) {
+            types.add(type);
+        }
+        cachedTypes.clear();
+        return this;
+    }
+
+    /**
+     * Creates a cache for one query, which finds the shared entities as well as those loaded by the query.
+     *
+     * @return the cache
+     */
+    @Override
+    public EntityCache createCache() {
+        return new SharedEntityCache(this, store.writes.stamp());
+    }
+
+    /**
+     * Drops the shared entities of a collection.  This is called after every write to the collection by a Datastore.
+     *
+     * @param collection the collection name
+     */
+    public void invalidate(final String collection) {
+        store.writes.invalidate(collection);
+    }
+
+    /**
+     * Drops every shared entity.
+     */
+    public void clear() {
+        store.clear();
+    }
+
+    /**
+     * @return the number of entities currently shared, some of which may have expired
+     */
+    public int size() {
+        return store.size();
+    }
+
+    boolean isCached(final Key<?> key) {
+        final Class<?> type = key.getType();
+        if (type == null || key.getCollection() == null || types.isEmpty()) {
+            return false;
+        }
+        Boolean cached = cachedTypes.get(type.getName());
+        if (cached == null) {
+            cached = false;
+            for (final Class shared : types) {
+                if (shared.isAssignableFrom(type)) {
+                    cached = true;
+                    break;
+                }
+            }
+            cachedTypes.put(type.getName(), cached);
+        }
+        return cached;
+    }
+
+    /*
+     * Finds a shared entity for the given query cache, which any entities it refers to may be loaded in to.
+     */
+    <T> T get(final Key<T> key, final SharedEntityCache cache) {
+        return store.get(key, cache);
+    }
+
+    boolean contains(final Key<?> key) {
+        return store.contains(key);
+    }
+
+    /*
+     * Shares an entity loaded by a cache created at the given stamp, unless its collection has been written to since.  An entity read
+     * before a write could otherwise be shared after it.  The document the entity was loaded from is given if it is known.
+     */
+    <T> void put(final Key<T> key, final T entity, final DBObject document, final long stamp) {
+        store.put(key, entity, document, stamp);
+    }
+
+    /*
+     * Where the shared entities are kept.  The stamps of the factory's caches come from the store's clock, which each write invalidates,
+     * so a store drops what was read under a stamp its collection has been written to since.
+     */
+    abstract static class Store {
+        final WriteClock writes = new WriteClock();
+
+        abstract <T> T get(Key<T> key, SharedEntityCache cache);
+
+        abstract boolean contains(Key<?> key);
+
+        abstract <T> void put(Key<T> key, T entity, DBObject document, long stamp);
+
+        abstract void clear();
+
+        abstract int size();
+    }
+
+    private static final class HeapStore extends Store {
+        private final BoundedCache<Key, Object> entities;
+
+        private HeapStore(final int maxSize, final long timeToLive, final TimeUnit unit) {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("The cache must hold at least one entity");
+            }
+            entities = new BoundedCache<Key, Object>(maxSize, timeToLive, unit, writes);
+        }
+
+        @Override
+        <T> T get(final Key<T> key, final SharedEntityCache cache) {
+            return (T) entities.get(key);
+        }
+
+        @Override
+        boolean contains(final Key<?> key) {
+            return entities.contains(key);
+        }
+
+        @Override
+        <T> void put(final Key<T> key, final T entity, final DBObject document, final long stamp) {
+            entities.put(key, key.getCollection(), entity, 1, stamp);
+        }
+
+        @Override
+        void clear() {
+            entities.clear();
+        }
+
+        @Override
+        int size() {
+            return entities.size();
+        }
+    }
+}
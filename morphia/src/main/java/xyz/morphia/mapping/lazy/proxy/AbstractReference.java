@@ -1,13 +1,23 @@
 package xyz.morphia.mapping.lazy.proxy;
 
 
+import com.mongodb.DBObject;
+import com.mongodb.client.MongoCursor;
 import com.thoughtworks.proxy.kit.ObjectReference;
 import xyz.morphia.Datastore;
 import xyz.morphia.Key;
+import xyz.morphia.mapping.Mapper;
+import xyz.morphia.query.Query;
 
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -17,6 +27,7 @@ import java.io.Serializable;
 public abstract class AbstractReference implements Serializable, ObjectReference, ProxiedReference {
 
     private static final long serialVersionUID = 1L;
+    private static final int FETCH_BATCH_SIZE = 1000;
     //CHECKSTYLE:OFF
     private final Datastore datastore;
     protected final boolean ignoreMissing;
@@ -76,6 +87,57 @@ public abstract class AbstractReference implements Serializable, ObjectReference
         return getDatastore().getByKey(referenceObjClass, id);
     }
 
+    /**
+     * Fetches the entities for several keys with one query for each chunk of up to 1000 ids.  Keys which are not in the referenced
+     * type's collection, or which have a document as their id, are fetched one at a time.  Equal keys resolve to the same instance.
+     *
+     * @param keys the keys to fetch
+     * @return the entities found, by their keys.  Keys with no entity are left out.
+     */
+    @SuppressWarnings("unchecked")
+    protected final Map<Key<?>, Object> fetch(final Collection<Key<?>> keys) {
+        final Map<Key<?>, Object> entities = new HashMap<Key<?>, Object>();
+        final String collection = getDatastore().getCollection(referenceObjClass).getName();
+        final Map<Object, List<Key<?>>> byId = new LinkedHashMap<Object, List<Key<?>>>();
+        for (final Key<?> key : keys) {
+            if (!collection.equals(key.getCollection()) || key.getId() instanceof DBObject) {
+                final Object entity = fetch(key);
+                if (entity != null) {
+                    entities.put(key, entity);
+                }
+                continue;
+            }
+            List<Key<?>> sameId = byId.get(key.getId());
+            if (sameId == null) {
+                sameId = new ArrayList<Key<?>>(1);
+                byId.put(key.getId(), sameId);
+            }
+            sameId.add(key);
+        }
+
+        final List<Object> ids = new ArrayList<Object>(byId.keySet());
+        for (int start = 0; start < ids.size(); start += FETCH_BATCH_SIZE) {
+            final List<Object> chunk = ids.subList(start, Math.min(ids.size(), start + FETCH_BATCH_SIZE));
+            final Query<?> query = getDatastore().find(referenceObjClass).disableValidation();
+            query.field(Mapper.ID_KEY).in(chunk);
+            final MongoCursor<?> cursor = query.find();
+            try {
+                while (cursor.hasNext()) {
+                    final Object entity = cursor.next();
+                    final List<Key<?>> found = byId.get(getDatastore().getKey(entity).getId());
+                    if (found != null) {
+                        for (final Key<?> key : found) {
+                            entities.put(key, entity);
+                        }
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        return entities;
+    }
+
     protected abstract Object fetch();
 
     private void writeObject(final ObjectOutputStream out) throws IOException {
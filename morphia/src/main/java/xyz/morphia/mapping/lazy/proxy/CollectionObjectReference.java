@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static java.lang.String.format;
 
@@ -74,14 +75,10 @@ public class CollectionObjectReference<T> extends AbstractReference implements P
         c.clear();
 
         final int numberOfEntitiesExpected = listOfKeys.size();
-        // does not retain order:
-        // List<T> retrievedEntities = p.get().getByKeys(referenceObjClass,
-        // (List) __getKeysAsList());
-
-        // so we do it the lousy way: FIXME
+        final Map<Key<?>, Object> fetched = fetch(listOfKeys);
         final List<T> retrievedEntities = new ArrayList<T>(listOfKeys.size());
         for (final Key<?> k : listOfKeys) {
-            T entity = (T) getDatastore().getByKey(referenceObjClass, k);
+            final T entity = (T) fetched.get(k);
             if (entity != null) {
                 retrievedEntities.add(entity);
             }
@@ -58,13 +58,9 @@ public class MapObjectReference extends AbstractReference implements ProxiedEnti
     protected Object fetch() {
         final Map m = (Map) object;
         m.clear();
-        // TODO us: change to getting them all at once and yell according to
-        // ignoreMissing in order to a) increase performance and b) resolve
-        // equals keys to the same instance
-        // that should really be done in datastore.
+        final Map<Key<?>, Object> fetched = fetch(keyMap.values());
         for (final Map.Entry<?, Key<?>> e : keyMap.entrySet()) {
-            final Key<?> entityKey = e.getValue();
-            m.put(e.getKey(), fetch(entityKey));
+            m.put(e.getKey(), fetched.get(e.getValue()));
         }
         return m;
     }
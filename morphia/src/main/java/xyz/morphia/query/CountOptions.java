@@ -49,6 +49,29 @@ import static com.mongodb.assertions.Assertions.notNull;
  */
 public class CountOptions {
     private DBCollectionCountOptions options = new DBCollectionCountOptions();
+    private boolean cacheResults;
+
+    /**
+     * Keeps the count in the Datastore's {@link QueryResultCache}, and takes it from there when the same count is run again.  This has no
+     * effect if the Datastore has no result cache.
+     *
+     * @param cacheResults true to cache the count
+     * @return this
+     * @see xyz.morphia.AdvancedDatastore#setQueryResultCache(QueryResultCache)
+     * @since 1.5
+     */
+    public CountOptions cacheResults(final boolean cacheResults) {
+        this.cacheResults = cacheResults;
+        return this;
+    }
+
+    /**
+     * @return true if the count may be taken from, and is kept in, the Datastore's query result cache
+     * @since 1.5
+     */
+    public boolean isCacheResults() {
+        return cacheResults;
+    }
 
     /**
      * Sets the collation
@@ -0,0 +1,46 @@
+package xyz.morphia.query;
+
+import com.mongodb.DBCursor;
+import com.mongodb.client.MongoCursor;
+import xyz.morphia.Datastore;
+import xyz.morphia.mapping.Mapper;
+import xyz.morphia.mapping.cache.EntityCache;
+
+/**
+ * A MorphiaIterator which reads its results from a MongoCursor over the same DBCursor, such as one reading ahead or loading references in
+ * batches.  The driver and mapper times are not tracked, and the DBCursor should not be used directly while iterating.
+ *
+ * @param <T> the type being iterated
+ * @see FindOptions#readAhead(int)
+ * @see FindOptions#batchReferences(boolean)
+ */
+@SuppressWarnings("deprecation")
+class CursorIterator<T> extends MorphiaIterator<T, T> {
+    private final MongoCursor<T> results;
+
+    CursorIterator(final Datastore datastore, final DBCursor cursor, final Mapper mapper, final Class<T> clazz,
+                   final String collection, final EntityCache cache, final MongoCursor<T> results) {
+        super(datastore, cursor, mapper, clazz, collection, cache);
+        this.results = results;
+    }
+
+    @Override
+    public void close() {
+        results.close();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return results.hasNext();
+    }
+
+    @Override
+    public T next() {
+        return results.next();
+    }
+
+    @Override
+    public void remove() {
+        results.remove();
+    }
+}
@@ -36,15 +36,26 @@ class FieldCriteria extends AbstractCriteria {
         //validate might modify prop string to translate java field name to db field name
         final StringBuilder sb = new StringBuilder(fieldName);
         final Mapper mapper = query.getDatastore().getMapper();
+        final boolean parameter = value instanceof Parameter;
         final MappedField mf = validateQuery(query.getEntityClass(),
                                              mapper,
                                              sb,
                                              op,
                                              value,
                                              query.isValidatingNames(),
-                                             query.isValidatingTypes());
+                                             query.isValidatingTypes() && !parameter);
 
+        this.field = sb.toString();
+        this.operator = op;
+        // a parameter's value is only known, and so mapped, when it is bound
+        this.value = parameter ? new ParameterSlot((Parameter) value, mapper, mf, op) : mapValue(mapper, mf, op, value);
+        this.not = not;
+    }
 
+    /*
+     * Maps a value given for a field to what is stored for it.
+     */
+    static Object mapValue(final Mapper mapper, final MappedField mf, final FilterOperator op, final Object value) {
         MappedClass mc = null;
         try {
             if (value != null && !ReflectionUtils.isPropertyType(value.getClass())
@@ -75,11 +86,7 @@ class FieldCriteria extends AbstractCriteria {
             && Iterable.class.isAssignableFrom(value.getClass())) {
             mappedValue = Collections.emptyList();
         }
-
-        this.field = sb.toString();
-        this.operator = op;
-        this.value = mappedValue;
-        this.not = not;
+        return mappedValue;
     }
 
     @Override
@@ -16,13 +16,17 @@
 
 package xyz.morphia.query;
 
+import com.mongodb.BasicDBObject;
 import com.mongodb.CursorType;
 import com.mongodb.DBObject;
 import com.mongodb.ReadConcern;
 import com.mongodb.ReadPreference;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.model.Collation;
 import com.mongodb.client.model.DBCollectionFindOptions;
+import org.bson.conversions.Bson;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -34,6 +38,10 @@ import java.util.concurrent.TimeUnit;
  */
 public class FindOptions {
     private DBCollectionFindOptions options = new DBCollectionFindOptions();
+    private int readAheadBatches;
+    private Executor readAheadExecutor;
+    private boolean batchReferences;
+    private boolean cacheResults;
 
     /**
      * Creates an empty options instance.
@@ -41,8 +49,12 @@ public class FindOptions {
     public FindOptions() {
     }
 
-    private FindOptions(final DBCollectionFindOptions copy) {
-        options = copy.copy();
+    private FindOptions(final FindOptions copy) {
+        options = copy.options.copy();
+        readAheadBatches = copy.readAheadBatches;
+        readAheadExecutor = copy.readAheadExecutor;
+        batchReferences = copy.batchReferences;
+        cacheResults = copy.cacheResults;
     }
 
     /**
@@ -50,7 +62,7 @@ public class FindOptions {
      * @return the new copy
      */
     public FindOptions copy() {
-        return new FindOptions(options.copy());
+        return new FindOptions(this);
     }
 
     /**
@@ -178,6 +190,107 @@ public class FindOptions {
         return this;
     }
 
+    /**
+     * @return true if the eager references of each batch are loaded together
+     * @see #batchReferences(boolean)
+     * @since 1.5
+     */
+    public boolean isBatchReferences() {
+        return batchReferences;
+    }
+
+    /**
+     * Loads the eager {@link xyz.morphia.annotations.Reference references} of each batch of results with one query per referenced
+     * collection, rather than one query per reference.  The referenced entities' own references are loaded the same way.  References
+     * which can not be found are still reported unless they are marked to ignore missing values.
+     *
+     * @param batchReferences true to load the references of each batch together
+     * @return this
+     * @see #batchSize(int)
+     * @since 1.5
+     */
+    public FindOptions batchReferences(final boolean batchReferences) {
+        this.batchReferences = batchReferences;
+        return this;
+    }
+
+    /**
+     * @return true if the results may be taken from, and are kept in, the Datastore's query result cache
+     * @see #cacheResults(boolean)
+     * @since 1.5
+     */
+    public boolean isCacheResults() {
+        return cacheResults;
+    }
+
+    /**
+     * Keeps the results of {@link Query#asList(FindOptions)}, {@link Query#get(FindOptions)} and {@link Query#asKeyList(FindOptions)} in
+     * the Datastore's {@link QueryResultCache}, and takes them from there when the same query is run again.  This has no effect if the
+     * Datastore has no result cache, or for tailable cursors.
+     *
+     * @param cacheResults true to cache the results
+     * @return this
+     * @see xyz.morphia.AdvancedDatastore#setQueryResultCache(QueryResultCache)
+     * @since 1.5
+     */
+    public FindOptions cacheResults(final boolean cacheResults) {
+        this.cacheResults = cacheResults;
+        return this;
+    }
+
+    /**
+     * Gets the number of batches that may be fetched and decoded ahead of the caller.  The default is 0, which reads each batch when
+     * the caller reaches it.
+     *
+     * @return the read ahead limit
+     * @see #readAhead(int)
+     * @since 1.5
+     */
+    public int getReadAhead() {
+        return readAheadBatches;
+    }
+
+    /**
+     * Fetches and decodes batches on a background thread while the caller consumes the current one.  At most {@code batches} decoded
+     * batches are held at once; fetching pauses until the caller catches up.  Batches are read on a shared pool of daemon threads sized
+     * to the number of processors.  Tailable cursors are always read in the caller's thread.
+     *
+     * @param batches the maximum number of decoded batches to hold, or 0 to disable reading ahead
+     * @return this
+     * @see #batchSize(int)
+     * @since 1.5
+     */
+    public FindOptions readAhead(final int batches) {
+        return readAhead(batches, null);
+    }
+
+    /**
+     * Fetches and decodes batches on the given executor while the caller consumes the current one.  Only one batch of a cursor is ever
+     * being read at a time, and no task waits for the caller, so a bounded executor may be shared by many cursors.
+     *
+     * @param batches  the maximum number of decoded batches to hold, or 0 to disable reading ahead
+     * @param executor the executor to read batches on, or null to use the shared pool
+     * @return this
+     * @see #readAhead(int)
+     * @since 1.5
+     */
+    public FindOptions readAhead(final int batches, final Executor executor) {
+        if (batches < 0) {
+            throw new IllegalArgumentException("The number of read ahead batches can not be negative");
+        }
+        readAheadBatches = batches;
+        readAheadExecutor = executor;
+        return this;
+    }
+
+    Executor getReadAheadExecutor() {
+        return readAheadExecutor;
+    }
+
+    boolean isReadAhead() {
+        return readAheadBatches > 0 && getCursorType() == CursorType.NonTailable;
+    }
+
     /**
      * Gets the query modifiers to apply to this operation.  The default is not to apply any modifiers.
      *
@@ -395,6 +508,30 @@ public class FindOptions {
         return options;
     }
 
+    <T> FindIterable<T> applyTo(final FindIterable<T> iterable) {
+        return iterable.limit(options.getLimit())
+                       .skip(options.getSkip())
+                       .batchSize(options.getBatchSize())
+                       .maxTime(options.getMaxTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)
+                       .maxAwaitTime(options.getMaxAwaitTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)
+                       .modifiers(toBson(options.getModifiers()))
+                       .noCursorTimeout(options.isNoCursorTimeout())
+                       .oplogReplay(options.isOplogReplay())
+                       .partial(options.isPartial())
+                       .cursorType(options.getCursorType())
+                       .collation(options.getCollation())
+                       .comment(options.getComment())
+                       .hint(toBson(options.getHint()))
+                       .max(toBson(options.getMax()))
+                       .min(toBson(options.getMin()))
+                       .returnKey(options.isReturnKey())
+                       .showRecordId(options.isShowRecordId());
+    }
+
+    static Bson toBson(final DBObject dbObject) {
+        return dbObject == null || dbObject instanceof Bson ? (Bson) dbObject : new BasicDBObject(dbObject.toMap());
+    }
+
     boolean isSnapshot() {
         Object snapshot = getModifiers().get("$snapshot");
         return snapshot != null ? (Boolean) snapshot : false;
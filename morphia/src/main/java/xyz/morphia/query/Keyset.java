@@ -0,0 +1,174 @@
+package xyz.morphia.query;
+
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBEncoder;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import com.mongodb.DefaultDBEncoder;
+import org.bson.io.BasicOutputBuffer;
+import xyz.morphia.mapping.Mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Builds the sort, continuation tokens and range predicates used to page through a query by the values of its sort keys.
+ *
+ * @see Query#page(String, FindOptions)
+ */
+final class Keyset {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Keyset() {
+    }
+
+    /*
+     * The sort of the query, with the _id appended to break ties if it is not already there.
+     */
+    static DBObject sort(final DBObject sort) {
+        final BasicDBObject keyset = new BasicDBObject();
+        if (sort != null) {
+            for (final String key : sort.keySet()) {
+                final Object direction = sort.get(key);
+                if (key.startsWith("$") || !(direction instanceof Number) || Math.abs(((Number) direction).intValue()) != 1) {
+                    throw new QueryException(format("Only ascending and descending sorts can be paged through; found %s: %s", key,
+                                                    direction));
+                }
+                keyset.put(key, ((Number) direction).intValue());
+            }
+        }
+        if (!keyset.containsField(Mapper.ID_KEY)) {
+            keyset.put(Mapper.ID_KEY, 1);
+        }
+        return keyset;
+    }
+
+    /*
+     * Records the values of the sort keys in the last document of a page.
+     */
+    static String token(final DBObject sort, final DBObject last) {
+        final BasicDBList values = new BasicDBList();
+        for (final String key : sort.keySet()) {
+            values.add(valueAt(last, key));
+        }
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        final DBEncoder encoder = DefaultDBEncoder.FACTORY.create();
+        encoder.writeObject(buffer, new BasicDBObject("s", sort).append("v", values));
+
+        final byte[] bytes = buffer.toByteArray();
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /*
+     * Matches the documents after the one a token was made from: those greater on the first key in the direction of the sort, or equal
+     * on the first key and greater on the second, and so on.  A null or missing value sorts before every other, so after a null come all
+     * the values which are not null in an ascending sort, and none in a descending one, while after any other value in a descending sort
+     * come the nulls as well as the lesser values.
+     */
+    static DBObject after(final DBObject sort, final String token) {
+        final DBObject decoded = decode(token);
+        final DBObject tokenSort = (DBObject) decoded.get("s");
+        if (!sort.equals(tokenSort) || !new ArrayList<String>(sort.keySet()).equals(new ArrayList<String>(tokenSort.keySet()))) {
+            throw new QueryException("The continuation token was made for a query with a different sort");
+        }
+        final List<?> values = (List<?>) decoded.get("v");
+        final List<String> keys = new ArrayList<String>(sort.keySet());
+        if (values.size() != keys.size()) {
+            throw new QueryException("The continuation token is not valid: " + token);
+        }
+        // the token comes back from the client, so its values must not be able to smuggle operators in to the filter
+        for (final Object value : values) {
+            if (value instanceof List || hasOperator(value)) {
+                throw new QueryException("The continuation token is not valid: " + token);
+            }
+        }
+
+        final BasicDBList or = new BasicDBList();
+        for (int i = 0; i < keys.size(); i++) {
+            final String key = keys.get(i);
+            final Object value = values.get(i);
+            final boolean ascending = ((Number) sort.get(key)).intValue() > 0;
+            if (value == null && !ascending) {
+                continue;
+            }
+            final BasicDBObject clause = new BasicDBObject();
+            for (int j = 0; j < i; j++) {
+                // matches a missing value as well as a null
+                clause.put(keys.get(j), new BasicDBObject("$eq", values.get(j)));
+            }
+            if (value == null) {
+                clause.put(key, new BasicDBObject("$ne", null));
+            } else if (ascending) {
+                clause.put(key, new BasicDBObject("$gt", value));
+            } else {
+                final BasicDBList lesser = new BasicDBList();
+                lesser.add(new BasicDBObject(key, new BasicDBObject("$lt", value)));
+                lesser.add(new BasicDBObject(key, new BasicDBObject("$eq", null)));
+                clause.put("$or", lesser);
+            }
+            or.add(clause);
+        }
+        if (or.isEmpty()) {
+            return new BasicDBObject(Mapper.ID_KEY, new BasicDBObject("$in", new BasicDBList()));
+        }
+        return or.size() == 1 ? (DBObject) or.get(0) : new BasicDBObject("$or", or);
+    }
+
+    private static DBObject decode(final String token) {
+        try {
+            if (token.length() % 2 != 0) {
+                throw new IllegalArgumentException();
+            }
+            final byte[] bytes = new byte[token.length() / 2];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) Integer.parseInt(token.substring(i * 2, i * 2 + 2), 16);
+            }
+            final DBObject decoded = DefaultDBDecoder.FACTORY.create().decode(bytes, (DBCollection) null);
+            if (!(decoded.get("s") instanceof DBObject) || !(decoded.get("v") instanceof List)) {
+                throw new IllegalArgumentException();
+            }
+            return decoded;
+        } catch (RuntimeException e) {
+            throw new QueryException("The continuation token is not valid: " + token, e);
+        }
+    }
+
+    private static boolean hasOperator(final Object value) {
+        if (value instanceof DBObject) {
+            for (final String key : ((DBObject) value).keySet()) {
+                if (key.startsWith("$") || hasOperator(((DBObject) value).get(key))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * The value of a sort key, or null if it is missing.  A document sorts by the least or greatest element of an array, which can not be
+     * told from the array alone, so arrays are refused.
+     */
+    private static Object valueAt(final DBObject document, final String path) {
+        Object value = document;
+        for (final String segment : path.split("\\.")) {
+            if (!(value instanceof DBObject)) {
+                return null;
+            }
+            value = ((DBObject) value).get(segment);
+            if (value instanceof List) {
+                throw new QueryException(format("Queries sorted by an array can not be paged through; %s holds an array", path));
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,51 @@
+package xyz.morphia.query;
+
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * One page of the results of a query, with the token to fetch the page after it.
+ *
+ * @param <T> the type of the entities
+ * @see Query#page(String, FindOptions)
+ * @since 1.5
+ */
+public class Page<T> implements Iterable<T> {
+    private final List<T> entities;
+    private final String continuation;
+
+    Page(final List<T> entities, final String continuation) {
+        this.entities = entities;
+        this.continuation = continuation;
+    }
+
+    /**
+     * @return the entities on this page
+     */
+    public List<T> getEntities() {
+        return entities;
+    }
+
+    /**
+     * Returns the token to pass to {@link Query#page(String, FindOptions)} for the next page.  The token holds the values of the sort
+     * keys of the last entity on this page, and may be kept by clients between requests.
+     *
+     * @return the token, or null if this is the last page
+     */
+    public String getContinuation() {
+        return continuation;
+    }
+
+    /**
+     * @return true if there is a page after this one
+     */
+    public boolean hasNext() {
+        return continuation != null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return entities.iterator();
+    }
+}
@@ -0,0 +1,386 @@
+package xyz.morphia.query;
+
+
+import com.mongodb.AggregationOptions;
+import com.mongodb.BasicDBObject;
+import com.mongodb.Cursor;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.ReadPreference;
+import xyz.morphia.DatastoreImpl;
+import xyz.morphia.mapping.Mapper;
+import xyz.morphia.mapping.cache.EntityCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+
+/**
+ * Scans the results of a query in several partitions at once, each with its own cursor.  The partitions are ranges of _id, split at
+ * points taken from a random sample of the documents the query matches, so that they hold roughly as many documents each.  Every
+ * partition is run with the query's filters and projection, and the options given, but the query's sort is not applied and the results
+ * come in no particular order.
+ * <p>
+ * The ranges compare _ids, so every document should have an _id of the same type; MongoDB does not compare values of different types
+ * in a range.  Sampling needs MongoDB 3.2 or later.
+ *
+ * @param <T> the type of the entities scanned
+ * @see Query#parallelScan(int, FindOptions)
+ * @since 1.5
+ */
+public class ParallelScan<T> {
+    private static final int SAMPLES_PER_PARTITION = 16;
+    private static final int QUEUE_SIZE = 1000;
+    private static final long WAIT_MILLIS = 100;
+
+    private final DatastoreImpl ds;
+    private final DBCollection dbColl;
+    private final Class<T> clazz;
+    private final DBObject query;
+    private final DBObject projection;
+    private final FindOptions options;
+    private final List<Object> boundaries = new ArrayList<Object>();
+
+    ParallelScan(final DatastoreImpl ds, final DBCollection dbColl, final Class<T> clazz, final DBObject query, final DBObject projection,
+                 final FindOptions options, final int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("A scan needs at least one partition");
+        }
+        if (options.getLimit() != 0 || options.getSkip() != 0) {
+            throw new QueryException("A limit or skip can not be split between partitions");
+        }
+        this.ds = ds;
+        this.dbColl = dbColl;
+        this.clazz = clazz;
+        this.query = query;
+        this.projection = projection;
+        this.options = options;
+        if (partitions > 1) {
+            findBoundaries(partitions);
+        }
+    }
+
+    /**
+     * @return the number of partitions, which may be fewer than asked for if the query matches few documents
+     */
+    public int getPartitions() {
+        return boundaries.size() + 1;
+    }
+
+    /**
+     * Returns the query run for one partition: the query's own filters, limited to the partition's range of _id.
+     *
+     * @param partition the partition, from 0
+     * @return the query
+     */
+    public DBObject getPartitionQuery(final int partition) {
+        if (partition < 0 || partition >= getPartitions()) {
+            throw new IndexOutOfBoundsException(format("Partition %d of %d", partition, getPartitions()));
+        }
+        final BasicDBObject range = new BasicDBObject();
+        if (partition > 0) {
+            range.put("$gte", boundaries.get(partition - 1));
+        }
+        if (partition < boundaries.size()) {
+            range.put("$lt", boundaries.get(partition));
+        }
+        if (range.isEmpty()) {
+            return query;
+        }
+        final DBObject idRange = new BasicDBObject(Mapper.ID_KEY, range);
+        return query.keySet().isEmpty() ? idRange : new BasicDBObject("$and", Arrays.asList(query, idRange));
+    }
+
+    /**
+     * Scans every partition on the executor, handing each partition's entities to the callback on the thread scanning it.  Returns once
+     * every partition has been scanned.
+     *
+     * @param executor the executor to run the partitions on
+     * @param callback the callback for each partition
+     * @throws RuntimeException the first exception thrown while scanning or by the callback, once every partition has stopped
+     */
+    public void forEachPartition(final Executor executor, final PartitionCallback<T> callback) {
+        final List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>();
+        for (int i = 0; i < getPartitions(); i++) {
+            final int partition = i;
+            final FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+                @Override
+                public void run() {
+                    final DBCursor cursor = openCursor(partition);
+                    try {
+                        callback.onPartition(partition, new EntityIterator(cursor));
+                    } finally {
+                        cursor.close();
+                    }
+                }
+            }, null);
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        RuntimeException failure = null;
+        for (final FutureTask<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                              ? (RuntimeException) e.getCause()
+                              : new QueryException("The partition could not be scanned", e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new QueryException("Interrupted while waiting for the partitions to be scanned", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Scans every partition on the executor, merging their entities in to one iterator as they arrive.  A partition waits while the
+     * iterator is behind, so the entities held at once are bounded.  The iterator should be closed if it is not read to the end.  The
+     * executor must run every task it accepts, as the iterator waits for each partition to stop.
+     *
+     * @param executor the executor to run the partitions on
+     * @return the iterator
+     */
+    public MergedIterator<T> iterator(final Executor executor) {
+        final MergedIterator<T> merged = new MergedIterator<T>(getPartitions());
+        for (int i = 0; i < getPartitions(); i++) {
+            final int partition = i;
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            final DBCursor cursor = openCursor(partition);
+                            try {
+                                final EntityIterator entities = new EntityIterator(cursor);
+                                while (entities.hasNext() && merged.offer(entities.next())) {
+                                    continue;
+                                }
+                            } finally {
+                                cursor.close();
+                            }
+                        } catch (Throwable t) {
+                            merged.fail(t);
+                        } finally {
+                            merged.finish();
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                merged.close();
+                throw e;
+            }
+        }
+        return merged;
+    }
+
+    /*
+     * Sorts a sample of the matching _ids on the server and takes evenly spaced ones as the split points.
+     */
+    private void findBoundaries(final int partitions) {
+        final List<DBObject> pipeline = new ArrayList<DBObject>();
+        if (!query.keySet().isEmpty()) {
+            pipeline.add(new BasicDBObject("$match", query));
+        }
+        pipeline.add(new BasicDBObject("$sample", new BasicDBObject("size", partitions * SAMPLES_PER_PARTITION)));
+        pipeline.add(new BasicDBObject("$project", new BasicDBObject(Mapper.ID_KEY, 1)));
+        pipeline.add(new BasicDBObject("$sort", new BasicDBObject(Mapper.ID_KEY, 1)));
+
+        final ReadPreference readPreference = options.getReadPreference();
+        final List<Object> ids = new ArrayList<Object>();
+        final Cursor cursor = dbColl.aggregate(pipeline, AggregationOptions.builder().build(),
+                                               readPreference != null ? readPreference : dbColl.getReadPreference());
+        try {
+            while (cursor.hasNext()) {
+                ids.add(cursor.next().get(Mapper.ID_KEY));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        for (int i = 1; i < partitions; i++) {
+            final int index = i * ids.size() / partitions;
+            if (index == 0 || index >= ids.size()) {
+                continue;
+            }
+            final Object boundary = ids.get(index);
+            // few documents sample the same _id more than once
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+                boundaries.add(boundary);
+            }
+        }
+    }
+
+    private DBCursor openCursor(final int partition) {
+        return dbColl.find(getPartitionQuery(partition), options.getOptions()
+                                                                .copy()
+                                                                .sort(null)
+                                                                .projection(projection))
+                     .setDecoderFactory(ds.getDecoderFact());
+    }
+
+    /**
+     * Receives the entities of each partition of a {@link ParallelScan}.
+     *
+     * @param <T> the type of the entities
+     */
+    public interface PartitionCallback<T> {
+        /**
+         * Called on the thread scanning a partition, with the partition's entities.  The entities can only be read until this returns.
+         *
+         * @param partition the partition, from 0
+         * @param entities  the entities found in the partition
+         */
+        void onPartition(int partition, Iterator<T> entities);
+    }
+
+    /**
+     * The entities of every partition of a {@link ParallelScan}, in the order they arrive.  If a partition fails, the next call to
+     * {@link #hasNext()} closes the iterator and rethrows the failure.
+     *
+     * @param <T> the type of the entities
+     */
+    public static final class MergedIterator<T> implements Iterator<T> {
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(QUEUE_SIZE);
+        private final AtomicInteger running;
+        private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        private Object next;
+        private volatile boolean closed;
+
+        private MergedIterator(final int partitions) {
+            running = new AtomicInteger(partitions);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !closed) {
+                rethrowFailure();
+                // read before polling, so a partition stopping in between can not leave entities behind in the queue
+                final boolean stopped = running.get() == 0;
+                try {
+                    next = queue.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new QueryException("Interrupted while waiting for the partitions to be scanned", e);
+                }
+                if (next == null && stopped) {
+                    rethrowFailure();
+                    break;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final T entity = (T) next;
+            next = null;
+            return entity;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Stops the partitions still being scanned
+         */
+        public void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        private void rethrowFailure() {
+            final Throwable t = failure.get();
+            if (t == null) {
+                return;
+            }
+            close();
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw new QueryException("The partition could not be scanned", t);
+        }
+
+        /*
+         * Hands on an entity, waiting while the queue is full.  Returns false once the iterator has been closed.
+         */
+        private boolean offer(final Object entity) {
+            try {
+                while (!closed) {
+                    if (queue.offer(entity, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new QueryException("Interrupted while scanning a partition", e);
+            }
+        }
+
+        /*
+         * Keeps the first failure of any partition, which ends the whole scan.
+         */
+        private void fail(final Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        /*
+         * Called once by every partition however it stops.  It needs no room in the queue, so it can neither block nor be lost.
+         */
+        private void finish() {
+            running.decrementAndGet();
+        }
+    }
+
+    private final class EntityIterator implements Iterator<T> {
+        private final DBCursor cursor;
+        private final EntityCache cache = ds.getMapper().createEntityCache();
+
+        private EntityIterator(final DBCursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return ds.getMapper().fromDBObject(ds, clazz, cursor.next(), cache);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package xyz.morphia.query;
+
+
+/**
+ * A named placeholder for a filter value, whose value is given each time a {@link PreparedQuery} is run.
+ *
+ * <pre>
+ * PreparedQuery&lt;User&gt; byAge = datastore.find(User.class)
+ *                                       .filter("age &gt;=", Parameter.named("min"))
+ *                                       .order("name")
+ *                                       .prepare();
+ * List&lt;User&gt; adults = byAge.bind("min", 18).asList();
+ * </pre>
+ *
+ * @see Query#prepare()
+ * @since 1.5
+ */
+public final class Parameter {
+    private final String name;
+
+    private Parameter(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates a placeholder for the value bound to the given name
+     *
+     * @param name the name of the parameter
+     * @return the placeholder
+     */
+    public static Parameter named(final String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("A parameter needs a name");
+        }
+        return new Parameter(name);
+    }
+
+    /**
+     * @return the name of the parameter
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return ":" + name;
+    }
+}
@@ -0,0 +1,35 @@
+package xyz.morphia.query;
+
+
+import xyz.morphia.mapping.MappedField;
+import xyz.morphia.mapping.Mapper;
+
+/**
+ * Stands in a query document for the value of a parameter, holding what is needed to map the value once it is bound.
+ */
+final class ParameterSlot {
+    private final Parameter parameter;
+    private final Mapper mapper;
+    private final MappedField mf;
+    private final FilterOperator operator;
+
+    ParameterSlot(final Parameter parameter, final Mapper mapper, final MappedField mf, final FilterOperator operator) {
+        this.parameter = parameter;
+        this.mapper = mapper;
+        this.mf = mf;
+        this.operator = operator;
+    }
+
+    String getName() {
+        return parameter.getName();
+    }
+
+    Object bind(final Object value) {
+        return FieldCriteria.mapValue(mapper, mf, operator, value);
+    }
+
+    @Override
+    public String toString() {
+        return parameter.toString();
+    }
+}
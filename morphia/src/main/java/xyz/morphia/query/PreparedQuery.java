@@ -0,0 +1,132 @@
+package xyz.morphia.query;
+
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+
+/**
+ * A query whose filters are validated and mapped once, with {@link Parameter}s standing in for the values which change between runs.
+ * Binding values copies the query document and maps each value for the field it is compared to, so running the same shape of query
+ * again skips the parsing, validation and field translation of building it.  The copy is deep, as criteria added to a bound query are
+ * merged in to the documents it was given.
+ * <p>
+ * A PreparedQuery may be shared between threads.  Each call to bind returns a new Query, which like any other should be used by one
+ * thread.
+ *
+ * @param <T> the type of the entities found
+ * @see Query#prepare()
+ * @since 1.5
+ */
+public class PreparedQuery<T> {
+    private final QueryImpl<T> shell;
+    private final DBObject template;
+    private final Set<String> names = new LinkedHashSet<String>();
+
+    @SuppressWarnings("deprecation")
+    PreparedQuery(final QueryImpl<T> query) {
+        // copied, as the query document may share its values with the query it was built from
+        template = (DBObject) copy(query.getQueryObject(), null);
+        findParameters(template);
+        shell = query.cloneQuery();
+        shell.setChildren(new ArrayList<Criteria>());
+        shell.setBaseQuery(null);
+    }
+
+    /**
+     * @return the names of the parameters which must be bound
+     */
+    public Set<String> getParameterNames() {
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Binds the only parameter of the query
+     *
+     * @param name  the name of the parameter
+     * @param value the value to use
+     * @return a new Query to run with the value
+     */
+    public Query<T> bind(final String name, final Object value) {
+        return bind(Collections.singletonMap(name, value));
+    }
+
+    /**
+     * Binds every parameter of the query
+     *
+     * @param values the value of each parameter, by name
+     * @return a new Query to run with the values
+     * @throws QueryException if a parameter has no value, or a value is given for a name which is not a parameter
+     */
+    public Query<T> bind(final Map<String, ?> values) {
+        if (!names.equals(values.keySet())) {
+            final Set<String> missing = new LinkedHashSet<String>(names);
+            missing.removeAll(values.keySet());
+            final Set<String> unknown = new LinkedHashSet<String>(values.keySet());
+            unknown.removeAll(names);
+            throw new QueryException(format("The values given do not match the parameters of the query; missing %s, unknown %s",
+                                            missing, unknown));
+        }
+        final QueryImpl<T> query = shell.cloneQuery();
+        query.setBaseQuery((BasicDBObject) copy(template, values));
+        return query;
+    }
+
+    @Override
+    public String toString() {
+        return template.toString();
+    }
+
+    private void findParameters(final Object node) {
+        if (node instanceof ParameterSlot) {
+            names.add(((ParameterSlot) node).getName());
+        } else if (node instanceof Map) {
+            for (final Object value : ((Map<?, ?>) node).values()) {
+                findParameters(value);
+            }
+        } else if (node instanceof List) {
+            for (final Object value : (List<?>) node) {
+                findParameters(value);
+            }
+        }
+    }
+
+    /*
+     * Copies every document and list of the query, binding the parameters to the values given, or keeping them if there are none.
+     */
+    @SuppressWarnings("unchecked")
+    private Object copy(final Object node, final Map<String, ?> values) {
+        if (node instanceof ParameterSlot) {
+            final ParameterSlot slot = (ParameterSlot) node;
+            return values == null ? slot : slot.bind(values.get(slot.getName()));
+        }
+        if (node instanceof Map) {
+            final Map<String, Object> map = (Map<String, Object>) node;
+            final Map<String, Object> copy = node instanceof DBObject ? new BasicDBObject() : new LinkedHashMap<String, Object>();
+            for (final Map.Entry<String, Object> entry : map.entrySet()) {
+                copy.put(entry.getKey(), copy(entry.getValue(), values));
+            }
+            return copy;
+        }
+        if (node instanceof List) {
+            final List<Object> list = (List<Object>) node;
+            final List<Object> copy = node instanceof BasicDBList ? new BasicDBList() : new ArrayList<Object>(list.size());
+            for (final Object value : list) {
+                copy.add(copy(value, values));
+            }
+            return copy;
+        }
+        return node;
+    }
+}
@@ -318,6 +318,68 @@ public interface Query<T> extends QueryResults<T>, Cloneable {
      */
     CriteriaContainer or(Criteria... criteria);
 
+    /**
+     * Fetches a page of results by the values of the sort keys rather than by skipping, so that the cost of a page does not grow with how
+     * deep in the results it is.  The query's sort is used, with the _id added to break ties, and every key must sort ascending or
+     * descending.  The values of the sort keys should not be missing, null or arrays, as the range used to find the next page can not
+     * place those reliably.
+     *
+     * <pre>
+     * Page&lt;Post&gt; page = datastore.find(Post.class).order("-published").page(null, 50);
+     * ...
+     * page = datastore.find(Post.class).order("-published").page(page.getContinuation(), 50);
+     * </pre>
+     *
+     * @param continuation the token of the previous page, or null for the first page
+     * @param pageSize     the most entities to return
+     * @return the page
+     * @throws QueryException if the sort can not be paged through, or the token is not valid for this query
+     * @see Page#getContinuation()
+     * @since 1.5
+     */
+    Page<T> page(String continuation, int pageSize);
+
+    /**
+     * Fetches a page of results by the values of the sort keys rather than by skipping, using the given options.  The page size is the
+     * limit of the options, and they must not skip.
+     *
+     * @param continuation the token of the previous page, or null for the first page
+     * @param options      the options to apply, whose limit is the page size
+     * @return the page
+     * @throws QueryException if the sort can not be paged through, or the token is not valid for this query
+     * @see #page(String, int)
+     * @since 1.5
+     */
+    Page<T> page(String continuation, FindOptions options);
+
+    /**
+     * Splits the results of this query in to ranges of _id which can be scanned at once, each with its own cursor.  The split points are
+     * taken from a random sample of the matching documents, so the partitions hold roughly as many each.  The query's sort is ignored.
+     *
+     * <pre>
+     * datastore.find(Post.class).filter("published >", since).parallelScan(4).forEachPartition(executor, callback);
+     * </pre>
+     *
+     * @param partitions the number of partitions to split the results in to
+     * @return the scan
+     * @see ParallelScan
+     * @since 1.5
+     */
+    ParallelScan<T> parallelScan(int partitions);
+
+    /**
+     * Splits the results of this query in to ranges of _id which can be scanned at once, running each with the given options.  The
+     * options must not limit or skip.
+     *
+     * @param partitions the number of partitions to split the results in to
+     * @param options    the options to apply to each partition
+     * @return the scan
+     * @throws QueryException if the options limit or skip
+     * @see #parallelScan(int)
+     * @since 1.5
+     */
+    ParallelScan<T> parallelScan(int partitions, FindOptions options);
+
     /**
      * Sorts based on a property (defines return order).  Examples:
      * <p/>
@@ -382,6 +444,17 @@ public interface Query<T> extends QueryResults<T>, Cloneable {
      */
     Query<T> project(Meta meta);
 
+    /**
+     * Prepares this query to be run many times with different values.  The filters are validated and mapped now, and any given a
+     * {@link Parameter} rather than a value take the value bound each time the prepared query is run.  Changes made to this query
+     * afterwards do not affect the prepared query.
+     *
+     * @return the prepared query
+     * @see PreparedQuery#bind(java.util.Map)
+     * @since 1.5
+     */
+    PreparedQuery<T> prepare();
+
     /**
      * Route query to non-primary node
      *
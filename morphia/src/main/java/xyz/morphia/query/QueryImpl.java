@@ -5,7 +5,10 @@ import com.mongodb.BasicDBObject;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
 import com.mongodb.ReadPreference;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.model.DBCollectionFindOptions;
 import org.bson.BSONObject;
@@ -20,10 +23,14 @@ import xyz.morphia.mapping.MappedClass;
 import xyz.morphia.mapping.MappedField;
 import xyz.morphia.mapping.Mapper;
 import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.query.internal.BatchReferenceCursor;
+import xyz.morphia.query.internal.DeferredCursor;
 import xyz.morphia.query.internal.MorphiaCursor;
 import xyz.morphia.query.internal.MorphiaKeyCursor;
+import xyz.morphia.query.internal.ReadAheadCursor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -140,7 +147,24 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
 
     @Override
     public List<Key<T>> asKeyList(final FindOptions options) {
-        return toList(keys(options));
+        final QueryResultCache resultCache = getResultCache(options);
+        if (resultCache == null) {
+            return toList(keys(options));
+        }
+
+        final QueryImpl<T> cloned = cloneQuery();
+        cloned.getOptions().projection(new BasicDBObject(Mapper.ID_KEY, 1));
+        cloned.includeFields = true;
+        final List<Key<T>> keys = new ArrayList<Key<T>>();
+        for (final DBObject dbObj : cloned.findDocuments(resultCache, "keys", options)) {
+            Object id = dbObj.get(Mapper.ID_KEY);
+            if (id instanceof DBObject) {
+                final Class<?> type = ds.getMapper().getMappedClass(clazz).getMappedIdField().getType();
+                id = ds.getMapper().fromDBObject(ds, type, (DBObject) id, ds.getMapper().createEntityCache());
+            }
+            keys.add(new Key<T>(clazz, dbColl.getName(), id));
+        }
+        return keys;
     }
 
     @Override
@@ -150,7 +174,63 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
 
     @Override
     public List<T> asList(final FindOptions options) {
-        return toList(find(options));
+        final QueryResultCache resultCache = getResultCache(options);
+        if (resultCache == null) {
+            return toList(find(options));
+        }
+
+        final List<T> results = new ArrayList<T>();
+        final EntityCache entityCache = ds.getMapper().createEntityCache();
+        for (final DBObject dbObj : findDocuments(resultCache, "find", options)) {
+            results.add(ds.getMapper().fromDBObject(ds, clazz, dbObj, entityCache));
+        }
+        return results;
+    }
+
+    private QueryResultCache getResultCache(final FindOptions options) {
+        return options.isCacheResults() && options.getCursorType() == NonTailable && clazz != null ? ds.getQueryResultCache() : null;
+    }
+
+    /*
+     * Takes the documents found by this query from the result cache, or runs the query and keeps them there.
+     */
+    private List<DBObject> findDocuments(final QueryResultCache resultCache, final String kind, final FindOptions options) {
+        final String key = getResultKey(kind, options);
+        List<DBObject> documents = resultCache.getDocuments(key);
+        if (documents == null) {
+            final long stamp = resultCache.stamp();
+            documents = new ArrayList<DBObject>();
+            final DBCursor cursor = prepareCursor(options);
+            try {
+                while (cursor.hasNext()) {
+                    documents.add(cursor.next());
+                }
+            } finally {
+                cursor.close();
+            }
+            resultCache.putDocuments(dbColl.getName(), key, documents, stamp);
+        }
+        return documents;
+    }
+
+    /*
+     * Everything which decides the results of this query, in a normal form.  The query's equals() does not cover its criteria.
+     */
+    private String getResultKey(final String kind, final FindOptions options) {
+        final DBCollectionFindOptions dbOptions = options.getOptions();
+        return new StringBuilder(kind)
+                   .append(' ').append(dbColl.getName())
+                   .append(' ').append(clazz.getName())
+                   .append(" query: ").append(getQueryObject())
+                   .append(" sort: ").append(getSortObject())
+                   .append(" projection: ").append(getFieldsObject())
+                   .append(" skip: ").append(dbOptions.getSkip())
+                   .append(" limit: ").append(dbOptions.getLimit())
+                   .append(" modifiers: ").append(dbOptions.getModifiers())
+                   .append(" collation: ").append(dbOptions.getCollation())
+                   .append(" readPreference: ").append(dbOptions.getReadPreference())
+                   .append(" readConcern: ").append(dbOptions.getReadConcern() != null ? dbOptions.getReadConcern().asDocument() : null)
+                   .toString();
     }
 
     private static <E> List<E> toList(final MongoCursor<E> cursor) {
@@ -182,7 +262,30 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
 
     @Override
     public long count(final CountOptions options) {
-        return dbColl.getCount(getQueryObject(), options.getOptions());
+        final QueryResultCache resultCache = options.isCacheResults() ? ds.getQueryResultCache() : null;
+        if (resultCache == null) {
+            return dbColl.getCount(getQueryObject(), options.getOptions());
+        }
+
+        final String key = new StringBuilder("count ")
+                               .append(dbColl.getName())
+                               .append(" query: ").append(getQueryObject())
+                               .append(" skip: ").append(options.getSkip())
+                               .append(" limit: ").append(options.getLimit())
+                               .append(" hint: ").append(options.getHint())
+                               .append(" collation: ").append(options.getCollation())
+                               .append(" readPreference: ").append(options.getReadPreference())
+                               .append(" readConcern: ").append(options.getReadConcern() != null
+                                                                ? options.getReadConcern().asDocument()
+                                                                : null)
+                               .toString();
+        Long count = resultCache.getCount(key);
+        if (count == null) {
+            final long stamp = resultCache.stamp();
+            count = dbColl.getCount(getQueryObject(), options.getOptions());
+            resultCache.putCount(dbColl.getName(), key, count, stamp);
+        }
+        return count;
     }
 
     @Override
@@ -197,6 +300,10 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
             LOG.trace("Getting cursor(" + dbColl.getName() + ")  for query:" + cursor.getQuery());
         }
 
+        if (options.isReadAhead() || options.isBatchReferences()) {
+            return new CursorIterator<T>(ds, cursor, ds.getMapper(), clazz, dbColl.getName(), cache,
+                                         readAhead(toCursor(cursor, options), options));
+        }
         return new MorphiaIterator<T, T>(ds, cursor, ds.getMapper(), clazz, dbColl.getName(), cache);
     }
 
@@ -207,7 +314,52 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
 
     @Override
     public MongoCursor<T> find(final FindOptions options) {
-        return new MorphiaCursor<T>(ds, prepareCursor(options), ds.getMapper(), clazz, cache);
+        if (clazz == null || ds.getDecoderFact() != DefaultDBDecoder.FACTORY || options.isBatchReferences()) {
+            return readAhead(toCursor(prepareCursor(options), options), options);
+        }
+        return readAhead(new DeferredCursor<T>(prepareIterable(options, clazz, getFieldsObject())), options);
+    }
+
+    @Override
+    public <R> MongoCursor<R> find(final Class<R> resultType) {
+        return find(resultType, getOptions());
+    }
+
+    @Override
+    public <R> MongoCursor<R> find(final Class<R> resultType, final FindOptions options) {
+        DBObject projection = options.getProjection();
+        if (projection == null || projection.keySet().isEmpty()) {
+            projection = getOptions().getProjection();
+        }
+        return readAhead(new DeferredCursor<R>(prepareIterable(options, resultType, projection == null || projection.keySet().isEmpty()
+                                                                                    ? getProjection(resultType)
+                                                                                    : copy(projection))), options);
+    }
+
+    private MongoCursor<T> toCursor(final DBCursor cursor, final FindOptions options) {
+        return options.isBatchReferences()
+               ? new BatchReferenceCursor<T>(ds, cursor, ds.getMapper(), clazz, cache, options.getBatchSize())
+               : new MorphiaCursor<T>(ds, cursor, ds.getMapper(), clazz, cache);
+    }
+
+    private <R> MongoCursor<R> readAhead(final MongoCursor<R> cursor, final FindOptions options) {
+        return options.isReadAhead()
+               ? new ReadAheadCursor<R>(cursor, options.getReadAheadExecutor(), options.getBatchSize(), options.getReadAhead())
+               : cursor;
+    }
+
+    /*
+     * Projects the stored names of the result type's fields.  The id is only returned if the result type has a field for it.
+     */
+    private DBObject getProjection(final Class<?> resultType) {
+        final BasicDBObject projection = new BasicDBObject();
+        for (final MappedField mf : ds.getMapper().getMappedClass(resultType).getPersistenceFields()) {
+            projection.put(mf.getNameToStore(), 1);
+        }
+        if (!projection.containsField(Mapper.ID_KEY)) {
+            projection.put(Mapper.ID_KEY, 0);
+        }
+        return projection;
     }
 
     @Override
@@ -244,6 +396,10 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
 
     @Override
     public T get(final FindOptions options) {
+        if (getResultCache(options) != null) {
+            final List<T> results = asList(options.copy().limit(1));
+            return results.isEmpty() ? null : results.get(0);
+        }
         final MongoCursor<T> it = find(options.copy().limit(1));
         try {
             return it.tryNext();
@@ -462,6 +618,10 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         return obj;
     }
 
+    void setBaseQuery(final BasicDBObject baseQuery) {
+        this.baseQuery = baseQuery;
+    }
+
     /**
      * Sets query structure directly
      *
@@ -561,6 +721,82 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         return this;
     }
 
+    @Override
+    public Page<T> page(final String continuation, final int pageSize) {
+        return page(continuation, new FindOptions().limit(pageSize));
+    }
+
+    @Override
+    public Page<T> page(final String continuation, final FindOptions options) {
+        final int pageSize = options.getLimit();
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("The page size must be positive");
+        }
+        if (options.getSkip() != 0) {
+            throw new QueryException("Pages are found from the continuation of the previous page, so can not be skipped to");
+        }
+
+        final DBObject sort = Keyset.sort(getSortObject());
+        DBObject query = getQueryObject();
+        if (continuation != null) {
+            final DBObject after = Keyset.after(sort, continuation);
+            query = query.keySet().isEmpty() ? after : new BasicDBObject("$and", Arrays.asList(query, after));
+        }
+        DBObject projection = getFieldsObject();
+        if (projection != null && Boolean.TRUE.equals(includeFields)) {
+            // the sort keys of the last entity are needed for the continuation
+            for (final String key : sort.keySet()) {
+                if (!projection.containsField(key)) {
+                    projection.put(key, 1);
+                }
+            }
+        }
+        checkOptions(query, options);
+
+        final List<DBObject> documents = new ArrayList<DBObject>(pageSize + 1);
+        final DBCursor cursor = dbColl.find(query, options.getOptions()
+                                                          .copy()
+                                                          .limit(pageSize + 1)
+                                                          .sort(sort)
+                                                          .projection(projection))
+                                      .setDecoderFactory(ds.getDecoderFact());
+        try {
+            while (cursor.hasNext()) {
+                documents.add(cursor.next());
+            }
+        } finally {
+            cursor.close();
+        }
+
+        final boolean more = documents.size() > pageSize;
+        if (more) {
+            documents.remove(pageSize);
+        }
+        final List<T> entities = new ArrayList<T>(documents.size());
+        final EntityCache entityCache = ds.getMapper().createEntityCache();
+        for (final DBObject document : documents) {
+            entities.add(ds.getMapper().fromDBObject(ds, clazz, document, entityCache));
+        }
+        return new Page<T>(entities, more ? Keyset.token(sort, documents.get(pageSize - 1)) : null);
+    }
+
+    @Override
+    public ParallelScan<T> parallelScan(final int partitions) {
+        return parallelScan(partitions, getOptions());
+    }
+
+    @Override
+    public ParallelScan<T> parallelScan(final int partitions, final FindOptions options) {
+        final DBObject query = getQueryObject();
+        checkOptions(query, options);
+        return new ParallelScan<T>(ds, dbColl, clazz, query, getFieldsObject(), options, partitions);
+    }
+
+    @Override
+    public PreparedQuery<T> prepare() {
+        return new PreparedQuery<T>(this);
+    }
+
     @Override
     @Deprecated
     public Query<T> queryNonPrimary() {
@@ -761,7 +997,36 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
 
     private DBCursor prepareCursor(final FindOptions findOptions) {
         final DBObject query = getQueryObject();
+        checkOptions(query, findOptions);
+
+        return dbColl.find(query, findOptions.getOptions()
+                                             .copy()
+                                             .sort(getSortObject())
+                                             .projection(getFieldsObject()))
+                     .setDecoderFactory(ds.getDecoderFact());
+    }
 
+    /*
+     * Runs the query through a collection which decodes each document straight in to the given type, reading only the projected fields.
+     */
+    private <R> FindIterable<R> prepareIterable(final FindOptions findOptions, final Class<R> type, final DBObject projection) {
+        final DBObject query = getQueryObject();
+        checkOptions(query, findOptions);
+
+        final DBCollectionFindOptions options = findOptions.getOptions();
+        final MongoCollection<R> collection = ds.getEntityCollection(dbColl.getName(), type, cache, projection)
+                                                .withReadPreference(options.getReadPreference() != null
+                                                                    ? options.getReadPreference()
+                                                                    : dbColl.getReadPreference())
+                                                .withReadConcern(options.getReadConcern() != null
+                                                                 ? options.getReadConcern()
+                                                                 : dbColl.getReadConcern());
+        return findOptions.applyTo(collection.find(FindOptions.toBson(query)))
+                          .sort(FindOptions.toBson(getSortObject()))
+                          .projection(FindOptions.toBson(projection));
+    }
+
+    private void checkOptions(final DBObject query, final FindOptions findOptions) {
         if (LOG.isTraceEnabled()) {
             LOG.trace(String.format("Running query(%s) : %s, options: %s,", dbColl.getName(), query, findOptions));
         }
@@ -773,12 +1038,6 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         if (findOptions.getCursorType() != NonTailable && (findOptions.getSortDBObject() != null)) {
             LOG.warning("Sorting on tail is not allowed.");
         }
-
-        return dbColl.find(query, findOptions.getOptions()
-                                             .copy()
-                                             .sort(getSortObject())
-                                             .projection(getFieldsObject()))
-                     .setDecoderFactory(ds.getDecoderFact());
     }
 
     @Override
@@ -0,0 +1,121 @@
+package xyz.morphia.query;
+
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBDecoder;
+import com.mongodb.DBEncoder;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import com.mongodb.DefaultDBEncoder;
+import org.bson.io.BasicOutputBuffer;
+import xyz.morphia.internal.BoundedCache;
+import xyz.morphia.internal.WriteClock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Keeps the results of queries so that running the same query again need not go to the server.  The documents found are kept as raw BSON
+ * and mapped afresh each time, so callers never share entities.  Every write to a collection by the Datastore using this cache drops the
+ * results for that collection.  Writes made any other way are only seen once the results expire.
+ * <p>
+ * Only queries run with {@link FindOptions#cacheResults(boolean)} or {@link CountOptions#cacheResults(boolean)} set are kept.
+ *
+ * @see xyz.morphia.AdvancedDatastore#setQueryResultCache(QueryResultCache)
+ * @since 1.5
+ */
+public class QueryResultCache {
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int COUNT_SIZE = 16;
+
+    private final long maxBytes;
+    private final WriteClock writes = new WriteClock();
+    private final BoundedCache<String, Object> results;
+
+    /**
+     * Creates a cache keeping results up to the given total size, each for at most the given time.
+     *
+     * @param maxBytes   the largest total size of the results kept.  The oldest are dropped first.
+     * @param timeToLive how long results are kept for, or 0 to keep them until they are invalidated or dropped
+     * @param unit       the unit of timeToLive
+     */
+    public QueryResultCache(final long maxBytes, final long timeToLive, final TimeUnit unit) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("The cache size must be positive");
+        }
+        this.maxBytes = maxBytes;
+        results = new BoundedCache<String, Object>(maxBytes, timeToLive, unit, writes);
+    }
+
+    /**
+     * Drops the results of every query on a collection.  This is called after every write to the collection by a Datastore.
+     *
+     * @param collection the collection name
+     */
+    public void invalidate(final String collection) {
+        writes.invalidate(collection);
+    }
+
+    /**
+     * Drops every result.
+     */
+    public void clear() {
+        results.clear();
+    }
+
+    /**
+     * @return the approximate size in bytes of the results kept
+     */
+    public long getSize() {
+        return results.getWeight();
+    }
+
+    /*
+     * Read before running a query, so that results which are put after a write to their collection are known to be stale.
+     */
+    long stamp() {
+        return writes.stamp();
+    }
+
+    @SuppressWarnings("unchecked")
+    List<DBObject> getDocuments(final String key) {
+        final List<byte[]> encoded = (List<byte[]>) results.get(key);
+        if (encoded == null) {
+            return null;
+        }
+        final DBDecoder decoder = DefaultDBDecoder.FACTORY.create();
+        final List<DBObject> documents = new ArrayList<DBObject>();
+        for (final byte[] document : encoded) {
+            documents.add(decoder.decode(document, (DBCollection) null));
+        }
+        return documents;
+    }
+
+    Long getCount(final String key) {
+        return (Long) results.get(key);
+    }
+
+    void putDocuments(final String collection, final String key, final List<DBObject> documents, final long stamp) {
+        final DBEncoder encoder = DefaultDBEncoder.FACTORY.create();
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        final List<byte[]> encoded = new ArrayList<byte[]>(documents.size());
+        long size = ENTRY_OVERHEAD + key.length() * 2;
+        for (final DBObject document : documents) {
+            buffer.truncateToPosition(0);
+            encoder.writeObject(buffer, document);
+            final byte[] bson = buffer.toByteArray();
+            encoded.add(bson);
+            size += bson.length + ENTRY_OVERHEAD;
+            if (size > maxBytes) {
+                return;
+            }
+        }
+        results.put(key, collection, encoded, size, stamp);
+    }
+
+    void putCount(final String collection, final String key, final long count, final long stamp) {
+        results.put(key, collection, count, ENTRY_OVERHEAD + key.length() * 2 + COUNT_SIZE, stamp);
+    }
+}
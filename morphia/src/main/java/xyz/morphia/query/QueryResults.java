@@ -136,6 +136,32 @@ public interface QueryResults<T> extends Iterable<T> {
      */
     MongoCursor<T> find(FindOptions options);
 
+    /**
+     * Execute the query and read the results in to another type, typically a small class holding only the fields a view needs.  The
+     * type does not need to be an {@link xyz.morphia.annotations.Entity}; its fields are mapped the same way an embedded type's are.
+     * If the query has no projection, only the fields of the result type are fetched from the server.
+     *
+     * @param resultType the type to read results in to
+     * @param <R>        the result type
+     * @return an Iterator of the results
+     * @since 1.5
+     */
+    <R> MongoCursor<R> find(Class<R> resultType);
+
+    /**
+     * Execute the query and read the results in to another type, typically a small class holding only the fields a view needs.  The
+     * type does not need to be an {@link xyz.morphia.annotations.Entity}; its fields are mapped the same way an embedded type's are.
+     * A projection given in the options is used in place of the query's own.  If neither has one, only the fields of the result type
+     * are fetched from the server.
+     *
+     * @param resultType the type to read results in to
+     * @param options    the options to apply to the find operation
+     * @param <R>        the result type
+     * @return an Iterator of the results
+     * @since 1.5
+     */
+    <R> MongoCursor<R> find(Class<R> resultType, FindOptions options);
+
     /**
      * Execute the query and get only the ids of the results.  This is more efficient than fetching the actual results (transfers less
      * data).
@@ -1,6 +1,7 @@
 package xyz.morphia.query;
 
 import xyz.morphia.annotations.Serialized;
+import xyz.morphia.internal.PathCache;
 import xyz.morphia.logging.Logger;
 import xyz.morphia.logging.MorphiaLoggerFactory;
 import xyz.morphia.mapping.MappedClass;
@@ -40,98 +41,120 @@ final class QueryValidator {
      */
     static MappedField validateQuery(final Class clazz, final Mapper mapper, final StringBuilder origProp, final FilterOperator op,
                                      final Object val, final boolean validateNames, final boolean validateTypes) {
-        MappedField mf = null;
+        if (origProp.substring(0, 1).equals("$") || clazz == null) {
+            return null;
+        }
+
         final String prop = origProp.toString();
-        boolean hasTranslations = false;
+        final PathCache cache = mapper.getPathCache();
+        PathCache.ResolvedPath resolved = cache.get(QueryValidator.class, clazz, prop, validateNames);
+        if (resolved == null) {
+            final long generation = cache.getGeneration();
+            resolved = resolvePath(clazz, mapper, prop, validateNames);
+            cache.put(QueryValidator.class, clazz, prop, validateNames, resolved, generation);
+        }
+
+        //record new property string if there has been a translation to any part
+        if (!resolved.getTranslatedPath().equals(prop)) {
+            origProp.setLength(0); // clear existing content
+            origProp.append(resolved.getTranslatedPath());
+        }
 
-        if (!origProp.substring(0, 1).equals("$")) {
-            final String[] parts = prop.split("\\.");
-            if (clazz == null) {
-                return null;
+        final MappedField mf = resolved.getTarget();
+        final MappedClass mc = resolved.getContext();
+        if (validateTypes && mf != null) {
+            List<ValidationFailure> typeValidationFailures = new ArrayList<ValidationFailure>();
+            boolean compatibleForType = isCompatibleForOperator(mc, mf, mf.getType(), op, val, typeValidationFailures);
+            List<ValidationFailure> subclassValidationFailures = new ArrayList<ValidationFailure>();
+            boolean compatibleForSubclass = isCompatibleForOperator(mc, mf, mf.getSubClass(), op, val, subclassValidationFailures);
+
+            if ((mf.isSingleValue() && !compatibleForType)
+                || mf.isMultipleValues() && !(compatibleForSubclass || compatibleForType)) {
+
+                if (LOG.isWarningEnabled()) {
+                    LOG.warning(format("The type(s) for the query/update may be inconsistent; using an instance of type '%s' "
+                                       + "for the field '%s.%s' which is declared as '%s'", val.getClass().getName(),
+                                       mf.getDeclaringClass().getName(), mf.getJavaFieldName(), mf.getType().getName()
+                                      ));
+                    typeValidationFailures.addAll(subclassValidationFailures);
+                    LOG.warning("Validation warnings: \n" + typeValidationFailures);
+                }
             }
+        }
+        return mf;
+    }
 
-            MappedClass mc = mapper.getMappedClass(clazz);
-            //CHECKSTYLE:OFF
-            for (int i = 0; ; ) {
-                //CHECKSTYLE:ON
-                final String part = parts[i];
-                boolean fieldIsArrayOperator = part.equals("$") || part.matches("[0-9]+");
-
-                mf = mc.getMappedField(part);
-
-                //translate from java field name to stored field name
-                if (mf == null && !fieldIsArrayOperator) {
-                    mf = mc.getMappedFieldByJavaField(part);
-                    if (validateNames && mf == null) {
-                        throw new ValidationException(format("The field '%s' could not be found in '%s' while validating - %s; if "
-                                                             + "you wish to continue please disable validation.", part,
-                                                             mc.getClazz().getName(), prop
-                                                            ));
-                    }
-                    hasTranslations = true;
-                    if (mf != null) {
-                        parts[i] = mf.getNameToStore();
-                    }
+    /*
+     * Translates each part of a path from a Java field name to the stored name, finding the field at the end.  The result depends only on
+     * the arguments and the classes mapped, so it is kept in the mapper's path cache.
+     */
+    private static PathCache.ResolvedPath resolvePath(final Class clazz, final Mapper mapper, final String prop,
+                                                      final boolean validateNames) {
+        MappedField mf = null;
+        final String[] parts = prop.split("\\.");
+        boolean hasTranslations = false;
+
+        MappedClass mc = mapper.getMappedClass(clazz);
+        //CHECKSTYLE:OFF
+        for (int i = 0; ; ) {
+            //CHECKSTYLE:ON
+            final String part = parts[i];
+            boolean fieldIsArrayOperator = part.equals("$") || part.matches("[0-9]+");
+
+            mf = mc.getMappedField(part);
+
+            //translate from java field name to stored field name
+            if (mf == null && !fieldIsArrayOperator) {
+                mf = mc.getMappedFieldByJavaField(part);
+                if (validateNames && mf == null) {
+                    throw new ValidationException(format("The field '%s' could not be found in '%s' while validating - %s; if "
+                                                         + "you wish to continue please disable validation.", part,
+                                                         mc.getClazz().getName(), prop
+                                                        ));
+                }
+                hasTranslations = true;
+                if (mf != null) {
+                    parts[i] = mf.getNameToStore();
                 }
+            }
 
+            i++;
+            if (mf != null && mf.isMap()) {
+                //skip the map key validation, and move to the next part
                 i++;
-                if (mf != null && mf.isMap()) {
-                    //skip the map key validation, and move to the next part
-                    i++;
-                }
+            }
 
-                if (i >= parts.length) {
-                    break;
-                }
+            if (i >= parts.length) {
+                break;
+            }
 
-                if (!fieldIsArrayOperator) {
-                    //catch people trying to search/update into @Reference/@Serialized fields
-                    if (validateNames && !canQueryPast(mf)) {
-                        throw new ValidationException(format("Cannot use dot-notation past '%s' in '%s'; found while"
-                                                             + " validating - %s", part, mc.getClazz().getName(), prop));
-                    }
-
-                    if (mf == null && (mc.isInterface() || !validateNames)) {
-                        break;
-                    } else if (mf == null) {
-                        throw new ValidationException(format("The field '%s' could not be found in '%s'", prop, mc.getClazz().getName()));
-                    }
-                    //get the next MappedClass for the next field validation
-                    mc = mapper.getMappedClass((mf.isSingleValue()) ? mf.getType() : mf.getSubClass());
+            if (!fieldIsArrayOperator) {
+                //catch people trying to search/update into @Reference/@Serialized fields
+                if (validateNames && !canQueryPast(mf)) {
+                    throw new ValidationException(format("Cannot use dot-notation past '%s' in '%s'; found while"
+                                                         + " validating - %s", part, mc.getClazz().getName(), prop));
                 }
-            }
 
-            //record new property string if there has been a translation to any part
-            if (hasTranslations) {
-                origProp.setLength(0); // clear existing content
-                origProp.append(parts[0]);
-                for (int i = 1; i < parts.length; i++) {
-                    origProp.append('.');
-                    origProp.append(parts[i]);
+                if (mf == null && (mc.isInterface() || !validateNames)) {
+                    break;
+                } else if (mf == null) {
+                    throw new ValidationException(format("The field '%s' could not be found in '%s'", prop, mc.getClazz().getName()));
                 }
+                //get the next MappedClass for the next field validation
+                mc = mapper.getMappedClass((mf.isSingleValue()) ? mf.getType() : mf.getSubClass());
             }
+        }
 
-            if (validateTypes && mf != null) {
-                List<ValidationFailure> typeValidationFailures = new ArrayList<ValidationFailure>();
-                boolean compatibleForType = isCompatibleForOperator(mc, mf, mf.getType(), op, val, typeValidationFailures);
-                List<ValidationFailure> subclassValidationFailures = new ArrayList<ValidationFailure>();
-                boolean compatibleForSubclass = isCompatibleForOperator(mc, mf, mf.getSubClass(), op, val, subclassValidationFailures);
-
-                if ((mf.isSingleValue() && !compatibleForType)
-                    || mf.isMultipleValues() && !(compatibleForSubclass || compatibleForType)) {
-
-                    if (LOG.isWarningEnabled()) {
-                        LOG.warning(format("The type(s) for the query/update may be inconsistent; using an instance of type '%s' "
-                                           + "for the field '%s.%s' which is declared as '%s'", val.getClass().getName(),
-                                           mf.getDeclaringClass().getName(), mf.getJavaFieldName(), mf.getType().getName()
-                                          ));
-                        typeValidationFailures.addAll(subclassValidationFailures);
-                        LOG.warning("Validation warnings: \n" + typeValidationFailures);
-                    }
-                }
+        String translated = prop;
+        if (hasTranslations) {
+            final StringBuilder builder = new StringBuilder(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                builder.append('.');
+                builder.append(parts[i]);
             }
+            translated = builder.toString();
         }
-        return mf;
+        return new PathCache.ResolvedPath(translated, mf, mc);
     }
 
     private static boolean canQueryPast(final MappedField mf) {
@@ -0,0 +1,89 @@
+package xyz.morphia.query.internal;
+
+
+import com.mongodb.Cursor;
+import com.mongodb.DBObject;
+import xyz.morphia.Datastore;
+import xyz.morphia.mapping.Mapper;
+import xyz.morphia.mapping.cache.EntityCache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+
+/**
+ * A MorphiaCursor which reads its documents a batch at a time and loads the eager references of each batch together before mapping it.
+ *
+ * @param <T> the original type being iterated
+ * @see Mapper#prefetchReferences(Datastore, Class, Iterable, EntityCache)
+ * @since 1.5
+ */
+public class BatchReferenceCursor<T> extends MorphiaCursor<T> {
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final Datastore datastore;
+    private final Mapper mapper;
+    private final Class<T> clazz;
+    private final EntityCache cache;
+    private final int batchSize;
+    private final Queue<DBObject> batch = new ArrayDeque<DBObject>();
+
+    /**
+     * Creates a BatchReferenceCursor
+     *
+     * @param datastore the Datastore to use when fetching references
+     * @param cursor    the Iterator to use
+     * @param mapper    the Mapper to use
+     * @param clazz     the original type being iterated
+     * @param cache     the EntityCache
+     * @param batchSize the number of documents to read before loading their references, or 0 for the default
+     */
+    public BatchReferenceCursor(final Datastore datastore, final Cursor cursor, final Mapper mapper, final Class<T> clazz,
+                                final EntityCache cache, final int batchSize) {
+        super(datastore, cursor, mapper, clazz, cache);
+        this.datastore = datastore;
+        this.mapper = mapper;
+        this.clazz = clazz;
+        this.cache = cache;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
+    @Override
+    public void close() {
+        batch.clear();
+        super.close();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!batch.isEmpty()) {
+            return true;
+        }
+        final List<DBObject> read = new ArrayList<DBObject>(batchSize);
+        while (read.size() < batchSize && super.hasNext()) {
+            read.add(getNext());
+        }
+        if (read.isEmpty()) {
+            return false;
+        }
+        mapper.prefetchReferences(datastore, clazz, read, cache);
+        batch.addAll(read);
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return mapper.fromDBObject(datastore, clazz, batch.poll(), cache);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+}
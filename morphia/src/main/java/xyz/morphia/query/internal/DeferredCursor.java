@@ -0,0 +1,80 @@
+package xyz.morphia.query.internal;
+
+
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoIterable;
+
+
+/**
+ * A cursor which does not run its query until it is first used, matching the behavior of the legacy DBCursor.
+ *
+ * @param <T> the type being iterated
+ * @since 1.5
+ */
+public class DeferredCursor<T> implements MongoCursor<T> {
+    private final MongoIterable<T> iterable;
+    private MongoCursor<T> wrapped;
+    private boolean closed;
+
+    /**
+     * Creates a DeferredCursor
+     *
+     * @param iterable the results to iterate
+     */
+    public DeferredCursor(final MongoIterable<T> iterable) {
+        this.iterable = iterable;
+    }
+
+    /**
+     * Closes the underlying cursor, if the query has been run.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (wrapped != null) {
+            wrapped.close();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return getWrapped().hasNext();
+    }
+
+    @Override
+    public T next() {
+        return getWrapped().next();
+    }
+
+    @Override
+    public T tryNext() {
+        return getWrapped().tryNext();
+    }
+
+    @Override
+    public ServerCursor getServerCursor() {
+        return getWrapped().getServerCursor();
+    }
+
+    @Override
+    public ServerAddress getServerAddress() {
+        return getWrapped().getServerAddress();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    private MongoCursor<T> getWrapped() {
+        if (wrapped == null) {
+            if (closed) {
+                throw new IllegalStateException("Cursor has been closed");
+            }
+            wrapped = iterable.iterator();
+        }
+        return wrapped;
+    }
+}
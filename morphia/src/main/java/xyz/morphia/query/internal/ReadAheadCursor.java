@@ -0,0 +1,263 @@
+package xyz.morphia.query.internal;
+
+
+import com.mongodb.MongoInterruptedException;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * A cursor which reads and decodes the next batches of another cursor on an executor while the current batch is being consumed.  At
+ * most one batch is read at a time, and reading stops once the given number of batches is waiting to be consumed.  The wrapped cursor is
+ * only ever used by one thread at a time.
+ *
+ * @param <T> the type being iterated
+ * @since 1.5
+ */
+public class ReadAheadCursor<T> implements MongoCursor<T> {
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final MongoCursor<T> wrapped;
+    private final Executor executor;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final Lock cursorLock = new ReentrantLock();
+    private final Lock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Queue<List<T>> ready = new ArrayDeque<List<T>>();
+    private boolean reading;
+    private boolean exhausted;
+    private RuntimeException failure;
+    private volatile boolean closed;
+
+    private Iterator<T> current;
+
+    /**
+     * Creates a ReadAheadCursor and starts reading the first batch
+     *
+     * @param wrapped    the cursor to read from
+     * @param executor   the executor to read batches on, or null to use a shared pool of daemon threads
+     * @param batchSize  the number of documents to read per batch, or 0 for the default
+     * @param maxBatches the maximum number of batches waiting to be consumed
+     */
+    public ReadAheadCursor(final MongoCursor<T> wrapped, final Executor executor, final int batchSize, final int maxBatches) {
+        if (maxBatches < 1) {
+            throw new IllegalArgumentException("At least one batch must be read ahead");
+        }
+        this.wrapped = wrapped;
+        this.executor = executor != null ? executor : SharedExecutor.INSTANCE;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.maxBatches = maxBatches;
+
+        lock.lock();
+        try {
+            scheduleRead();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops reading ahead, discards any batches not yet consumed and closes the underlying cursor.  If a batch is being read, this waits
+     * for the document being read to arrive so the underlying cursor is never closed while in use.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        cursorLock.lock();
+        try {
+            wrapped.close();
+        } finally {
+            cursorLock.unlock();
+        }
+        lock.lock();
+        try {
+            ready.clear();
+            current = null;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (current != null && current.hasNext()) {
+            return true;
+        }
+        current = null;
+        lock.lock();
+        try {
+            while (!closed) {
+                final List<T> batch = ready.poll();
+                if (batch != null) {
+                    current = batch.iterator();
+                    scheduleRead();
+                    return true;
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                scheduleRead();
+                try {
+                    changed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MongoInterruptedException("Interrupted waiting for the next batch", e);
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    public T tryNext() {
+        if (hasNext()) {
+            return next();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * @return the server cursor.  This reflects the batches read ahead, not only those consumed.
+     */
+    @Override
+    public ServerCursor getServerCursor() {
+        cursorLock.lock();
+        try {
+            return wrapped.getServerCursor();
+        } finally {
+            cursorLock.unlock();
+        }
+    }
+
+    @Override
+    public ServerAddress getServerAddress() {
+        cursorLock.lock();
+        try {
+            return wrapped.getServerAddress();
+        } finally {
+            cursorLock.unlock();
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    /*
+     * Must be called holding the lock.  Starts reading the next batch unless one is being read, enough are waiting or there is nothing
+     * left to read.
+     */
+    private void scheduleRead() {
+        if (reading || closed || exhausted || failure != null || ready.size() >= maxBatches) {
+            return;
+        }
+        reading = true;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    read();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reading = false;
+            failure = e;
+        }
+    }
+
+    private void read() {
+        final List<T> batch = new ArrayList<T>(batchSize);
+        boolean done = false;
+        RuntimeException error = null;
+        cursorLock.lock();
+        try {
+            while (!closed && batch.size() < batchSize) {
+                if (!wrapped.hasNext()) {
+                    done = true;
+                    break;
+                }
+                batch.add(wrapped.next());
+            }
+        } catch (RuntimeException e) {
+            error = e;
+        } finally {
+            cursorLock.unlock();
+        }
+
+        lock.lock();
+        try {
+            reading = false;
+            if (!closed) {
+                if (!batch.isEmpty()) {
+                    ready.add(batch);
+                }
+                exhausted = done;
+                failure = error;
+                scheduleRead();
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class SharedExecutor {
+        private static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            final int threads = Runtime.getRuntime().availableProcessors();
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                                       new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "morphia-read-ahead-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
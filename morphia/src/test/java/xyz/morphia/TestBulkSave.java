@@ -0,0 +1,154 @@
+package xyz.morphia;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DuplicateKeyException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.entities.version.Versioned;
+import xyz.morphia.testmodel.TravelAgency;
+import xyz.morphia.testutil.TestEntity;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static xyz.morphia.utils.ReflectionUtils.iterToList;
+
+public class TestBulkSave extends TestBase {
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        getMorphia().setUseBulkWriteOperations(true);
+    }
+
+    @Test
+    public void testInsertAndReplace() {
+        final List<TravelAgency> agencies = new ArrayList<TravelAgency>();
+        for (int i = 0; i < 2000; i++) {
+            agencies.add(agency("agency " + i));
+        }
+        final List<Key<TravelAgency>> keys = iterToList(getDs().save(agencies));
+        Assert.assertEquals(agencies.size(), keys.size());
+        Assert.assertEquals(agencies.size(), getDs().getCount(TravelAgency.class));
+        for (int i = 0; i < agencies.size(); i++) {
+            Assert.assertNotNull(agencies.get(i).getId());
+            Assert.assertEquals(agencies.get(i).getId(), keys.get(i).getId());
+        }
+
+        agencies.get(5).setName("renamed");
+        final TravelAgency added = agency("added");
+        getDs().save(asList(agencies.get(5), added), new InsertOptions().continueOnError(true));
+        Assert.assertEquals(agencies.size() + 1, getDs().getCount(TravelAgency.class));
+        Assert.assertEquals("renamed", getDs().get(TravelAgency.class, agencies.get(5).getId()).getName());
+        Assert.assertEquals("added", getDs().get(TravelAgency.class, added.getId()).getName());
+    }
+
+    @Test
+    public void testOrderedFailure() {
+        getDs().getCollection(TravelAgency.class).createIndex(new BasicDBObject("name", 1), new BasicDBObject("unique", true));
+        final TravelAgency first = agency("first");
+        final TravelAgency duplicate = agency("first");
+        final TravelAgency last = agency("last");
+        first.setId(null);
+        duplicate.setId(null);
+        last.setId(null);
+        try {
+            getDs().save(asList(first, duplicate, last));
+            Assert.fail("Expected a DuplicateKeyException");
+        } catch (DuplicateKeyException e) {
+            Assert.assertNotNull(e.getCause());
+        }
+        Assert.assertEquals(1, getDs().getCount(TravelAgency.class));
+        Assert.assertNotNull(first.getId());
+        Assert.assertEquals("first", getDs().get(TravelAgency.class, first.getId()).getName());
+        Assert.assertNull(duplicate.getId());
+        Assert.assertNull(last.getId());
+    }
+
+    @Test
+    public void testVersions() {
+        final Versioned first = new Versioned();
+        first.setName("first");
+        final Versioned second = new Versioned();
+        second.setName("second");
+        getDs().save(asList(first, second));
+        Assert.assertEquals(1L, first.getVersion().longValue());
+        Assert.assertEquals(1L, second.getVersion().longValue());
+
+        final Versioned stale = getDs().get(Versioned.class, second.getId());
+        getDs().save(asList(first, second));
+        Assert.assertEquals(2L, first.getVersion().longValue());
+        Assert.assertEquals(2L, second.getVersion().longValue());
+
+        first.setName("first again");
+        stale.setName("stale");
+        try {
+            getDs().save(asList(first, stale));
+            Assert.fail("Expected a ConcurrentModificationException");
+        } catch (ConcurrentModificationException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(second.getId().toString()));
+            Assert.assertFalse(e.getMessage(), e.getMessage().contains(first.getId().toString()));
+        }
+        Assert.assertEquals(3L, first.getVersion().longValue());
+        Assert.assertEquals(1L, stale.getVersion().longValue());
+        Assert.assertEquals("first again", getDs().get(Versioned.class, first.getId()).getName());
+        Assert.assertEquals("second", getDs().get(Versioned.class, second.getId()).getName());
+    }
+
+    @Test
+    public void testSameEntityTwice() {
+        final TravelAgency agency = agency("twice");
+        agency.setId(null);
+        final List<Key<TravelAgency>> keys = iterToList(getDs().save(asList(agency, agency)));
+        Assert.assertEquals(2, keys.size());
+        Assert.assertEquals(1, getDs().getCount(TravelAgency.class));
+        Assert.assertNotNull(agency.getId());
+        Assert.assertEquals(agency.getId(), keys.get(0).getId());
+        Assert.assertEquals(agency.getId(), keys.get(1).getId());
+    }
+
+    @Test
+    public void testEqualEntities() {
+        final Label first = new Label("same");
+        final Label second = new Label("same");
+        first.setId(null);
+        second.setId(null);
+        final List<Key<Label>> keys = iterToList(getDs().save(asList(first, second)));
+        Assert.assertEquals(2, getDs().getCount(Label.class));
+        Assert.assertNotNull(first.getId());
+        Assert.assertNotNull(second.getId());
+        Assert.assertNotEquals(first.getId(), second.getId());
+        Assert.assertEquals(first.getId(), keys.get(0).getId());
+        Assert.assertEquals(second.getId(), keys.get(1).getId());
+    }
+
+    private static TravelAgency agency(final String name) {
+        final TravelAgency agency = new TravelAgency();
+        agency.setName(name);
+        return agency;
+    }
+
+    public static class Label extends TestEntity {
+        private String name;
+
+        public Label() {
+        }
+
+        Label(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Label && name.equals(((Label) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+}
@@ -45,6 +45,7 @@ import xyz.morphia.testmodel.Rectangle;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 import static com.mongodb.ReadPreference.secondaryPreferred;
@@ -100,6 +101,27 @@ public class TestDatastore extends TestBase {
         assertNotEquals(null, saveResult);
     }
 
+    @Test
+    public void testAssignObjectIds() {
+        getMorphia().getMapper().getOptions().setAssignObjectIds(true);
+        final List<Named> entities = asList(new Named("first"), new Named("second"));
+        final Iterator<Key<Named>> keys = getAds().insert(entities, new InsertOptions().chunkSize(1)).iterator();
+        for (final Named entity : entities) {
+            assertNotNull(entity.id);
+            assertEquals(entity.id, keys.next().getId());
+            assertEquals(entity.name, getDs().get(Named.class, entity.id).name);
+        }
+
+        final Named single = new Named("single");
+        assertEquals(getAds().insert(single).getId(), single.id);
+        assertNotNull(getDs().get(Named.class, single.id));
+
+        getMorphia().setUseBulkWriteOperations(true);
+        final Named bulk = new Named("bulk");
+        assertEquals(getDs().save(asList(bulk)).iterator().next().getId(), bulk.id);
+        assertNotNull(getDs().get(Named.class, bulk.id));
+    }
+
     @Test
     public void testCollectionNames() {
         assertEquals("facebook_users", getMorphia().getMapper().getCollectionName(FacebookUser.class));
@@ -897,6 +919,21 @@ public class TestDatastore extends TestBase {
         }
     }
 
+    @Entity("named")
+    private static class Named {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Named(final String name) {
+            this();
+            this.name = name;
+        }
+
+        private Named() {
+        }
+    }
+
     @Entity(concern = "ACKNOWLEDGED")
     static class Simple {
         @Id
@@ -5,8 +5,11 @@ import org.junit.Assert;
 import org.junit.Test;
 import xyz.morphia.testutil.TestEntity;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.util.Arrays.asList;
 
@@ -30,6 +33,42 @@ public class TestGetByKeys extends TestBase {
         Assert.assertFalse(i.hasNext());
     }
 
+    @Test
+    public final void testGetByKeysInOrder() {
+        final List<A> saved = new ArrayList<A>();
+        for (int i = 0; i < 25; i++) {
+            final A a = new A();
+            a.foo = "bar" + i;
+            saved.add(a);
+        }
+        final List<Key<A>> keys = new ArrayList<Key<A>>();
+        for (final Key<A> key : getDs().save(saved)) {
+            keys.add(0, key);
+        }
+        keys.add(keys.get(0));
+        getDs().delete(saved.get(10));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<A> reloaded = getDs().getByKeys(A.class, keys, new GetByKeysOptions()
+                                                                          .chunkSize(4)
+                                                                          .includeMissing(true)
+                                                                          .executor(executor));
+            Assert.assertEquals(keys.size(), reloaded.size());
+            Assert.assertEquals("bar24", reloaded.get(0).foo);
+            Assert.assertNull(reloaded.get(14));
+            Assert.assertEquals("bar0", reloaded.get(24).foo);
+            Assert.assertSame(reloaded.get(0), reloaded.get(25));
+        } finally {
+            executor.shutdown();
+        }
+
+        final List<A> present = getDs().getByKeys(A.class, keys, new GetByKeysOptions().chunkSize(4));
+        Assert.assertEquals(keys.size() - 1, present.size());
+        Assert.assertEquals("bar11", present.get(13).foo);
+        Assert.assertEquals("bar9", present.get(14).foo);
+    }
+
     public static class A extends TestEntity {
         private String foo = "bar";
     }
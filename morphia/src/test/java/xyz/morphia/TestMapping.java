@@ -59,6 +59,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.Vector;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -91,6 +92,24 @@ public class TestMapping extends TestBase {
         assertEquals(1, (int) cil.intList.get(0));
     }
 
+    @Test(expected = MappingException.class)
+    public void testAlsoLoadWithMultipleNamesPresent() {
+        getMorphia().map(ContainsIntegerListNew.class);
+        final BasicDBObject dbObject = new BasicDBObject("integers", asList(1)).append("intList", asList(2));
+        getMorphia().fromDBObject(getDs(), ContainsIntegerListNew.class, dbObject, new DefaultEntityCache());
+    }
+
+    @Test
+    public void testSparseDocumentKeepsDefaults() {
+        getMorphia().map(ContainsIntegerListNew.class);
+        final ContainsIntegerListNew loaded = getMorphia().fromDBObject(getDs(), ContainsIntegerListNew.class,
+                                                                        new BasicDBObject("unmapped", "value"),
+                                                                        new DefaultEntityCache());
+        assertNotNull(loaded.integers);
+        assertTrue(loaded.integers.isEmpty());
+        assertNull(loaded.id);
+    }
+
     @Test
     public void testBadMappings() {
         try {
@@ -0,0 +1,95 @@
+package xyz.morphia;
+
+import org.junit.Assert;
+import org.junit.Test;
+import xyz.morphia.testmodel.TravelAgency;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static xyz.morphia.utils.ReflectionUtils.iterToList;
+
+public class TestStreamingInsert extends TestBase {
+    @Test
+    public void testChunkSize() {
+        final Generator generator = new Generator(2500);
+        final List<Key<TravelAgency>> keys = iterToList(getAds().insert(generator, new InsertOptions().chunkSize(1000)));
+
+        Assert.assertEquals(2500, keys.size());
+        Assert.assertEquals(2500, getDs().getCount(TravelAgency.class));
+        Assert.assertEquals(2500, generator.generated.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Assert.assertEquals(generator.generated.get(i).getId(), keys.get(i).getId());
+        }
+        Assert.assertEquals("agency 1234", getDs().get(TravelAgency.class, keys.get(1234).getId()).getName());
+    }
+
+    @Test
+    public void testChunkBytes() {
+        final Generator generator = new Generator(300);
+        final List<Key<TravelAgency>> keys = iterToList(getAds().insert(generator, new InsertOptions().maxChunkBytes(1024)));
+
+        Assert.assertEquals(300, keys.size());
+        Assert.assertEquals(300, getDs().getCount(TravelAgency.class));
+    }
+
+    @Test
+    public void testChunksInFlight() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Generator generator = new Generator(2000);
+            final List<Key<TravelAgency>> keys = iterToList(getAds().insert(generator, new InsertOptions()
+                .chunkSize(100)
+                .maxChunksInFlight(3, executor)));
+
+            Assert.assertEquals(2000, keys.size());
+            Assert.assertEquals(2000, getDs().getCount(TravelAgency.class));
+            for (int i = 0; i < keys.size(); i++) {
+                Assert.assertEquals(generator.generated.get(i).getId(), keys.get(i).getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static final class Generator implements Iterable<TravelAgency> {
+        private final int count;
+        private final List<TravelAgency> generated = new ArrayList<TravelAgency>();
+
+        private Generator(final int count) {
+            this.count = count;
+        }
+
+        @Override
+        public Iterator<TravelAgency> iterator() {
+            return new Iterator<TravelAgency>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < count;
+                }
+
+                @Override
+                public TravelAgency next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final TravelAgency agency = new TravelAgency();
+                    agency.setName("agency " + next++);
+                    generated.add(agency);
+                    return agency;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+}
@@ -25,6 +25,35 @@ public class TestEntityInterceptorMoment extends TestBase {
         getDs().save(new E());
     }
 
+    @Test
+    public void testInterceptorOnlyCalledForOverriddenEvents() {
+        getMorphia().map(E.class);
+        final PersistOnly interceptor = new PersistOnly();
+        getMorphia().getMapper().addInterceptor(interceptor);
+
+        final E entity = new E();
+        getDs().save(entity);
+        Assert.assertEquals(1, interceptor.count);
+        Assert.assertNotNull(interceptor.document.get("_id"));
+
+        Assert.assertNotNull(getDs().get(E.class, entity.id));
+        Assert.assertEquals(1, interceptor.count);
+    }
+
+    @Test
+    public void testInterceptorRemovedThroughTheList() {
+        getMorphia().map(E.class);
+        final PersistOnly interceptor = new PersistOnly();
+        getMorphia().getMapper().addInterceptor(interceptor);
+        getDs().save(new E());
+        Assert.assertEquals(1, interceptor.count);
+
+        Assert.assertTrue(getMorphia().getMapper().getInterceptors().remove(interceptor));
+        Assert.assertTrue(getMorphia().getMapper().getInterceptors().isEmpty());
+        getDs().save(new E());
+        Assert.assertEquals(1, interceptor.count);
+    }
+
     static class E {
         @Id
         private final ObjectId id = new ObjectId();
@@ -37,6 +66,17 @@ public class TestEntityInterceptorMoment extends TestBase {
         }
     }
 
+    public static class PersistOnly extends AbstractEntityInterceptor {
+        private int count;
+        private DBObject document;
+
+        @Override
+        public void prePersist(final Object ent, final DBObject dbObj, final Mapper mapper) {
+            count++;
+            document = dbObj;
+        }
+    }
+
     public static class Interceptor extends AbstractEntityInterceptor {
         @Override
         public void postLoad(final Object ent, final DBObject dbObj, final Mapper mapper) {
@@ -27,6 +27,26 @@ public class CustomConverterDefaultTest extends TestBase {
         Assert.assertEquals("test", e.foo.string);
     }
 
+    @Test
+    public void testConverterAddedAfterMapping() {
+        getMorphia().map(E.class);
+        final MappedField field = getMorphia().getMapper().getMappedClass(E.class).getMappedField("foo");
+        final Converters converters = getMorphia().getMapper().getConverters();
+        final int generation = converters.getGeneration();
+        Assert.assertFalse(converters.getConverter(null, field) instanceof FooConverter);
+
+        final FooConverter fc = new FooConverter();
+        converters.addConverter(fc);
+        Assert.assertNotEquals(generation, converters.getGeneration());
+        Assert.assertSame(fc, converters.getConverter(new Foo("value"), field));
+
+        E e = new E();
+        e.foo = new Foo("late");
+        getDs().save(e);
+        Assert.assertTrue(fc.didConversion());
+        Assert.assertEquals("late", getDs().find(E.class).find(new FindOptions().limit(1)).tryNext().foo.string);
+    }
+
     @Test
     public void testRemoveConverter() {
         Converters converters = getMorphia().getMapper().getConverters();
@@ -0,0 +1,119 @@
+package xyz.morphia.internal;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedCacheTest {
+    private final WriteClock writes = new WriteClock();
+
+    @Test
+    public void evictsOldestByWeight() {
+        final BoundedCache<String, String> cache = new BoundedCache<String, String>(10, 0, TimeUnit.SECONDS, writes);
+        cache.put("a", "group", "first", 4, writes.stamp());
+        cache.put("b", "group", "second", 4, writes.stamp());
+        cache.put("c", "group", "third", 4, writes.stamp());
+
+        assertNull(cache.get("a"));
+        assertEquals("second", cache.get("b"));
+        assertEquals("third", cache.get("c"));
+        assertEquals(8, cache.getWeight());
+
+        cache.put("d", "group", "too heavy", 11, writes.stamp());
+        assertNull(cache.get("d"));
+        assertEquals(8, cache.getWeight());
+    }
+
+    @Test
+    public void replacingKeepsTheNewest() {
+        final BoundedCache<String, String> cache = new BoundedCache<String, String>(2, 0, TimeUnit.SECONDS, writes);
+        cache.put("a", "group", "old", 1, writes.stamp());
+        cache.put("b", "group", "other", 1, writes.stamp());
+        cache.put("a", "group", "new", 1, writes.stamp());
+        assertEquals(2, cache.getWeight());
+
+        // the entry first queued for "a" has been replaced, so evicting it must not drop the new one
+        cache.put("c", "group", "third", 1, writes.stamp());
+        assertEquals("new", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("third", cache.get("c"));
+        assertEquals(2, cache.getWeight());
+    }
+
+    @Test
+    public void staleValues() {
+        final BoundedCache<String, String> cache = new BoundedCache<String, String>(10, 0, TimeUnit.SECONDS, writes);
+        final long stamp = writes.stamp();
+        cache.put("a", "written", "value", 1, stamp);
+        cache.put("b", "untouched", "value", 1, stamp);
+        writes.invalidate("written");
+
+        assertFalse(cache.contains("a"));
+        assertNull(cache.get("a"));
+        assertEquals("value", cache.get("b"));
+        assertEquals(1, cache.getWeight());
+
+        cache.put("a", "written", "read before the write", 1, stamp);
+        assertNull(cache.get("a"));
+        cache.put("a", "written", "read after the write", 1, writes.stamp());
+        assertEquals("read after the write", cache.get("a"));
+    }
+
+    @Test
+    public void invalidateAll() {
+        final BoundedCache<String, String> cache = new BoundedCache<String, String>(10, 0, TimeUnit.SECONDS, writes);
+        final long stamp = writes.stamp();
+        cache.put("a", null, "ungrouped", 1, stamp);
+        cache.put("b", "group", "grouped", 1, stamp);
+        writes.invalidate("group");
+        assertEquals("ungrouped", cache.get("a"));
+
+        writes.invalidateAll();
+        assertNull(cache.get("a"));
+        cache.put("a", null, "read before", 1, stamp);
+        assertNull(cache.get("a"));
+        cache.put("a", null, "read after", 1, writes.stamp());
+        assertEquals("read after", cache.get("a"));
+    }
+
+    @Test
+    public void expires() throws InterruptedException {
+        final BoundedCache<String, String> cache = new BoundedCache<String, String>(10, 20, TimeUnit.MILLISECONDS, writes);
+        cache.put("a", "group", "value", 1, writes.stamp());
+        assertTrue(cache.contains("a"));
+        Thread.sleep(50);
+        assertFalse(cache.contains("a"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void queueStaysBounded() {
+        final BoundedCache<String, String> cache = new BoundedCache<String, String>(1000, 0, TimeUnit.SECONDS, writes);
+        for (int i = 0; i < 10000; i++) {
+            cache.put("a", "group", "value " + i, 1, writes.stamp());
+            assertEquals("value " + i, cache.get("a"));
+            writes.invalidate("group");
+            assertNull(cache.get("a"));
+        }
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+        assertTrue(cache.queued() < 100);
+    }
+
+    @Test
+    public void clear() {
+        final BoundedCache<String, String> cache = new BoundedCache<String, String>(10, 0, TimeUnit.SECONDS, writes);
+        cache.put("a", "group", "value", 3, writes.stamp());
+        cache.put("a", "group", "value", 3, writes.stamp());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+        assertEquals(0, cache.queued());
+    }
+}
@@ -130,4 +130,26 @@ public class PathTargetTest extends TestBase {
         Assert.assertEquals("nested.field.fail", pathTarget.translatedPath());
         Assert.assertNull(pathTarget.getTarget());
     }
+
+    @Test
+    public void cachedUntilClassesAreMapped() {
+        getMorphia().map(ParentType.class, EmbeddedType.class);
+        Mapper mapper = getMorphia().getMapper();
+        MappedClass mappedClass = mapper.getMappedClass(ParentType.class);
+
+        for (int i = 0; i < 2; i++) {
+            final PathTarget pathTarget = new PathTarget(mapper, mappedClass, "embedded.flag");
+            pathTarget.disableValidation();
+            Assert.assertEquals("embedded.flag", pathTarget.translatedPath());
+            Assert.assertNull(pathTarget.getTarget());
+        }
+        getDs().find(ParentType.class).filter("name", "cached");
+        Assert.assertTrue(mapper.getPathCache().size() > 0);
+
+        getMorphia().map(EmbeddedSubtype.class);
+        Assert.assertEquals(0, mapper.getPathCache().size());
+        PathTarget pathTarget = new PathTarget(mapper, mappedClass, "embedded.flag");
+        Assert.assertEquals(mapper.getMappedClass(EmbeddedSubtype.class).getMappedFieldByJavaField("flag"), pathTarget.getTarget());
+        Assert.assertTrue(getDs().find(ParentType.class).filter("name", "cached").getQueryObject().containsField("n"));
+    }
 }
@@ -0,0 +1,94 @@
+package xyz.morphia.mapping;
+
+import org.junit.Test;
+import xyz.morphia.Key;
+import xyz.morphia.TestBase;
+import xyz.morphia.mapping.cache.ConcurrentEntityCache;
+import xyz.morphia.mapping.cache.ConcurrentEntityCacheFactory;
+import xyz.morphia.testutil.TestEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentEntityCacheTest extends TestBase {
+    @Test
+    public void sharedBetweenThreads() throws Exception {
+        final ConcurrentEntityCache cache = new ConcurrentEntityCache(4);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < 4; thread++) {
+                final int offset = thread * 1000;
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        for (int i = offset; i < offset + 1000; i++) {
+                            final Key<Cached> key = new Key<Cached>(Cached.class, "cached", i);
+                            final Cached entity = new Cached();
+                            cache.putEntity(key, entity);
+                            assertSame(entity, cache.getEntity(key));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4000, cache.stats().getEntities());
+        assertEquals(4000, cache.stats().getHits());
+        assertEquals(0, cache.stats().getMisses());
+        assertEquals(4000, cache.stats(Cached.class).getEntities());
+    }
+
+    @Test
+    public void statsByType() {
+        final ConcurrentEntityCache cache = new ConcurrentEntityCache();
+        final Key<Cached> cached = new Key<Cached>(Cached.class, "cached", 1);
+        final Key<Other> other = new Key<Other>(Other.class, "other", 1);
+
+        assertNull(cache.getEntity(cached));
+        cache.putEntity(cached, new Cached());
+        cache.getEntity(cached);
+        cache.notifyExists(other, false);
+        assertEquals(Boolean.FALSE, cache.exists(other));
+
+        assertEquals(1, cache.stats(Cached.class).getEntities());
+        assertEquals(1, cache.stats(Cached.class).getHits());
+        assertEquals(1, cache.stats(Cached.class).getMisses());
+        assertEquals(1, cache.stats(Other.class).getHits());
+        assertEquals(2, cache.getTypeStats().size());
+        assertEquals(2, cache.stats().getHits());
+
+        cache.flush();
+        assertNull(cache.getEntity(cached));
+        assertEquals(0, cache.stats(Other.class).getHits());
+    }
+
+    @Test
+    public void usedByQueries() {
+        getMorphia().getMapper().getOptions().setCacheFactory(new ConcurrentEntityCacheFactory());
+        getDs().save(new Cached());
+        assertEquals(1, getDs().find(Cached.class).asList().size());
+        assertTrue(getMorphia().getMapper().createEntityCache() instanceof ConcurrentEntityCache);
+    }
+
+    private static class Cached extends TestEntity {
+    }
+
+    private static class Other extends TestEntity {
+    }
+}
@@ -0,0 +1,283 @@
+package xyz.morphia.mapping;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DuplicateKeyException;
+import com.mongodb.MongoWriteException;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.AlsoLoad;
+import xyz.morphia.annotations.Embedded;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.PostLoad;
+import xyz.morphia.annotations.PostPersist;
+import xyz.morphia.annotations.PrePersist;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+public class EntityCodecTest extends TestBase {
+
+    @Test
+    public void decodesQueryResults() {
+        getMorphia().map(Decoded.class);
+        final Decoded decoded = new Decoded();
+        decoded.name = "first";
+        decoded.count = 3;
+        decoded.tags = asList("a", "b");
+        decoded.inner = new Inner("inside");
+        getDs().save(decoded);
+
+        final Decoded loaded = getDs().find(Decoded.class).find().next();
+        Assert.assertEquals(decoded.id, loaded.id);
+        Assert.assertEquals("first", loaded.name);
+        Assert.assertEquals(3, loaded.count);
+        Assert.assertEquals(asList("a", "b"), loaded.tags);
+        Assert.assertEquals("inside", loaded.inner.value);
+    }
+
+    @Test
+    public void skipsUnmappedKeysAndReadsAliases() {
+        getMorphia().map(Decoded.class);
+        getDs().getCollection(Decoded.class).insert(new BasicDBObject("_id", new ObjectId())
+                                                        .append("unknown", new BasicDBObject("deep", asList(1, 2, 3)))
+                                                        .append("oldName", "aliased")
+                                                        .append("count", 7));
+
+        final Decoded loaded = getDs().find(Decoded.class).find().next();
+        Assert.assertEquals("aliased", loaded.name);
+        Assert.assertEquals(7, loaded.count);
+        Assert.assertNull(loaded.tags);
+    }
+
+    @Test
+    public void decodesSubclassesByClassName() {
+        getMorphia().map(Decoded.class, DecodedChild.class);
+        final DecodedChild child = new DecodedChild();
+        child.name = "child";
+        child.extra = "more";
+        getDs().save(child);
+
+        final Decoded loaded = getDs().find(Decoded.class).find().next();
+        Assert.assertTrue(loaded instanceof DecodedChild);
+        Assert.assertEquals("more", ((DecodedChild) loaded).extra);
+    }
+
+    @Test
+    public void readsWholeDocumentForLifecycleMethods() {
+        getMorphia().map(WithPostLoad.class);
+        final WithPostLoad entity = new WithPostLoad();
+        entity.name = "loaded";
+        getDs().save(entity);
+
+        final WithPostLoad loaded = getDs().find(WithPostLoad.class).find().next();
+        Assert.assertEquals("loaded", loaded.name);
+        Assert.assertTrue(loaded.postLoaded);
+    }
+
+    @Test
+    public void decodesFromReader() {
+        getMorphia().map(Decoded.class);
+        final ObjectId id = new ObjectId();
+        final BsonDocument document = BsonDocument.parse("{ '_id' : { '$oid' : '" + id + "' }, 'name' : 'raw', 'ignored' : [1, 2],"
+                                                         + " 'inner' : { 'value' : 'nested' } }");
+
+        final EntityCodec<Decoded> codec = new EntityCodec<Decoded>(getDs(), getMorphia().getMapper(), Decoded.class,
+                                                                    getMorphia().getMapper().createEntityCache(),
+                                                                    getDs().getDatabase().getCodecRegistry());
+        final Decoded decoded = codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+        Assert.assertEquals(id, decoded.id);
+        Assert.assertEquals("raw", decoded.name);
+        Assert.assertEquals("nested", decoded.inner.value);
+    }
+
+    @Test
+    public void encodesLikeTheMapper() {
+        getMorphia().map(Decoded.class);
+        final Decoded decoded = new Decoded();
+        decoded.id = new ObjectId();
+        decoded.name = "written";
+        decoded.count = 5;
+        decoded.tags = asList("x", null, "z");
+        decoded.values = new LinkedHashMap<String, Integer>();
+        decoded.values.put("one", 1);
+        decoded.values.put("two", 2);
+        decoded.inner = new Inner("inside");
+
+        final EntityCodec<Decoded> codec = new EntityCodec<Decoded>(getDs(), getMorphia().getMapper(), Decoded.class,
+                                                                    getMorphia().getMapper().createEntityCache(),
+                                                                    getDs().getDatabase().getCodecRegistry());
+        final BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), decoded, EncoderContext.builder().build());
+
+        final BsonDocument expected = new BasicDBObject(getMorphia().getMapper().toDBObject(decoded).toMap())
+                                          .toBsonDocument(BsonDocument.class, getDs().getDatabase().getCodecRegistry());
+        Assert.assertEquals(expected, document);
+    }
+
+    @Test
+    public void savesDirectly() {
+        getMorphia().map(Decoded.class);
+        final Decoded decoded = new Decoded();
+        decoded.name = "saved";
+        decoded.tags = asList("a", "b");
+        getDs().save(decoded);
+        Assert.assertNotNull(decoded.id);
+
+        decoded.count = 9;
+        getDs().save(decoded);
+
+        Assert.assertEquals(1, getDs().getCount(Decoded.class));
+        final Decoded loaded = getDs().get(Decoded.class, decoded.id);
+        Assert.assertEquals(9, loaded.count);
+        Assert.assertEquals(asList("a", "b"), loaded.tags);
+    }
+
+    @Test
+    public void runsPersistLifecycleMethods() {
+        getMorphia().map(WithPrePersist.class);
+        final WithPrePersist entity = new WithPrePersist();
+        getDs().save(entity);
+
+        Assert.assertTrue(entity.postPersisted);
+        Assert.assertEquals("set before persisting", getDs().get(WithPrePersist.class, entity.id).name);
+    }
+
+    @Test
+    public void idsAssignedBeforePersistingAreKept() {
+        getMorphia().map(AssignsId.class);
+        final ObjectId natural = new ObjectId();
+        final AssignsId first = new AssignsId(natural, "first");
+        getDs().save(first);
+        Assert.assertTrue(first.sawNoId);
+        Assert.assertEquals(natural, first.id);
+
+        final AssignsId second = new AssignsId(natural, "second");
+        getDs().save(second);
+        Assert.assertEquals(1, getDs().getCount(AssignsId.class));
+        Assert.assertEquals("second", getDs().get(AssignsId.class, natural).name);
+
+        final AssignsId inserted = new AssignsId(new ObjectId(), "inserted");
+        getAds().insert(inserted);
+        Assert.assertTrue(inserted.sawNoId);
+        Assert.assertEquals("inserted", getDs().get(AssignsId.class, inserted.natural).name);
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void reportsDuplicateKeys() {
+        getMorphia().map(Decoded.class);
+        final Decoded decoded = new Decoded();
+        decoded.name = "once";
+        getAds().insert(decoded);
+        getAds().insert(decoded);
+    }
+
+    @Test
+    public void duplicateKeysKeepTheDriversException() {
+        getMorphia().map(Decoded.class);
+        final Decoded decoded = new Decoded();
+        getAds().insert(decoded);
+        try {
+            getAds().insert(decoded);
+            Assert.fail("The second insert should fail");
+        } catch (DuplicateKeyException e) {
+            Assert.assertTrue(e.getCause() instanceof MongoWriteException);
+            Assert.assertNull(e.getWriteConcernResult());
+        }
+    }
+
+    @Entity("decoded")
+    private static class Decoded {
+        @Id
+        ObjectId id;
+        @AlsoLoad("oldName")
+        String name;
+        int count;
+        List<String> tags;
+        Map<String, Integer> values;
+        Inner inner;
+    }
+
+    private static class DecodedChild extends Decoded {
+        private String extra;
+    }
+
+    @Embedded
+    private static class Inner {
+        private String value;
+
+        Inner() {
+        }
+
+        Inner(final String value) {
+            this.value = value;
+        }
+    }
+
+    @Entity("postLoad")
+    private static class WithPostLoad {
+        @Id
+        private ObjectId id;
+        private String name;
+        private transient boolean postLoaded;
+
+        @PostLoad
+        void postLoad() {
+            postLoaded = true;
+        }
+    }
+
+    @Entity("prePersist")
+    private static class WithPrePersist {
+        @Id
+        private ObjectId id;
+        private String name;
+        private transient boolean postPersisted;
+
+        @PrePersist
+        void prePersist() {
+            name = "set before persisting";
+        }
+
+        @PostPersist
+        void postPersist() {
+            postPersisted = true;
+        }
+    }
+
+    @Entity("assignsId")
+    private static class AssignsId {
+        @Id
+        private ObjectId id;
+        private String name;
+        private transient ObjectId natural;
+        private transient boolean sawNoId;
+
+        AssignsId() {
+        }
+
+        AssignsId(final ObjectId natural, final String name) {
+            this.natural = natural;
+            this.name = name;
+        }
+
+        @PrePersist
+        void prePersist() {
+            if (id == null) {
+                sawNoId = true;
+                id = natural;
+            }
+        }
+    }
+}
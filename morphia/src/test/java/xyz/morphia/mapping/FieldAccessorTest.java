@@ -0,0 +1,95 @@
+package xyz.morphia.mapping;
+
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FieldAccessorTest {
+    private final Mapper mapper = new Mapper();
+
+    @Test
+    public void readsAndWritesFields() {
+        final MappedClass mc = mapper.getMappedClass(Accessed.class);
+        final Accessed entity = new Accessed();
+        final ObjectId id = new ObjectId();
+
+        mc.getMappedField("_id").setFieldValue(entity, id);
+        mc.getMappedField("name").setFieldValue(entity, "Joe");
+        mc.getMappedField("count").setFieldValue(entity, 42);
+        mc.getMappedField("flag").setFieldValue(entity, true);
+        mc.getMappedField("ratio").setFieldValue(entity, 0.5D);
+        mc.getMappedField("initial").setFieldValue(entity, 'j');
+        mc.getMappedField("tags").setFieldValue(entity, new ArrayList<String>());
+
+        Assert.assertEquals(id, entity.id);
+        Assert.assertEquals("Joe", entity.name);
+        Assert.assertEquals(42, entity.count);
+        Assert.assertTrue(entity.flag);
+        Assert.assertEquals(0.5D, entity.ratio, 0);
+        Assert.assertEquals('j', entity.initial);
+        Assert.assertNotNull(entity.tags);
+
+        Assert.assertEquals(id, mc.getMappedField("_id").getFieldValue(entity));
+        Assert.assertEquals("Joe", mc.getMappedField("name").getFieldValue(entity));
+        Assert.assertEquals(42, mc.getMappedField("count").getFieldValue(entity));
+        Assert.assertEquals(Boolean.TRUE, mc.getMappedField("flag").getFieldValue(entity));
+        Assert.assertEquals('j', mc.getMappedField("initial").getFieldValue(entity));
+    }
+
+    @Test
+    public void widensPrimitives() {
+        final Accessed entity = new Accessed();
+        mapper.getMappedClass(Accessed.class).getMappedField("ratio").setFieldValue(entity, 3);
+
+        Assert.assertEquals(3D, entity.ratio, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNullPrimitives() {
+        mapper.getMappedClass(Accessed.class).getMappedField("count").setFieldValue(new Accessed(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedTypes() {
+        mapper.getMappedClass(Accessed.class).getMappedField("name").setFieldValue(new Accessed(), 42);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsForeignInstances() {
+        mapper.getMappedClass(Accessed.class).getMappedField("name").getFieldValue("not an entity");
+    }
+
+    @Test
+    public void usesCustomFactory() {
+        final MapperOptions options = new MapperOptions();
+        final List<String> created = new ArrayList<String>();
+        options.setFieldAccessorFactory(new FieldAccessorFactory() {
+            @Override
+            public FieldAccessor createAccessor(final java.lang.reflect.Field field) {
+                created.add(field.getName());
+                return new ReflectiveFieldAccessor(field);
+            }
+        });
+        final MappedClass mc = new Mapper(options).getMappedClass(Accessed.class);
+
+        Assert.assertEquals(mc.getPersistenceFields().size(), created.size());
+        Assert.assertTrue(mc.getMappedField("name").getAccessor() instanceof ReflectiveFieldAccessor);
+    }
+
+    @Entity
+    private static class Accessed {
+        @Id
+        private ObjectId id;
+        private String name;
+        private int count;
+        private boolean flag;
+        private double ratio;
+        private char initial;
+        private List<String> tags;
+    }
+}
@@ -0,0 +1,83 @@
+package xyz.morphia.mapping;
+
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.AlsoLoad;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Property;
+import xyz.morphia.annotations.Transient;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MappedClassTest extends TestBase {
+    @Test
+    public void fieldLookups() {
+        final MappedClass mc = getMorphia().getMapper().getMappedClass(Account.class);
+        final MappedField owner = mc.getMappedFieldByJavaField("owner");
+
+        assertSame(owner, mc.getMappedField("o"));
+        assertSame(owner, mc.getMappedField("holder"));
+        assertNull(mc.getMappedField("owner"));
+        assertTrue(mc.containsJavaFieldName("o"));
+        assertNull(mc.getMappedFieldByJavaField("o"));
+
+        mc.getPersistenceFields().remove(owner);
+        assertNull(mc.getMappedField("o"));
+        assertNull(mc.getMappedFieldByJavaField("owner"));
+        assertSame(mc.getMappedField("balance"), mc.getMappedFieldByJavaField("balance"));
+    }
+
+    @Test
+    public void replacedFieldLookups() throws NoSuchFieldException {
+        final MappedClass mc = getMorphia().getMapper().getMappedClass(Account.class);
+        final List<MappedField> fields = mc.getPersistenceFields();
+        final MappedField owner = mc.getMappedFieldByJavaField("owner");
+        final MappedField nickname = new MappedField(Account.class.getDeclaredField("nickname"), Account.class,
+                                                     getMorphia().getMapper());
+
+        final int size = fields.size();
+        fields.set(fields.indexOf(owner), nickname);
+        assertEquals(size, fields.size());
+        assertNull(mc.getMappedField("o"));
+        assertNull(mc.getMappedFieldByJavaField("owner"));
+        assertSame(nickname, mc.getMappedField("nickname"));
+        assertSame(nickname, mc.getMappedFieldByJavaField("nickname"));
+    }
+
+    @Test
+    public void subTypes() {
+        final Mapper mapper = getMorphia().getMapper();
+        final MappedClass account = mapper.getMappedClass(Account.class);
+        assertTrue(mapper.getSubTypes(account).isEmpty());
+
+        getMorphia().map(SavingsAccount.class);
+        final List<MappedClass> subTypes = mapper.getSubTypes(account);
+        assertEquals(1, subTypes.size());
+        assertSame(mapper.getMappedClass(SavingsAccount.class), subTypes.get(0));
+        assertTrue(mapper.getSubTypes(subTypes.get(0)).isEmpty());
+    }
+
+    @Entity("accounts")
+    private static class Account {
+        @Id
+        private ObjectId id;
+        @Property("o")
+        @AlsoLoad("holder")
+        private String owner;
+        private long balance;
+        @Transient
+        private String nickname;
+    }
+
+    @Entity("accounts")
+    private static class SavingsAccount extends Account {
+        private double rate;
+    }
+}
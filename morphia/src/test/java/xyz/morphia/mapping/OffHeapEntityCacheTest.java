@@ -0,0 +1,119 @@
+package xyz.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.mapping.cache.OffHeapEntityCacheFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapEntityCacheTest extends TestBase {
+    private OffHeapEntityCacheFactory factory;
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        getMorphia().map(City.class, Street.class);
+        useFactory(1024 * 1024, 64 * 1024);
+    }
+
+    @Test
+    public void rehydratesOnHit() {
+        getDs().save(new City("PAR", "Paris"));
+        final City first = getDs().get(City.class, "PAR");
+        assertEquals(1, factory.size());
+
+        getDs().getCollection(City.class).update(new BasicDBObject("_id", "PAR"),
+                                                 new BasicDBObject("$set", new BasicDBObject("name", "Lutece")));
+        final City second = getDs().get(City.class, "PAR");
+        assertNotSame(first, second);
+        assertEquals("Paris", second.name);
+
+        getDs().save(new Street("Rivoli", second));
+        final Street street = getDs().find(Street.class).get();
+        assertNotSame(second, street.city);
+        assertEquals("Paris", street.city.name);
+    }
+
+    @Test
+    public void invalidatedByWrites() {
+        getDs().save(new City("BER", "Berlin"));
+        assertEquals("Berlin", getDs().get(City.class, "BER").name);
+
+        getDs().update(getDs().find(City.class).filter("_id", "BER"),
+                       getDs().createUpdateOperations(City.class).set("name", "Berlin Mitte"));
+        assertEquals("Berlin Mitte", getDs().get(City.class, "BER").name);
+
+        getDs().delete(getDs().find(City.class).filter("_id", "BER"));
+        assertNull(getDs().get(City.class, "BER"));
+    }
+
+    @Test
+    public void evictsWhenFull() {
+        useFactory(4096, 4096);
+        for (int i = 0; i < 200; i++) {
+            getDs().save(new City("C" + i, "city " + i));
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals("city " + i, getDs().get(City.class, "C" + i).name);
+        }
+        assertEquals(4096, factory.getAllocated());
+        assertTrue(factory.size() > 0);
+        assertTrue(factory.size() <= 4096 / 64);
+        assertEquals("city 199", getDs().get(City.class, "C199").name);
+
+        factory.clear();
+        assertEquals(0, factory.size());
+        assertEquals("city 0", getDs().get(City.class, "C0").name);
+        assertEquals(1, factory.size());
+    }
+
+    private void useFactory(final long capacity, final int pageSize) {
+        factory = new OffHeapEntityCacheFactory(getDs(), getMorphia().getMapper(), capacity, pageSize, 0, TimeUnit.SECONDS);
+        factory.cache(City.class);
+        getMorphia().getMapper().getOptions().setCacheFactory(factory);
+    }
+
+    @Entity("offHeapCities")
+    private static class City {
+        @Id
+        private String code;
+        private String name;
+
+        City() {
+        }
+
+        City(final String code, final String name) {
+            this.code = code;
+            this.name = name;
+        }
+    }
+
+    @Entity("offHeapStreets")
+    private static class Street {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Reference
+        private City city;
+
+        Street() {
+        }
+
+        Street(final String name, final City city) {
+            this.name = name;
+            this.city = city;
+        }
+    }
+}
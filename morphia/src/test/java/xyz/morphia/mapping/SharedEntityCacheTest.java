@@ -0,0 +1,128 @@
+package xyz.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.mapping.cache.SharedEntityCacheFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SharedEntityCacheTest extends TestBase {
+    private SharedEntityCacheFactory factory;
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        factory = new SharedEntityCacheFactory(100, 0, TimeUnit.SECONDS).cache(Country.class);
+        getMorphia().getMapper().getOptions().setCacheFactory(factory);
+        getMorphia().map(Country.class, Address.class);
+    }
+
+    @Test
+    public void sharesBetweenQueries() {
+        final Country country = new Country("FR", "France");
+        getDs().save(country);
+
+        final Country first = getDs().get(Country.class, "FR");
+        assertEquals("France", first.name);
+        assertSame(first, getDs().get(Country.class, "FR"));
+
+        getDs().save(new Address("Paris", country));
+        getDs().save(new Address("Lyon", country));
+        final Address paris = getDs().find(Address.class).filter("city", "Paris").get();
+        final Address lyon = getDs().find(Address.class).filter("city", "Lyon").get();
+        assertSame(first, paris.country);
+        assertSame(first, lyon.country);
+        assertNotSame(paris, getDs().find(Address.class).filter("city", "Paris").get());
+    }
+
+    @Test
+    public void invalidatedByWrites() {
+        getDs().save(new Country("DE", "Germany"));
+        final Country cached = getDs().get(Country.class, "DE");
+
+        getDs().update(getDs().find(Country.class).filter("_id", "DE"),
+                       getDs().createUpdateOperations(Country.class).set("name", "Deutschland"));
+        final Country updated = getDs().get(Country.class, "DE");
+        assertNotSame(cached, updated);
+        assertEquals("Deutschland", updated.name);
+        assertSame(updated, getDs().get(Country.class, "DE"));
+
+        updated.name = "Germany";
+        getDs().save(updated);
+        assertEquals("Germany", getDs().get(Country.class, "DE").name);
+
+        getDs().delete(updated);
+        assertNull(getDs().get(Country.class, "DE"));
+    }
+
+    @Test
+    public void expires() throws InterruptedException {
+        factory = new SharedEntityCacheFactory(100, 50, TimeUnit.MILLISECONDS).cache(Country.class);
+        getMorphia().getMapper().getOptions().setCacheFactory(factory);
+        getDs().save(new Country("IT", "Italy"));
+        assertEquals("Italy", getDs().get(Country.class, "IT").name);
+
+        getDs().getCollection(Country.class).update(new BasicDBObject("_id", "IT"),
+                                                    new BasicDBObject("$set", new BasicDBObject("name", "Italia")));
+        assertEquals("Italy", getDs().get(Country.class, "IT").name);
+        Thread.sleep(100);
+        assertEquals("Italia", getDs().get(Country.class, "IT").name);
+    }
+
+    @Test
+    public void boundedSize() {
+        factory = new SharedEntityCacheFactory(10, 0, TimeUnit.SECONDS).cache(Country.class);
+        getMorphia().getMapper().getOptions().setCacheFactory(factory);
+        for (int i = 0; i < 50; i++) {
+            getDs().save(new Country("C" + i, "country " + i));
+        }
+        for (int i = 0; i < 50; i++) {
+            getDs().get(Country.class, "C" + i);
+        }
+        assertEquals(10, factory.size());
+    }
+
+    @Entity("sharedCountries")
+    private static class Country {
+        @Id
+        private String code;
+        private String name;
+
+        Country() {
+        }
+
+        Country(final String code, final String name) {
+            this.code = code;
+            this.name = name;
+        }
+    }
+
+    @Entity("sharedAddresses")
+    private static class Address {
+        @Id
+        private ObjectId id;
+        private String city;
+        @Reference
+        private Country country;
+
+        Address() {
+        }
+
+        Address(final String city, final Country country) {
+            this.city = city;
+            this.country = country;
+        }
+    }
+}
@@ -62,6 +62,39 @@ public class TestLazyCollectionReference extends ProxyTestBase {
 
     }
 
+    @Test
+    public final void testOrderAcrossChunks() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+
+        final List<ReferencedEntity> saved = new ArrayList<ReferencedEntity>();
+        for (int i = 0; i < 1500; i++) {
+            final ReferencedEntity referenced = new ReferencedEntity();
+            referenced.setFoo("bar" + i);
+            saved.add(referenced);
+        }
+        getDs().save(saved);
+
+        RootEntity root = new RootEntity();
+        final List<ReferencedEntity> references = new ArrayList<ReferencedEntity>();
+        for (int i = saved.size() - 1; i >= 0; i--) {
+            references.add(saved.get(i));
+        }
+        references.add(saved.get(saved.size() - 1));
+        root.references = references;
+        getDs().save(root);
+
+        root = getDs().get(root);
+        assertNotFetched(root.references);
+        final List<ReferencedEntity> retrieved = new ArrayList<ReferencedEntity>(root.references);
+        Assert.assertEquals(references.size(), retrieved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            Assert.assertEquals("bar" + (saved.size() - 1 - i), retrieved.get(i).getFoo());
+        }
+        Assert.assertSame(retrieved.get(0), retrieved.get(retrieved.size() - 1));
+    }
+
     public static class RootEntity extends TestEntity {
         @Reference(lazy = true)
         private Collection<ReferencedEntity> references;
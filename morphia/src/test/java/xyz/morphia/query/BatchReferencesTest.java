@@ -0,0 +1,176 @@
+package xyz.morphia.query;
+
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.mapping.MappingException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class BatchReferencesTest extends TestBase {
+    private final List<Product> products = new ArrayList<Product>();
+    private final List<Customer> customers = new ArrayList<Customer>();
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        getMorphia().map(Order.class, Customer.class, Product.class, Supplier.class);
+        final Supplier supplier = new Supplier("acme");
+        getDs().save(supplier);
+        for (int i = 0; i < 5; i++) {
+            products.add(new Product("product " + i, supplier));
+            customers.add(new Customer("customer " + i));
+        }
+        getDs().save(products);
+        getDs().save(customers);
+    }
+
+    @Test
+    public void references() {
+        final List<Order> orders = new ArrayList<Order>();
+        for (int i = 0; i < 25; i++) {
+            final Order order = new Order(i, customers.get(i % customers.size()));
+            order.products = asList(products.get(i % products.size()), products.get((i + 1) % products.size()));
+            order.byName.put("first", products.get(0));
+            order.favourite = products.get(i % products.size());
+            orders.add(order);
+        }
+        getDs().save(orders);
+
+        final List<Order> found = toList(getDs().find(Order.class).order("number")
+                                                .find(new FindOptions().batchSize(10).batchReferences(true)));
+        assertEquals(orders.size(), found.size());
+        for (int i = 0; i < found.size(); i++) {
+            final Order order = found.get(i);
+            assertEquals(i, order.number);
+            assertEquals("customer " + i % customers.size(), order.customer.name);
+            assertEquals(2, order.products.size());
+            assertEquals("product " + i % products.size(), order.products.get(0).name);
+            assertEquals("product " + (i + 1) % products.size(), order.products.get(1).name);
+            assertEquals("product 0", order.byName.get("first").name);
+            assertEquals("product " + i % products.size(), order.favourite.name);
+            assertEquals("acme", order.favourite.supplier.name);
+        }
+        assertSame(found.get(0).customer, found.get(customers.size()).customer);
+    }
+
+    @Test
+    public void fetch() {
+        getDs().save(new Order(1, customers.get(0)));
+
+        final MorphiaIterator<Order, Order> iterator = getDs().find(Order.class)
+                                                              .fetch(new FindOptions().batchReferences(true));
+        assertEquals("customer 0", iterator.next().customer.name);
+    }
+
+    @Test
+    public void ignoreMissing() {
+        final Order order = new Order(1, customers.get(0));
+        order.products = asList(products.get(0), products.get(1));
+        getDs().save(order);
+        getDs().delete(products.get(1));
+
+        final Order found = getDs().find(Order.class).find(new FindOptions().batchReferences(true)).next();
+        assertEquals(1, found.products.size());
+        assertEquals("product 0", found.products.get(0).name);
+    }
+
+    @Test(expected = MappingException.class)
+    public void missing() {
+        getDs().save(new Order(1, customers.get(0)));
+        getDs().delete(customers.get(0));
+
+        toList(getDs().find(Order.class).find(new FindOptions().batchReferences(true)));
+    }
+
+    @Test
+    public void missingIdOnly() {
+        final Order order = new Order(1, customers.get(0));
+        order.favourite = products.get(2);
+        getDs().save(order);
+        getDs().delete(products.get(2));
+
+        assertNull(getDs().find(Order.class).find(new FindOptions().batchReferences(true)).next().favourite);
+    }
+
+    @Entity("batchOrders")
+    private static class Order {
+        @Id
+        private ObjectId id;
+        private int number;
+        @Reference
+        private Customer customer;
+        @Reference(ignoreMissing = true)
+        private List<Product> products = new ArrayList<Product>();
+        @Reference
+        private Map<String, Product> byName = new HashMap<String, Product>();
+        @Reference(idOnly = true, ignoreMissing = true)
+        private Product favourite;
+
+        Order() {
+        }
+
+        Order(final int number, final Customer customer) {
+            this.number = number;
+            this.customer = customer;
+        }
+    }
+
+    @Entity("batchCustomers")
+    private static class Customer {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Customer() {
+        }
+
+        Customer(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity("batchProducts")
+    private static class Product {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Reference
+        private Supplier supplier;
+
+        Product() {
+        }
+
+        Product(final String name, final Supplier supplier) {
+            this.name = name;
+            this.supplier = supplier;
+        }
+    }
+
+    @Entity("batchSuppliers")
+    private static class Supplier {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Supplier() {
+        }
+
+        Supplier(final String name) {
+            this.name = name;
+        }
+    }
+}
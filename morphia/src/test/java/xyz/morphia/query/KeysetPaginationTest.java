@@ -0,0 +1,152 @@
+package xyz.morphia.query;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static xyz.morphia.query.Sort.ascending;
+import static xyz.morphia.query.Sort.descending;
+
+public class KeysetPaginationTest extends TestBase {
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        for (int i = 0; i < 95; i++) {
+            getDs().save(new Post("author" + (i % 7), i % 10, "post " + i));
+        }
+    }
+
+    @Test
+    public void pagesThroughCompoundSort() {
+        final List<Post> expected = getDs().find(Post.class).order("author,-score,_id").asList();
+        final List<Post> paged = new ArrayList<Post>();
+        String continuation = null;
+        int pages = 0;
+        do {
+            final Page<Post> page = getDs().find(Post.class).order(ascending("author"), descending("score")).page(continuation, 10);
+            assertTrue(page.getEntities().size() <= 10);
+            paged.addAll(page.getEntities());
+            continuation = page.getContinuation();
+            pages++;
+        } while (continuation != null);
+
+        assertEquals(10, pages);
+        assertEquals(expected.size(), paged.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).id, paged.get(i).id);
+        }
+    }
+
+    @Test
+    public void pagesWithFilterAndProjection() {
+        final Query<Post> query = getDs().find(Post.class).filter("score >=", 5).order("-score").project("title", true);
+        Page<Post> page = query.page(null, new FindOptions().limit(30));
+        assertEquals(30, page.getEntities().size());
+        assertNull(page.getEntities().get(0).author);
+        assertTrue(page.hasNext());
+
+        int total = page.getEntities().size();
+        page = getDs().find(Post.class).filter("score >=", 5).order("-score").project("title", true).page(page.getContinuation(), 30);
+        total += page.getEntities().size();
+        assertFalse(page.hasNext());
+        assertEquals(getDs().find(Post.class).filter("score >=", 5).count(), total);
+    }
+
+    @Test
+    public void pagesOverNullAndMissingValues() {
+        for (int i = 0; i < 12; i++) {
+            getDs().save(new Post(null, i, "anonymous " + i));
+            getDs().getCollection(Post.class).insert(new BasicDBObject("author", null).append("score", i).append("title", "null " + i));
+        }
+
+        for (final String order : new String[]{"author", "-author"}) {
+            final List<Post> expected = getDs().find(Post.class).order(order + ",_id").asList();
+            final List<Post> paged = new ArrayList<Post>();
+            String continuation = null;
+            do {
+                final Page<Post> page = getDs().find(Post.class).order(order).page(continuation, 10);
+                paged.addAll(page.getEntities());
+                continuation = page.getContinuation();
+            } while (continuation != null);
+
+            assertEquals(order, expected.size(), paged.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(order, expected.get(i).id, paged.get(i).id);
+            }
+        }
+    }
+
+    @Test
+    public void rejectsArraySortValues() {
+        final DBObject sort = Keyset.sort(new BasicDBObject("author", 1));
+        try {
+            Keyset.token(sort, new BasicDBObject("author", Arrays.asList("ann", "bob")).append("_id", new ObjectId()));
+            fail("An array sort value should be rejected");
+        } catch (QueryException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("author"));
+        }
+    }
+
+    @Test
+    public void rejectsTokenForAnotherSort() {
+        final Page<Post> page = getDs().find(Post.class).order("score").page(null, 10);
+        try {
+            getDs().find(Post.class).order("-score").page(page.getContinuation(), 10);
+            fail("A token for another sort should be rejected");
+        } catch (QueryException e) {
+            // expected
+        }
+        try {
+            getDs().find(Post.class).order("score").page("not a token", 10);
+            fail("A malformed token should be rejected");
+        } catch (QueryException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void rejectsTokenWithOperators() {
+        final DBObject sort = Keyset.sort(new BasicDBObject("score", 1));
+        final String token = Keyset.token(sort, new BasicDBObject("score", new BasicDBObject("$ne", null))
+                                                    .append("_id", new ObjectId()));
+        try {
+            getDs().find(Post.class).order("score").page(token, 10);
+            fail("A token carrying an operator should be rejected");
+        } catch (QueryException e) {
+            // expected
+        }
+    }
+
+    @Entity("keysetPosts")
+    private static class Post {
+        @Id
+        private ObjectId id;
+        private String author;
+        private int score;
+        private String title;
+
+        Post() {
+        }
+
+        Post(final String author, final int score, final String title) {
+            this.author = author;
+            this.score = score;
+            this.title = title;
+        }
+    }
+}
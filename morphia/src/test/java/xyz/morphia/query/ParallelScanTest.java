@@ -0,0 +1,141 @@
+package xyz.morphia.query;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelScanTest extends TestBase {
+    private ExecutorService executor;
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        checkMinServerVersion(3.2);
+        executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 500; i++) {
+            getDs().save(new Reading(i, i % 10, "sensor" + (i % 3)));
+        }
+    }
+
+    @After
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void mergedIteratorCoversEveryDocumentOnce() {
+        final ParallelScan<Reading> scan = getDs().find(Reading.class).filter("level >=", 5).project("level", true).parallelScan(4);
+        assertTrue(scan.getPartitions() > 1);
+
+        final Set<Integer> seen = new HashSet<Integer>();
+        final Iterator<Reading> readings = scan.iterator(executor);
+        while (readings.hasNext()) {
+            final Reading reading = readings.next();
+            assertTrue(reading.level >= 5);
+            assertNull(reading.sensor);
+            assertTrue("Seen twice: " + reading.id, seen.add(reading.id));
+        }
+        assertEquals(250, seen.size());
+    }
+
+    @Test
+    public void callbacksCoverEveryDocumentOnce() {
+        final Set<Integer> seen = Collections.synchronizedSet(new HashSet<Integer>());
+        final Set<Integer> partitions = Collections.synchronizedSet(new HashSet<Integer>());
+        final ParallelScan<Reading> scan = getDs().find(Reading.class).order("-level").parallelScan(8);
+        scan.forEachPartition(executor, new ParallelScan.PartitionCallback<Reading>() {
+            @Override
+            public void onPartition(final int partition, final Iterator<Reading> entities) {
+                partitions.add(partition);
+                while (entities.hasNext()) {
+                    final Reading reading = entities.next();
+                    if (!seen.add(reading.id)) {
+                        throw new IllegalStateException("Seen twice: " + reading.id);
+                    }
+                }
+            }
+        });
+        assertEquals(scan.getPartitions(), partitions.size());
+        assertEquals(500, seen.size());
+    }
+
+    @Test
+    public void callbackFailuresAreRethrown() {
+        try {
+            getDs().find(Reading.class).parallelScan(2).forEachPartition(executor, new ParallelScan.PartitionCallback<Reading>() {
+                @Override
+                public void onPartition(final int partition, final Iterator<Reading> entities) {
+                    throw new IllegalStateException("partition " + partition);
+                }
+            });
+            fail("The callback's exception should be rethrown");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void interruptedPartitionsEndTheIterator() {
+        final Iterator<Reading> readings = getDs().find(Reading.class).parallelScan(4).iterator(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        Thread.currentThread().interrupt();
+                        command.run();
+                    }
+                });
+            }
+        });
+        try {
+            while (readings.hasNext()) {
+                readings.next();
+            }
+            fail("The interrupted partitions should fail the iterator");
+        } catch (RuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = QueryException.class)
+    public void rejectsLimit() {
+        getDs().find(Reading.class).parallelScan(4, new FindOptions().limit(10));
+    }
+
+    @Entity("parallelReadings")
+    private static class Reading {
+        @Id
+        private int id;
+        private int level;
+        private String sensor;
+
+        Reading() {
+        }
+
+        Reading(final int id, final int level, final String sensor) {
+            this.id = id;
+            this.level = level;
+            this.sensor = sensor;
+        }
+    }
+}
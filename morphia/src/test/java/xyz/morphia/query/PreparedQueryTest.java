@@ -0,0 +1,128 @@
+package xyz.morphia.query;
+
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Property;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class PreparedQueryTest extends TestBase {
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        getDs().save(new Person("ann", 17, Level.BASIC));
+        getDs().save(new Person("bob", 34, Level.GOLD));
+        getDs().save(new Person("cal", 51, Level.GOLD));
+        getDs().save(new Person("dee", 68, Level.BASIC));
+    }
+
+    @Test
+    public void bindsValues() {
+        final PreparedQuery<Person> query = getDs().find(Person.class)
+                                                   .field("age").greaterThanOrEq(Parameter.named("min"))
+                                                   .filter("age <", Parameter.named("max"))
+                                                   .order("name")
+                                                   .prepare();
+        assertEquals(2, query.getParameterNames().size());
+
+        assertEquals(Arrays.asList("bob", "cal"), names(query.bind(values(30, 60)).asList()));
+        assertEquals(Arrays.asList("ann", "bob"), names(query.bind(values(0, 40)).asList()));
+        assertEquals(1, query.bind(values(60, 100)).count());
+        assertEquals(query.bind(values(30, 60)).getQueryObject(),
+                     getDs().find(Person.class).field("age").greaterThanOrEq(30).filter("age <", 60).getQueryObject());
+    }
+
+    @Test
+    public void mapsBoundValues() {
+        final PreparedQuery<Person> query = getDs().find(Person.class)
+                                                   .field("level").equal(Parameter.named("level"))
+                                                   .order("name")
+                                                   .prepare();
+        assertEquals(Arrays.asList("bob", "cal"), names(query.bind("level", Level.GOLD).asList()));
+        assertEquals(Arrays.asList("ann", "dee"), names(query.bind("level", Level.BASIC).asList()));
+
+        final PreparedQuery<Person> in = getDs().find(Person.class)
+                                                .filter("yearsOld in", Parameter.named("ages"))
+                                                .prepare();
+        assertEquals(2, in.bind("ages", Arrays.asList(17, 34)).count());
+        assertEquals(1, in.bind("ages", 51).count());
+    }
+
+    @Test
+    public void requiresEveryParameter() {
+        final PreparedQuery<Person> query = getDs().find(Person.class)
+                                                   .filter("name", Parameter.named("name"))
+                                                   .prepare();
+        try {
+            query.bind("nom", "ann");
+            fail("An unknown parameter should be rejected");
+        } catch (QueryException e) {
+            // expected
+        }
+        assertEquals(1, query.bind("name", "ann").count());
+    }
+
+    @Test
+    public void boundQueriesShareNothing() {
+        final PreparedQuery<Person> query = getDs().find(Person.class)
+                                                   .field("age").lessThan(60)
+                                                   .filter("name >=", Parameter.named("from"))
+                                                   .prepare();
+        final Query<Person> bound = query.bind("from", "a");
+        bound.field("age").greaterThan(40);
+        assertEquals(Arrays.asList("cal"), names(bound.asList()));
+
+        assertEquals(3, query.bind("from", "a").count());
+        assertEquals(2, query.bind("from", "b").count());
+    }
+
+    private static Map<String, Object> values(final int min, final int max) {
+        final Map<String, Object> values = new HashMap<String, Object>();
+        values.put("min", min);
+        values.put("max", max);
+        return values;
+    }
+
+    private static List<String> names(final List<Person> people) {
+        final String[] names = new String[people.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = people.get(i).name;
+        }
+        return Arrays.asList(names);
+    }
+
+    private enum Level {
+        BASIC,
+        GOLD
+    }
+
+    @Entity("preparedPeople")
+    private static class Person {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Property("yearsOld")
+        private int age;
+        private Level level;
+
+        Person() {
+        }
+
+        Person(final String name, final int age, final Level level) {
+            this.name = name;
+            this.age = age;
+            this.level = level;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package xyz.morphia.query;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.client.MongoCursor;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+public class ProjectionTest extends TestBase {
+
+    @Test
+    public void decodesOnlyProjectedFields() {
+        getMorphia().map(Article.class);
+        getDs().save(new Article("first", "a long body", 3, asList("x", "y")));
+
+        final Article article = getDs().find(Article.class)
+                                       .project("title", true)
+                                       .find()
+                                       .next();
+        Assert.assertNotNull(article.id);
+        Assert.assertEquals("first", article.title);
+        Assert.assertNull(article.body);
+        Assert.assertEquals(0, article.views);
+        Assert.assertNull(article.tags);
+    }
+
+    @Test
+    public void decodesAllButExcludedFields() {
+        getMorphia().map(Article.class);
+        getDs().save(new Article("first", "a long body", 3, asList("x", "y")));
+
+        final Article article = getDs().find(Article.class)
+                                       .project("body", false)
+                                       .find()
+                                       .next();
+        Assert.assertEquals("first", article.title);
+        Assert.assertNull(article.body);
+        Assert.assertEquals(3, article.views);
+        Assert.assertEquals(asList("x", "y"), article.tags);
+    }
+
+    @Test
+    public void mapsResultsToOtherTypes() {
+        getMorphia().map(Article.class);
+        getDs().save(new Article("first", "a long body", 3, asList("x")));
+        getDs().save(new Article("second", "another body", 5, asList("y")));
+
+        final List<Summary> summaries = new ArrayList<Summary>();
+        final MongoCursor<Summary> cursor = getDs().find(Article.class)
+                                                   .order("title")
+                                                   .find(Summary.class);
+        try {
+            while (cursor.hasNext()) {
+                summaries.add(cursor.next());
+            }
+        } finally {
+            cursor.close();
+        }
+
+        Assert.assertEquals(2, summaries.size());
+        Assert.assertEquals("first", summaries.get(0).title);
+        Assert.assertEquals(3, summaries.get(0).viewCount);
+        Assert.assertEquals("second", summaries.get(1).title);
+        Assert.assertEquals(5, summaries.get(1).viewCount);
+    }
+
+    @Test
+    public void mapsResultsToOtherTypesWithTheQueryProjection() {
+        getMorphia().map(Article.class);
+        final Article saved = new Article("first", "a long body", 3, asList("x"));
+        getDs().save(saved);
+
+        final Reference reference = getDs().find(Article.class)
+                                           .project("title", true)
+                                           .find(Reference.class, new FindOptions().limit(1))
+                                           .next();
+        Assert.assertEquals(saved.id, reference.id);
+        Assert.assertEquals("first", reference.title);
+    }
+
+    @Test
+    public void mapsResultsToOtherTypesWithTheOptionsProjection() {
+        getMorphia().map(Article.class);
+        getDs().save(new Article("first", "a long body", 3, asList("x")));
+
+        final Summary summary = getDs().find(Article.class)
+                                       .find(Summary.class, new FindOptions().projection(new BasicDBObject("title", 1)))
+                                       .next();
+        Assert.assertEquals("first", summary.title);
+        Assert.assertEquals(0, summary.viewCount);
+    }
+
+    @Entity("articles")
+    private static class Article {
+        @Id
+        private ObjectId id;
+        private String title;
+        private String body;
+        @Property("viewCount")
+        private int views;
+        private List<String> tags;
+
+        Article() {
+        }
+
+        Article(final String title, final String body, final int views, final List<String> tags) {
+            this.title = title;
+            this.body = body;
+            this.views = views;
+            this.tags = tags;
+        }
+    }
+
+    private static class Summary {
+        private String title;
+        private int viewCount;
+    }
+
+    private static class Reference {
+        @Id
+        private ObjectId id;
+        private String title;
+    }
+}
@@ -0,0 +1,128 @@
+package xyz.morphia.query;
+
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.Key;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QueryResultCacheTest extends TestBase {
+    private QueryResultCache cache;
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        cache = new QueryResultCache(1024 * 1024, 0, TimeUnit.SECONDS);
+        getAds().setQueryResultCache(cache);
+        for (int i = 0; i < 10; i++) {
+            getDs().save(new Metric("requests", i));
+        }
+        getDs().save(new Metric("errors", 1));
+    }
+
+    @Test
+    public void cachesUntilWritten() {
+        final FindOptions options = new FindOptions().cacheResults(true);
+        final List<Metric> first = query().asList(options);
+        assertEquals(10, first.size());
+        assertEquals(9, query().get(options).value, 0);
+        assertEquals(10, query().asKeyList(options).size());
+        assertEquals(10, query().count(new CountOptions().cacheResults(true)));
+        assertTrue(cache.getSize() > 0);
+
+        changeBehindTheDatastore();
+        final List<Metric> second = query().asList(options);
+        assertEquals(10, second.size());
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals(first.get(0).value, second.get(0).value, 0);
+        assertEquals(9, query().get(options).value, 0);
+        assertEquals(10, query().asKeyList(options).size());
+        assertEquals(10, query().count(new CountOptions().cacheResults(true)));
+
+        getDs().save(new Metric("requests", 10));
+        assertEquals(1, query().asList(options).size());
+        assertEquals(10, query().get(options).value, 0);
+        final List<Key<Metric>> keys = query().asKeyList(options);
+        assertEquals(1, keys.size());
+        assertEquals(Metric.class, keys.get(0).getType());
+        assertEquals(1, query().count(new CountOptions().cacheResults(true)));
+    }
+
+    @Test
+    public void keyedByCriteria() {
+        final FindOptions options = new FindOptions().cacheResults(true);
+        assertEquals(10, query().asList(options).size());
+        assertEquals(1, getDs().find(Metric.class).filter("name", "errors").asList(options).size());
+        assertEquals(5, query().asList(options.copy().limit(5)).size());
+        assertEquals(10, query().asList(options).size());
+    }
+
+    @Test
+    public void uncachedByDefault() {
+        assertEquals(10, query().asList().size());
+        changeBehindTheDatastore();
+        assertNull(query().get());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void boundedSize() {
+        cache = new QueryResultCache(2048, 0, TimeUnit.SECONDS);
+        getAds().setQueryResultCache(cache);
+        final FindOptions options = new FindOptions().cacheResults(true);
+        for (int i = 0; i < 20; i++) {
+            getDs().find(Metric.class).filter("value >=", i).asList(options);
+            assertTrue(cache.getSize() <= 2048);
+        }
+    }
+
+    @Test
+    public void invalidatedRepeatedly() {
+        final FindOptions options = new FindOptions().cacheResults(true);
+        assertEquals(10, query().asList(options).size());
+        final long size = cache.getSize();
+        for (int i = 0; i < 1000; i++) {
+            cache.invalidate(getDs().getCollection(Metric.class).getName());
+            assertEquals(10, query().asList(options).size());
+            assertEquals(size, cache.getSize());
+        }
+    }
+
+    private Query<Metric> query() {
+        return getDs().find(Metric.class).filter("name", "requests").order("-value");
+    }
+
+    private void changeBehindTheDatastore() {
+        getDs().getCollection(Metric.class).update(new BasicDBObject("name", "requests"),
+                                                   new BasicDBObject("$set", new BasicDBObject("name", "renamed")),
+                                                   false, true);
+    }
+
+    @Entity("cachedMetrics")
+    private static class Metric {
+        @Id
+        private ObjectId id;
+        private String name;
+        private double value;
+
+        Metric() {
+        }
+
+        Metric(final String name, final double value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
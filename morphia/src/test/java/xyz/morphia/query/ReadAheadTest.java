@@ -0,0 +1,115 @@
+package xyz.morphia.query;
+
+import com.mongodb.client.MongoCursor;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReadAheadTest extends TestBase {
+    private static final int COUNT = 250;
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        getMorphia().map(Item.class);
+        final List<Item> items = new ArrayList<Item>();
+        for (int i = 0; i < COUNT; i++) {
+            items.add(new Item(i));
+        }
+        getDs().save(items);
+    }
+
+    @Test
+    public void find() {
+        final MongoCursor<Item> cursor = getDs().find(Item.class).order("index")
+                                                .find(new FindOptions().batchSize(10).readAhead(2));
+        assertOrdered(cursor, COUNT);
+    }
+
+    @Test
+    public void fetch() {
+        final MorphiaIterator<Item, Item> iterator = getDs().find(Item.class).order("index")
+                                                            .fetch(new FindOptions().batchSize(7).readAhead(3));
+        int expected = 0;
+        for (final Item item : iterator) {
+            assertEquals(expected++, item.index);
+        }
+        assertEquals(COUNT, expected);
+    }
+
+    @Test
+    public void limitAndExecutor() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final MongoCursor<Item> first = getDs().find(Item.class).order("index")
+                                                   .find(new FindOptions().batchSize(10).limit(35).readAhead(1, executor));
+            final MongoCursor<Item> second = getDs().find(Item.class).order("index")
+                                                    .find(new FindOptions().batchSize(10).readAhead(1, executor));
+            for (int i = 0; i < 35; i++) {
+                assertEquals(i, first.next().index);
+                assertEquals(i, second.next().index);
+            }
+            assertFalse(first.hasNext());
+            assertTrue(second.hasNext());
+            second.close();
+            assertFalse(second.hasNext());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void closeEarly() {
+        final MongoCursor<Item> cursor = getDs().find(Item.class)
+                                                .find(new FindOptions().batchSize(5).readAhead(4));
+        assertTrue(cursor.hasNext());
+        cursor.next();
+        cursor.close();
+        assertFalse(cursor.hasNext());
+        cursor.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeBatches() {
+        new FindOptions().readAhead(-1);
+    }
+
+    private void assertOrdered(final MongoCursor<Item> cursor, final int count) {
+        int expected = 0;
+        try {
+            while (cursor.hasNext()) {
+                assertEquals(expected++, cursor.next().index);
+            }
+        } finally {
+            cursor.close();
+        }
+        assertEquals(count, expected);
+    }
+
+    @Entity("readAhead")
+    private static class Item {
+        @Id
+        private ObjectId id;
+        private int index;
+
+        Item() {
+        }
+
+        Item(final int index) {
+            this.index = index;
+        }
+    }
+}